@@ -1,6 +1,9 @@
 const TodoList = ({ currentMood }) => {
     const [todos, setTodos] = useState([]);
+    const [totalCount, setTotalCount] = useState(0);
+    const [nextCursor, setNextCursor] = useState(null);
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
     const [filter, setFilter] = useState('all');
     const [showAddModal, setShowAddModal] = useState(false);
     const [newTodo, setNewTodo] = useState({
@@ -17,19 +20,25 @@ const TodoList = ({ currentMood }) => {
         loadTodos();
     }, [filter]);
 
+    const filterParams = () => {
+        if (filter === 'active') {
+            return { status: 'PENDING,IN_PROGRESS' };
+        } else if (filter === 'completed') {
+            return { status: 'COMPLETED' };
+        }
+        return {};
+    };
+
+    // Filtro e paginação no servidor: a primeira página traz o total em X-Total-Count
+    // e as seguintes são pedidas com o cursor de X-Next-Cursor
     const loadTodos = async () => {
         try {
             setLoading(true);
-            const response = await axios.get(`${API_BASE_URL}/todos`);
-            let filteredTodos = response.data;
-
-            if (filter === 'active') {
-                filteredTodos = filteredTodos.filter(t => t.status === 'PENDING' || t.status === 'IN_PROGRESS');
-            } else if (filter === 'completed') {
-                filteredTodos = filteredTodos.filter(t => t.status === 'COMPLETED');
-            }
+            const response = await axios.get(`${API_BASE_URL}/todos`, { params: filterParams() });
 
-            setTodos(filteredTodos);
+            setTodos(response.data);
+            setTotalCount(Number(response.headers['x-total-count'] ?? response.data.length));
+            setNextCursor(response.headers['x-next-cursor'] ?? null);
             setLoading(false);
         } catch (error) {
             console.error('Erro ao carregar tarefas:', error);
@@ -37,6 +46,25 @@ const TodoList = ({ currentMood }) => {
         }
     };
 
+    const loadMore = async () => {
+        if (!nextCursor) {
+            return;
+        }
+        try {
+            setLoadingMore(true);
+            const response = await axios.get(`${API_BASE_URL}/todos`, {
+                params: { ...filterParams(), after: nextCursor }
+            });
+
+            setTodos(current => [...current, ...response.data]);
+            setNextCursor(response.headers['x-next-cursor'] ?? null);
+            setLoadingMore(false);
+        } catch (error) {
+            console.error('Erro ao carregar mais tarefas:', error);
+            setLoadingMore(false);
+        }
+    };
+
     const createTodo = async () => {
         try {
             await axios.post(`${API_BASE_URL}/todos`, newTodo);
@@ -95,7 +123,9 @@ const TodoList = ({ currentMood }) => {
                     <div>
                         <h2 className="text-2xl font-bold text-gray-900">Minhas Tarefas</h2>
                         <p className="text-sm text-gray-500 mt-1">
-                            {todos.length} tarefas no total
+                            {todos.length < totalCount
+                                ? `${todos.length} de ${totalCount} tarefas`
+                                : `${totalCount} tarefas no total`}
                         </p>
                     </div>
 
@@ -235,6 +265,16 @@ const TodoList = ({ currentMood }) => {
                             </div>
                         </div>
                     ))}
+
+                    {nextCursor && (
+                        <button
+                            onClick={loadMore}
+                            disabled={loadingMore}
+                            className="w-full py-3 bg-gray-100 text-gray-700 rounded-lg hover:bg-gray-200 transition-colors font-medium disabled:opacity-60"
+                        >
+                            {loadingMore ? 'Carregando...' : 'Carregar mais'}
+                        </button>
+                    )}
                 </div>
             )}
 
@@ -22,6 +22,8 @@ class SmartToDoIoTSimulator:
         self.mqtt_host = os.getenv('MQTT_BROKER_HOST', 'localhost')
         self.mqtt_port = int(os.getenv('MQTT_BROKER_PORT', 1883))
         self.simulation_interval = int(os.getenv('SIMULATION_INTERVAL', 10))
+        # Dono dos sensores e da localização simulados; as tarefas criadas pelo frontend são do usuário 'default'
+        self.user_id = os.getenv('SIMULATOR_USER_ID', 'default')
 
         # Estado atual do ambiente/usuário
         self.environment_state = {
@@ -120,7 +122,8 @@ class SmartToDoIoTSimulator:
                 'unit': config['unit'],
                 'timestamp': current_time.isoformat(),
                 'location': self.environment_state['location'],
-                'quality': random.choices(['good', 'fair', 'poor'], weights=[0.8, 0.15, 0.05])[0]
+                'quality': random.choices(['good', 'fair', 'poor'], weights=[0.8, 0.15, 0.05])[0],
+                'user_id': self.user_id
             }
 
             topic = f"sensors/{sensor_type}/data"
@@ -268,7 +271,7 @@ class SmartToDoIoTSimulator:
                 self.environment_state['location'] = new_location
 
                 location_data = {
-                    'user_id': 'user_001',
+                    'user_id': self.user_id,
                     'location': new_location,
                     'previous_location': current_location,
                     'confidence': round(random.uniform(0.85, 0.98), 2),
@@ -276,7 +279,7 @@ class SmartToDoIoTSimulator:
                     'detection_method': random.choice(['gps', 'wifi', 'bluetooth', 'beacon'])
                 }
 
-                topic = "location/user/001"
+                topic = f"location/user/{self.user_id}"
                 self.publish_sensor_data(topic, location_data)
 
                 print(f"{Fore.MAGENTA}📍 Mudança de localização: {current_location} → {new_location}{Style.RESET_ALL}")
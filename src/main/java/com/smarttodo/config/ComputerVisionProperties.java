@@ -13,6 +13,10 @@ public class ComputerVisionProperties {
     private boolean faceDetectionEnabled = true;
     private boolean moodAnalysisEnabled = true;
     private boolean debugMode = false;
+    private int moodConfirmAnalyses = 3;       // análises seguidas com o mesmo humor para ele valer
+    private long moodConfirmWindow = 15000;    // ou tempo mínimo com o novo humor, o que vier primeiro
+    private long moodRescoreInterval = 60000;  // intervalo mínimo entre passadas de ajuste por humor
+    private String userId = "default";         // usuário em frente à câmera deste nó
 
     public boolean isEnabled() {
         return enabled;
@@ -61,4 +65,36 @@ public class ComputerVisionProperties {
     public void setDebugMode(boolean debugMode) {
         this.debugMode = debugMode;
     }
+
+    public int getMoodConfirmAnalyses() {
+        return moodConfirmAnalyses;
+    }
+
+    public void setMoodConfirmAnalyses(int moodConfirmAnalyses) {
+        this.moodConfirmAnalyses = moodConfirmAnalyses;
+    }
+
+    public long getMoodConfirmWindow() {
+        return moodConfirmWindow;
+    }
+
+    public void setMoodConfirmWindow(long moodConfirmWindow) {
+        this.moodConfirmWindow = moodConfirmWindow;
+    }
+
+    public long getMoodRescoreInterval() {
+        return moodRescoreInterval;
+    }
+
+    public void setMoodRescoreInterval(long moodRescoreInterval) {
+        this.moodRescoreInterval = moodRescoreInterval;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
 }
@@ -18,6 +18,8 @@ public class CorsConfig {
         config.setAllowedOriginPatterns(Arrays.asList("*"));
         config.setAllowedHeaders(Arrays.asList("*"));
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
+        // Paginação de /api/todos vai nos cabeçalhos; o navegador só os entrega ao front se expostos
+        config.setExposedHeaders(Arrays.asList("X-Total-Count", "X-Next-Cursor"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
@@ -3,6 +3,9 @@ package com.smarttodo.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Component
 @ConfigurationProperties(prefix = "smarttodo.iot")
 public class IoTProperties {
@@ -12,6 +15,13 @@ public class IoTProperties {
 
     private Mqtt mqtt = new Mqtt();
     private InfluxDB influxDB = new InfluxDB();
+    private Ingestion ingestion = new Ingestion();
+    private Adjustments adjustments = new Adjustments();
+    private Inbound inbound = new Inbound();
+    private HotStore hotStore = new HotStore();
+    private Rollups rollups = new Rollups();
+    private Retention retention = new Retention();
+    private Users users = new Users();
 
     public boolean isEnabled() {
         return enabled;
@@ -45,6 +55,62 @@ public class IoTProperties {
         this.influxDB = influxDB;
     }
 
+    public Ingestion getIngestion() {
+        return ingestion;
+    }
+
+    public void setIngestion(Ingestion ingestion) {
+        this.ingestion = ingestion;
+    }
+
+    public Adjustments getAdjustments() {
+        return adjustments;
+    }
+
+    public void setAdjustments(Adjustments adjustments) {
+        this.adjustments = adjustments;
+    }
+
+    public Inbound getInbound() {
+        return inbound;
+    }
+
+    public void setInbound(Inbound inbound) {
+        this.inbound = inbound;
+    }
+
+    public HotStore getHotStore() {
+        return hotStore;
+    }
+
+    public void setHotStore(HotStore hotStore) {
+        this.hotStore = hotStore;
+    }
+
+    public Rollups getRollups() {
+        return rollups;
+    }
+
+    public void setRollups(Rollups rollups) {
+        this.rollups = rollups;
+    }
+
+    public Users getUsers() {
+        return users;
+    }
+
+    public void setUsers(Users users) {
+        this.users = users;
+    }
+
+    public Retention getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Retention retention) {
+        this.retention = retention;
+    }
+
     public static class Mqtt{
         private String brokerUrl = "tcp://localhost:1883";
         private String clientId = "smart-todo-backend";
@@ -94,7 +160,7 @@ public class IoTProperties {
     }
 
     public static class Topics{
-        private String sensor = "sensor/+/data";
+        private String sensor = "sensors/+/data";
         private String location = "location/user/+";
         private String commands = "smarthome/commands";
 
@@ -129,6 +195,13 @@ public class IoTProperties {
         private String token = "";
         private String org = "smarttodo";
         private String bucket = "sensor-data";
+        private String measurement = "sensor_data";
+        private int batchSize = 1000;
+        private int flushInterval = 1000;
+        private int bufferLimit = 10000;
+        private int retryInterval = 5000;
+        private int maxRetries = 5;
+        private int maxRetryDelay = 30000;
 
         public boolean isEnabled() {
             return enabled;
@@ -169,5 +242,293 @@ public class IoTProperties {
         public void setBucket(String bucket) {
             this.bucket = bucket;
         }
+
+        public String getMeasurement() {
+            return measurement;
+        }
+
+        public void setMeasurement(String measurement) {
+            this.measurement = measurement;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(int flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getBufferLimit() {
+            return bufferLimit;
+        }
+
+        public void setBufferLimit(int bufferLimit) {
+            this.bufferLimit = bufferLimit;
+        }
+
+        public int getRetryInterval() {
+            return retryInterval;
+        }
+
+        public void setRetryInterval(int retryInterval) {
+            this.retryInterval = retryInterval;
+        }
+
+        public int getMaxRetries() {
+            return maxRetries;
+        }
+
+        public void setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+        }
+
+        public int getMaxRetryDelay() {
+            return maxRetryDelay;
+        }
+
+        public void setMaxRetryDelay(int maxRetryDelay) {
+            this.maxRetryDelay = maxRetryDelay;
+        }
+    }
+
+    public static class Ingestion{
+        private boolean enabled = true;
+        private int queueCapacity = 10000;
+        private int batchSize = 500;
+        private long flushInterval = 1000;
+        private long offerTimeout = 100;
+        private long shutdownTimeout = 10000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public long getOfferTimeout() {
+            return offerTimeout;
+        }
+
+        public void setOfferTimeout(long offerTimeout) {
+            this.offerTimeout = offerTimeout;
+        }
+
+        public long getShutdownTimeout() {
+            return shutdownTimeout;
+        }
+
+        public void setShutdownTimeout(long shutdownTimeout) {
+            this.shutdownTimeout = shutdownTimeout;
+        }
+    }
+
+    public static class Adjustments{
+        private long coalesceWindow = 60000;
+
+        public long getCoalesceWindow() {
+            return coalesceWindow;
+        }
+
+        public void setCoalesceWindow(long coalesceWindow) {
+            this.coalesceWindow = coalesceWindow;
+        }
+    }
+
+    public static class Users{
+        private long contextIdleTimeout = 86400000;  // contexto sem leituras por 24h sai da memória
+        private long evictionInterval = 600000;
+        private Map<String, String> locationTopicUsers = new HashMap<>();  // segmento de location/user/{id} -> usuário
+
+        public long getContextIdleTimeout() {
+            return contextIdleTimeout;
+        }
+
+        public void setContextIdleTimeout(long contextIdleTimeout) {
+            this.contextIdleTimeout = contextIdleTimeout;
+        }
+
+        public long getEvictionInterval() {
+            return evictionInterval;
+        }
+
+        public void setEvictionInterval(long evictionInterval) {
+            this.evictionInterval = evictionInterval;
+        }
+
+        public Map<String, String> getLocationTopicUsers() {
+            return locationTopicUsers;
+        }
+
+        public void setLocationTopicUsers(Map<String, String> locationTopicUsers) {
+            this.locationTopicUsers = locationTopicUsers;
+        }
+    }
+
+    public static class Inbound{
+        private Mode mode = Mode.DIRECT;
+        private int partitions = Runtime.getRuntime().availableProcessors();
+        private boolean virtualThreads = false;
+
+        public enum Mode{
+            DIRECT, PARTITIONED
+        }
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public int getPartitions() {
+            return partitions;
+        }
+
+        public void setPartitions(int partitions) {
+            this.partitions = partitions;
+        }
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+    }
+
+    public static class HotStore{
+        private int retentionHours = 24;
+        private int maxReadingsPerSensor = 17280;
+        private boolean warmUp = true;
+        private long evictionInterval = 600000; // ms entre varreduras de sensores sem leituras na retenção
+
+        public int getRetentionHours() {
+            return retentionHours;
+        }
+
+        public void setRetentionHours(int retentionHours) {
+            this.retentionHours = retentionHours;
+        }
+
+        public int getMaxReadingsPerSensor() {
+            return maxReadingsPerSensor;
+        }
+
+        public void setMaxReadingsPerSensor(int maxReadingsPerSensor) {
+            this.maxReadingsPerSensor = maxReadingsPerSensor;
+        }
+
+        public boolean isWarmUp() {
+            return warmUp;
+        }
+
+        public void setWarmUp(boolean warmUp) {
+            this.warmUp = warmUp;
+        }
+
+        public long getEvictionInterval() {
+            return evictionInterval;
+        }
+
+        public void setEvictionInterval(long evictionInterval) {
+            this.evictionInterval = evictionInterval;
+        }
+    }
+
+    public static class Rollups{
+        private long flushInterval = 10000;
+
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    public static class Retention{
+        private boolean enabled = true;
+        private int liveDays = 30;
+        private int chunkSize = 5000;
+        private long interval = 3600000;
+        private String archiveDirectory = "data/sensor-archive";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getLiveDays() {
+            return liveDays;
+        }
+
+        public void setLiveDays(int liveDays) {
+            this.liveDays = liveDays;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public long getInterval() {
+            return interval;
+        }
+
+        public void setInterval(long interval) {
+            this.interval = interval;
+        }
+
+        public String getArchiveDirectory() {
+            return archiveDirectory;
+        }
+
+        public void setArchiveDirectory(String archiveDirectory) {
+            this.archiveDirectory = archiveDirectory;
+        }
     }
 }
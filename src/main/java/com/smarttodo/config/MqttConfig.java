@@ -1,12 +1,15 @@
 package com.smarttodo.config;
 
+import com.smarttodo.service.MqttPartitionMonitor;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.integration.annotation.ServiceActivator;
 import org.springframework.integration.channel.DirectChannel;
-import org.springframework.integration.core.MessageProducer;
+import org.springframework.integration.channel.PartitionedChannel;
 import org.springframework.integration.mqtt.core.DefaultMqttPahoClientFactory;
 import org.springframework.integration.mqtt.core.MqttPahoClientFactory;
 import org.springframework.integration.mqtt.inbound.MqttPahoMessageDrivenChannelAdapter;
@@ -14,13 +17,19 @@ import org.springframework.integration.mqtt.outbound.MqttPahoMessageHandler;
 import org.springframework.integration.mqtt.support.DefaultPahoMessageConverter;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.MessageHandler;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 @Configuration
 public class MqttConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(MqttConfig.class);
+
     @Autowired
     private IoTProperties ioTProperties;
 
+    @Autowired
+    private MqttPartitionMonitor mqttPartitionMonitor;
+
     @Bean
     public MqttPahoClientFactory mqttClientFactory(){
         DefaultMqttPahoClientFactory factory = new DefaultMqttPahoClientFactory();
@@ -40,7 +49,28 @@ public class MqttConfig {
 
     @Bean
     public MessageChannel mqttInputChannel(){
-        return new DirectChannel();
+        IoTProperties.Inbound inbound = ioTProperties.getInbound();
+
+        if (inbound.getMode() != IoTProperties.Inbound.Mode.PARTITIONED){
+            return new DirectChannel();
+        }
+
+        PartitionedChannel channel = new PartitionedChannel(
+                mqttPartitionMonitor.getPartitionCount(),
+                mqttPartitionMonitor::partitionKey
+        );
+
+        if (inbound.isVirtualThreads()){
+            channel.setThreadFactory(Thread.ofVirtual().name("mqtt-partition-", 0).factory());
+        } else {
+            channel.setThreadFactory(new CustomizableThreadFactory("mqtt-partition-"));
+        }
+
+        channel.addInterceptor(mqttPartitionMonitor);
+
+        logger.info("Canal MQTT particionado - partições: {}, virtual threads: {}",
+                mqttPartitionMonitor.getPartitionCount(), inbound.isVirtualThreads());
+        return channel;
     }
 
     @Bean
@@ -49,12 +79,12 @@ public class MqttConfig {
     }
 
     @Bean
-    public MessageProducer mqttInbound(){
+    public MqttPahoMessageDrivenChannelAdapter mqttInbound(){
         MqttPahoMessageDrivenChannelAdapter adapter = new MqttPahoMessageDrivenChannelAdapter(
                 ioTProperties.getMqtt().getClientId() + "_inbound",
                 mqttClientFactory(),
                 ioTProperties.getMqtt().getTopics().getSensor(),
-                ioTProperties.getMqtt().getTopics().getSensor()
+                ioTProperties.getMqtt().getTopics().getLocation()
         );
 
         adapter.setCompletionTimeout(5000);
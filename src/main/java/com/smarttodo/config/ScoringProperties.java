@@ -0,0 +1,100 @@
+package com.smarttodo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "smarttodo.scoring")
+public class ScoringProperties {
+
+    private String rulesFile = "";        // vazio = regras padrão do classpath (scoring-rules.json)
+    private long reloadInterval = 30000;  // verificação de alteração do arquivo
+    private int parallelThreshold = 5000; // a partir de quantas tarefas ativas a pontuação usa o pool paralelo
+    private int parallelism = 0;          // threads do pool de pontuação; 0 = número de processadores
+    private int chunkSize = 1024;         // tarefas pontuadas por pedaço no modo paralelo
+    private long compactionInterval = 60000;  // eventos de score dobrados no checkpoint a cada minuto
+    private int compactionChunkSize = 5000;   // eventos por transação de compactação
+    private long decayHalfLife = 21600000;    // meia-vida dos ajustes automáticos (6h); 0 = sem decaimento
+    private int ledgerCacheSize = 10000;      // scores efetivos em memória (LRU)
+    private int rankingUsers = 1000;          // usuários com rankings de sugestões em memória (LRU)
+
+    public String getRulesFile() {
+        return rulesFile;
+    }
+
+    public void setRulesFile(String rulesFile) {
+        this.rulesFile = rulesFile;
+    }
+
+    public long getReloadInterval() {
+        return reloadInterval;
+    }
+
+    public void setReloadInterval(long reloadInterval) {
+        this.reloadInterval = reloadInterval;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public long getCompactionInterval() {
+        return compactionInterval;
+    }
+
+    public void setCompactionInterval(long compactionInterval) {
+        this.compactionInterval = compactionInterval;
+    }
+
+    public int getCompactionChunkSize() {
+        return compactionChunkSize;
+    }
+
+    public void setCompactionChunkSize(int compactionChunkSize) {
+        this.compactionChunkSize = compactionChunkSize;
+    }
+
+    public int getLedgerCacheSize() {
+        return ledgerCacheSize;
+    }
+
+    public void setLedgerCacheSize(int ledgerCacheSize) {
+        this.ledgerCacheSize = ledgerCacheSize;
+    }
+
+    public int getRankingUsers() {
+        return rankingUsers;
+    }
+
+    public void setRankingUsers(int rankingUsers) {
+        this.rankingUsers = rankingUsers;
+    }
+
+    public long getDecayHalfLife() {
+        return decayHalfLife;
+    }
+
+    public void setDecayHalfLife(long decayHalfLife) {
+        this.decayHalfLife = decayHalfLife;
+    }
+}
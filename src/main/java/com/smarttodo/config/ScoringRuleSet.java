@@ -0,0 +1,187 @@
+package com.smarttodo.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Regras de pontuação como vêm do arquivo (scoring-rules.json); o ScoringRules compila isto em tabelas
+public class ScoringRuleSet {
+
+    private double baseScore = 0.5;
+    private RequiredMood requiredMood = new RequiredMood();
+    private Map<String, List<String>> compatibleMoods = new HashMap<>();
+
+    // humor -> ajuste por carga cognitiva (posição = carga; cargas acima do fim usam o último valor)
+    private Map<String, List<Double>> cognitiveLoad = new HashMap<>();
+
+    // humor (ou "default") -> prioridade -> ajuste
+    private Map<String, Map<String, Double>> priority = new HashMap<>();
+
+    // humor (ou "default") -> ambiente ideal da tarefa -> ajuste
+    private Map<String, Map<String, Double>> environment = new HashMap<>();
+
+    // Janelas em ordem crescente: vale a primeira com horas até o prazo <= maxHours
+    private List<DueWindow> dueDate = new ArrayList<>();
+
+    // Condição ambiental detectada pelos sensores -> regra de ajuste
+    private Map<String, Condition> conditions = new HashMap<>();
+
+    public double getBaseScore() {
+        return baseScore;
+    }
+
+    public void setBaseScore(double baseScore) {
+        this.baseScore = baseScore;
+    }
+
+    public RequiredMood getRequiredMood() {
+        return requiredMood;
+    }
+
+    public void setRequiredMood(RequiredMood requiredMood) {
+        this.requiredMood = requiredMood;
+    }
+
+    public Map<String, List<String>> getCompatibleMoods() {
+        return compatibleMoods;
+    }
+
+    public void setCompatibleMoods(Map<String, List<String>> compatibleMoods) {
+        this.compatibleMoods = compatibleMoods;
+    }
+
+    public Map<String, List<Double>> getCognitiveLoad() {
+        return cognitiveLoad;
+    }
+
+    public void setCognitiveLoad(Map<String, List<Double>> cognitiveLoad) {
+        this.cognitiveLoad = cognitiveLoad;
+    }
+
+    public Map<String, Map<String, Double>> getPriority() {
+        return priority;
+    }
+
+    public void setPriority(Map<String, Map<String, Double>> priority) {
+        this.priority = priority;
+    }
+
+    public Map<String, Map<String, Double>> getEnvironment() {
+        return environment;
+    }
+
+    public void setEnvironment(Map<String, Map<String, Double>> environment) {
+        this.environment = environment;
+    }
+
+    public List<DueWindow> getDueDate() {
+        return dueDate;
+    }
+
+    public void setDueDate(List<DueWindow> dueDate) {
+        this.dueDate = dueDate;
+    }
+
+    public Map<String, Condition> getConditions() {
+        return conditions;
+    }
+
+    public void setConditions(Map<String, Condition> conditions) {
+        this.conditions = conditions;
+    }
+
+    public static class RequiredMood {
+        private double match = 0.4;
+        private double compatible = 0.2;
+        private double mismatch = -0.3;
+
+        public double getMatch() {
+            return match;
+        }
+
+        public void setMatch(double match) {
+            this.match = match;
+        }
+
+        public double getCompatible() {
+            return compatible;
+        }
+
+        public void setCompatible(double compatible) {
+            this.compatible = compatible;
+        }
+
+        public double getMismatch() {
+            return mismatch;
+        }
+
+        public void setMismatch(double mismatch) {
+            this.mismatch = mismatch;
+        }
+    }
+
+    public static class DueWindow {
+        private long maxHours;
+        private double adjustment;
+
+        public long getMaxHours() {
+            return maxHours;
+        }
+
+        public void setMaxHours(long maxHours) {
+            this.maxHours = maxHours;
+        }
+
+        public double getAdjustment() {
+            return adjustment;
+        }
+
+        public void setAdjustment(double adjustment) {
+            this.adjustment = adjustment;
+        }
+    }
+
+    public static class Condition {
+        private String by;  // cognitiveLoad, priority, environment, location; nulo = ajuste fixo
+        private List<Double> loads = new ArrayList<>();
+        private Map<String, Double> values = new HashMap<>();
+
+        @JsonProperty("default")
+        private double defaultValue;
+
+        public String getBy() {
+            return by;
+        }
+
+        public void setBy(String by) {
+            this.by = by;
+        }
+
+        public List<Double> getLoads() {
+            return loads;
+        }
+
+        public void setLoads(List<Double> loads) {
+            this.loads = loads;
+        }
+
+        public Map<String, Double> getValues() {
+            return values;
+        }
+
+        public void setValues(Map<String, Double> values) {
+            this.values = values;
+        }
+
+        public double getDefaultValue() {
+            return defaultValue;
+        }
+
+        public void setDefaultValue(double defaultValue) {
+            this.defaultValue = defaultValue;
+        }
+    }
+}
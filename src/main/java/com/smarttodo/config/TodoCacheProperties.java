@@ -0,0 +1,37 @@
+package com.smarttodo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "smarttodo.cache")
+public class TodoCacheProperties {
+
+    private boolean enabled = true;      // false = toda leitura vai direto ao repositório
+    private int maxEntities = 10000;     // tarefas guardadas por id; a menos usada sai primeiro
+    private int maxActiveLists = 1000;   // listas de tarefas ativas (uma por usuário)
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntities() {
+        return maxEntities;
+    }
+
+    public void setMaxEntities(int maxEntities) {
+        this.maxEntities = maxEntities;
+    }
+
+    public int getMaxActiveLists() {
+        return maxActiveLists;
+    }
+
+    public void setMaxActiveLists(int maxActiveLists) {
+        this.maxActiveLists = maxActiveLists;
+    }
+}
@@ -2,6 +2,7 @@ package com.smarttodo.controller;
 
 import com.smarttodo.service.ComputerVisionService;
 import com.smarttodo.service.MoodAnalysisService;
+import com.smarttodo.service.MoodPropagator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +22,9 @@ public class ComputerVisionController {
     @Autowired
     private MoodAnalysisService moodService;
 
+    @Autowired
+    private MoodPropagator moodPropagator;
+
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getStatus(){
         Map<String, Object> status = new HashMap<>();
@@ -28,6 +32,7 @@ public class ComputerVisionController {
         status.put("currentMood", cvService.getCurrentMood());
         status.put("moodDescription", moodService.getMoodDescription(cvService.getCurrentMood()));
         status.put("lastAnalysis", cvService.getLastAnalysis());
+        status.put("propagation", moodPropagator.getStatus());
         status.put("timestamp", LocalDateTime.now());
 
         return ResponseEntity.ok(status);
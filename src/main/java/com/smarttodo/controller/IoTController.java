@@ -2,18 +2,34 @@ package com.smarttodo.controller;
 
 import com.smarttodo.entity.SensorData;
 import com.smarttodo.repository.SensorDataRepository;
+import com.smarttodo.repository.SensorDataView;
+import com.smarttodo.service.EnvironmentalAdjustmentScheduler;
+import com.smarttodo.service.HistoryCursor;
+import com.smarttodo.service.InfluxSensorSink;
 import com.smarttodo.service.IotService;
+import com.smarttodo.service.MqttPartitionMonitor;
+import com.smarttodo.service.RollupResolution;
+import com.smarttodo.service.SensorHistoryService;
+import com.smarttodo.service.SensorHotStore;
+import com.smarttodo.service.SensorIngestionService;
+import com.smarttodo.service.SensorRetentionService;
+import com.smarttodo.service.SensorRollupService;
+import com.smarttodo.service.UserContextRegistry;
 import org.apache.coyote.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -29,13 +45,43 @@ public class IoTController {
     @Autowired
     private SensorDataRepository sensorDataRepository;
 
+    @Autowired
+    private SensorIngestionService sensorIngestionService;
+
+    @Autowired
+    private EnvironmentalAdjustmentScheduler environmentalAdjustmentScheduler;
+
+    @Autowired
+    private MqttPartitionMonitor mqttPartitionMonitor;
+
+    @Autowired
+    private SensorHotStore sensorHotStore;
+
+    @Autowired
+    private SensorRollupService sensorRollupService;
+
+    @Autowired
+    private InfluxSensorSink influxSensorSink;
+
+    @Autowired
+    private SensorRetentionService sensorRetentionService;
+
+    @Autowired
+    private SensorHistoryService sensorHistoryService;
+
+    @Autowired
+    private UserContextRegistry userContextRegistry;
+
     @GetMapping("/status")
-    public ResponseEntity<Map<String, Object>> getIoTStatus(){
+    public ResponseEntity<Map<String, Object>> getIoTStatus(
+            @RequestHeader(value = TodoController.USER_HEADER, defaultValue = UserContextRegistry.DEFAULT_USER) String userId){
         Map<String, Object> status = new HashMap<>();
 
-        status.put("currentLocation", iotService.getCurrentLocation());
-        status.put("environtmentalConditions", iotService.getCurrentEnvironmentalConditions());
-        status.put("latestSensorData", iotService.getAllLatestSensorData());
+        status.put("userId", userId);
+        status.put("currentLocation", iotService.getCurrentLocation(userId));
+        status.put("environtmentalConditions", iotService.getCurrentEnvironmentalConditions(userId));
+        status.put("latestSensorData", iotService.getAllLatestSensorData(userId));
+        status.put("userContexts", userContextRegistry.getStatus());
         status.put("timestamp", LocalDateTime.now());
 
         List<String> sensorTypes = sensorDataRepository.findAllSensorTypes();
@@ -45,15 +91,57 @@ public class IoTController {
         return ResponseEntity.ok(status);
     }
 
+    @GetMapping("/ingestion")
+    public ResponseEntity<Map<String, Object>> getIngestionStatus(){
+        return ResponseEntity.ok(sensorIngestionService.getStatus());
+    }
+
+    @GetMapping("/inbound")
+    public ResponseEntity<Map<String, Object>> getInboundStatus(){
+        return ResponseEntity.ok(mqttPartitionMonitor.getStatus());
+    }
+
+    @GetMapping("/influxdb")
+    public ResponseEntity<Map<String, Object>> getInfluxStatus(){
+        return ResponseEntity.ok(influxSensorSink.getStatus());
+    }
+
+    @GetMapping("/retention")
+    public ResponseEntity<Map<String, Object>> getRetentionStatus(){
+        return ResponseEntity.ok(sensorRetentionService.getStatus());
+    }
+
+    @PostMapping("/retention/run")
+    public ResponseEntity<Map<String, Object>> runRetention(){
+        long archived = sensorRetentionService.purge();
+
+        Map<String, Object> response = sensorRetentionService.getStatus();
+        response.put("archivedNow", archived);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/hot-store")
+    public ResponseEntity<Map<String, Object>> getHotStoreStatus(){
+        return ResponseEntity.ok(sensorHotStore.getStatus());
+    }
+
+    @GetMapping("/adjustments")
+    public ResponseEntity<Map<String, Object>> getAdjustmentStatus(){
+        return ResponseEntity.ok(environmentalAdjustmentScheduler.getStatus());
+    }
+
     @GetMapping("/sensor/{type}")
     public ResponseEntity<Map<String, Object>> getSensorData(
             @PathVariable String type,
-            @RequestParam(defaultValue = "24") int hours){
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestHeader(value = TodoController.USER_HEADER, defaultValue = UserContextRegistry.DEFAULT_USER) String userId){
 
-        SensorData latest = iotService.getLatestSensorData(type);
-        List<SensorData> recent = iotService.getRecentSensorData(type, hours);
+        // Só os sensores do usuário; os agregados (/rollup) continuam por tipo e localização
+        SensorData latest = iotService.getLatestSensorData(userId, type);
+        List<SensorData> recent = iotService.getRecentSensorData(userId, type, hours);
 
         Map<String, Object> response = new HashMap<>();
+        response.put("userId", userId);
         response.put("sensorType", type);
         response.put("latestReading", latest);
         response.put("recentReadings", recent);
@@ -69,21 +157,58 @@ public class IoTController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/sensor/{type}/rollup")
+    public ResponseEntity<Map<String, Object>> getSensorRollup(
+            @PathVariable String type,
+            @RequestParam(defaultValue = "1h") String resolution,
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(required = false) String location){
+
+        Optional<RollupResolution> rollupResolution = RollupResolution.fromCode(resolution);
+        if (rollupResolution.isEmpty()){
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", "Resolução inválida, use 1m, 1h ou 1d");
+            error.put("resolution", resolution);
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusHours(hours);
+        List<Map<String, Object>> buckets = sensorRollupService.getRollup(type, rollupResolution.get(), since, location);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("sensorType", type);
+        response.put("resolution", rollupResolution.get().getCode());
+        response.put("location", location);
+        response.put("since", since);
+        response.put("bucketCount", buckets.size());
+        response.put("buckets", buckets);
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/history")
     public ResponseEntity<Map<String, Object>> getSensorHistory(
-            @RequestParam(defaultValue = "24") int hours){
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestHeader(value = TodoController.USER_HEADER, defaultValue = UserContextRegistry.DEFAULT_USER) String userId){
 
+        String owner = UserContextRegistry.normalize(userId);
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        List<SensorData> recentData = sensorDataRepository.findRecentData(since);
+        List<SensorDataView> recentData = new ArrayList<>(sensorDataRepository.findRecentDataView(owner, since));
+
+        // Faixas anteriores à janela viva já saíram da tabela e são lidas dos arquivos de retenção
+        for (SensorData archived : sensorRetentionService.findArchived(owner, null, since, LocalDateTime.now())){
+            recentData.add(SensorDataView.of(archived));
+        }
 
         Map<String, Object> response = new HashMap<>();
+        response.put("userId", owner);
         response.put("since", since);
         response.put("totalReadings", recentData.size());
         response.put("readings", recentData);
 
         Map<String, Long> countBySensor = recentData.stream()
                 .collect(Collectors.groupingBy(
-                        SensorData::getSensorType,
+                        SensorDataView::sensorType,
                         Collectors.counting()
                 ));
 
@@ -92,6 +217,39 @@ public class IoTController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/history/stream")
+    public ResponseEntity<?> streamSensorHistory(
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = TodoController.USER_HEADER, defaultValue = UserContextRegistry.DEFAULT_USER) String userId){
+
+        HistoryCursor cursor;
+        try{
+            cursor = after != null ? HistoryCursor.parse(after) : null;
+        } catch (IllegalArgumentException e){
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", "Cursor inválido, use o nextCursor devolvido pela chamada anterior");
+            error.put("after", after);
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(error);
+        }
+
+        if (limit != null && limit <= 0){
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", "limit deve ser maior que zero");
+            error.put("limit", limit);
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(error);
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusHours(hours);
+        StreamingResponseBody body = out -> sensorHistoryService.streamHistory(userId, type, since, cursor, limit, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PostMapping("/command/{device}")
     public ResponseEntity<Map<String, String>> sendCommand(
             @PathVariable String device,
@@ -128,7 +286,7 @@ public class IoTController {
         simulatedData.setLocation(location != null ? location : "test_location");
         simulatedData.setQuality("good");
 
-        sensorDataRepository.save(simulatedData);
+        iotService.recordReading(simulatedData);
 
         Map<String, String> response = new HashMap<>();
         response.put("message", "Dados de sensor simulados criados");
@@ -140,14 +298,15 @@ public class IoTController {
     }
 
     @GetMapping("/dashboard")
-    public ResponseEntity<Map<String, Object>> getEnvironmentalDashboard(){
+    public ResponseEntity<Map<String, Object>> getEnvironmentalDashboard(
+            @RequestHeader(value = TodoController.USER_HEADER, defaultValue = UserContextRegistry.DEFAULT_USER) String userId){
         Map<String, Object> dashboard = new HashMap<>();
 
-        dashboard.put("currentLocation", iotService.getCurrentLocation());
+        dashboard.put("currentLocation", iotService.getCurrentLocation(userId));
         dashboard.put("timestamp", LocalDateTime.now());
 
         Map<String, Object> currentConditions = new HashMap<>();
-        Map<String, SensorData> latestData = iotService.getAllLatestSensorData();
+        Map<String, SensorData> latestData = iotService.getAllLatestSensorData(userId);
 
         for (Map.Entry<String, SensorData> entry : latestData.entrySet()){
             String sensorType = entry.getKey();
@@ -1,12 +1,25 @@
 package com.smarttodo.controller;
 
-import com.smarttodo.service.ComputerVisionService;
+import com.smarttodo.config.ScoringRuleSet;
+import com.smarttodo.repository.TaskCounts;
 import com.smarttodo.service.IotService;
-import com.smarttodo.service.TodoService;
+import com.smarttodo.service.SchemaMigrationService;
+import com.smarttodo.service.ScoreLedger;
+import com.smarttodo.service.ScoringRuleEngine;
+import com.smarttodo.service.SuggestionEngine;
+import com.smarttodo.service.TaskScorer;
+import com.smarttodo.service.TaskStatistics;
+import com.smarttodo.service.TodoCache;
+import com.smarttodo.service.UserContext;
+import com.smarttodo.service.UserContextRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,28 +32,93 @@ import java.util.Map;
 public class SmartDashboardController {
 
     @Autowired
-    private TodoService todoService;
+    private IotService iotService;
 
     @Autowired
-    private ComputerVisionService cvService;
+    private SuggestionEngine suggestionEngine;
 
     @Autowired
-    private IotService iotService;
+    private ScoringRuleEngine scoringRuleEngine;
+
+    @Autowired
+    private TaskScorer taskScorer;
+
+    @Autowired
+    private ScoreLedger scoreLedger;
+
+    @Autowired
+    private UserContextRegistry userContextRegistry;
+
+    @Autowired
+    private TodoCache todoCache;
+
+    @Autowired
+    private SchemaMigrationService schemaMigrationService;
+
+    @Autowired
+    private TaskStatistics taskStatistics;
 
     @GetMapping("/dashboard")
-    public ResponseEntity<Map<String, Object>> getDashboard(){
+    public ResponseEntity<Map<String, Object>> getDashboard(
+            @RequestHeader(value = TodoController.USER_HEADER, defaultValue = UserContextRegistry.DEFAULT_USER) String userId){
         Map<String, Object> dashboard = new HashMap<>();
+        UserContext context = userContextRegistry.peek(userId);
 
-        long totalActive = todoService.findActiveTasks().size();
-        long autoAdjusted = todoService.findAll().stream()
-                .filter(t -> Boolean.TRUE.equals(t.getAutoAdjusted()))
-                .count();
+        // Contadores em memória, mantidos a cada mutação
+        TaskCounts counts = taskStatistics.counts(context.getUserId());
 
-        dashboard.put("totalActiveTasks", totalActive);
-        dashboard.put("autoAdjustedTasks", autoAdjusted);
-        dashboard.put("topSuggestions", todoService.findActiveTasks().stream().limit(3).toList());
+        dashboard.put("userId", context.getUserId());
+        dashboard.put("currentMood", context.getMood());
+        dashboard.put("totalActiveTasks", counts.active());
+        dashboard.put("autoAdjustedTasks", counts.autoAdjusted());
+        dashboard.put("topSuggestions", suggestionEngine.getSuggestions(context.getUserId(), context.getMood(), 3));
         dashboard.put("adjustmentEnabled", true);
 
         return ResponseEntity.ok(dashboard);
     }
+
+    @GetMapping("/scoring")
+    public ResponseEntity<Map<String, Object>> getScoringStatus(){
+        Map<String, Object> status = new HashMap<>(taskScorer.getStatus());
+        status.put("ledger", scoreLedger.getStatus());
+        status.put("cache", todoCache.getStatus());
+        return ResponseEntity.ok(status);
+    }
+
+    @GetMapping("/schema")
+    public ResponseEntity<Map<String, Object>> getSchemaStatus(){
+        return ResponseEntity.ok(schemaMigrationService.getStatus());
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<Map<String, Object>> getRules(){
+        Map<String, Object> response = new HashMap<>(scoringRuleEngine.getStatus());
+        response.put("rules", scoringRuleEngine.getRules().getSource());
+        return ResponseEntity.ok(response);
+    }
+
+    // Troca as regras em tempo de execução; regras inválidas são recusadas e as atuais continuam valendo
+    @PutMapping("/rules")
+    public ResponseEntity<Map<String, Object>> updateRules(@RequestBody ScoringRuleSet ruleSet){
+        try{
+            scoringRuleEngine.update(ruleSet);
+            return ResponseEntity.ok(scoringRuleEngine.getStatus());
+        } catch (IllegalArgumentException e){
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+
+    @PostMapping("/rules/reload")
+    public ResponseEntity<Map<String, Object>> reloadRules(){
+        try{
+            scoringRuleEngine.reload();
+            return ResponseEntity.ok(scoringRuleEngine.getStatus());
+        } catch (IllegalArgumentException e){
+            Map<String, Object> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
 }
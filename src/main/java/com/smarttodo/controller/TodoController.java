@@ -1,27 +1,71 @@
 package com.smarttodo.controller;
 
 import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoListQuery;
+import com.smarttodo.repository.TodoListingRepository;
+import com.smarttodo.service.BulkResult;
+import com.smarttodo.service.TaskStatistics;
+import com.smarttodo.service.TodoBulkService;
 import com.smarttodo.service.TodoService;
+import com.smarttodo.service.UserContextRegistry;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/todos")
 @CrossOrigin(origins = "*")
 public class TodoController {
 
+    static final String USER_HEADER = "X-User-Id";
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private TodoService todoService;
 
+    @Autowired
+    private TaskStatistics taskStatistics;
+
+    @Autowired
+    private TodoBulkService todoBulkService;
+
+    @Autowired
+    private Validator validator;
+
+    // Sem o cabeçalho X-User-Id as requisições são do usuário padrão.
+    // Paginado por page/size ou por keyset (after = id da última tarefa recebida, devolvido em X-Next-Cursor);
+    // fields= escolhe as colunas lidas e devolvidas
     @GetMapping
-    public ResponseEntity<List<Todo>> getAllTodos(){
-        List<Todo> todos = todoService.findAll();
-        return ResponseEntity.ok(todos);
+    public ResponseEntity<?> getAllTodos(
+            @RequestHeader(value = USER_HEADER, defaultValue = UserContextRegistry.DEFAULT_USER) String userId,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) List<String> priority,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) List<String> fields){
+        return listTodos(userId, false, status, priority, location, dueFrom, dueTo, page, size, after, fields);
     }
 
     @GetMapping("/{id}")
@@ -32,7 +76,9 @@ public class TodoController {
     }
 
     @PostMapping
-    public ResponseEntity<Todo> createTodo(@Valid @RequestBody Todo todo){
+    public ResponseEntity<Todo> createTodo(@Valid @RequestBody Todo todo,
+            @RequestHeader(value = USER_HEADER, defaultValue = UserContextRegistry.DEFAULT_USER) String userId){
+        todo.setOwnerId(userId);
         Todo savedTodo = todoService.save(todo);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedTodo);
     }
@@ -59,17 +105,212 @@ public class TodoController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Importação em lote: uma transação, INSERTs agrupados; até TodoBulkService.MAX_ITEMS por requisição
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createTodos(@RequestBody List<Todo> todos,
+            @RequestHeader(value = USER_HEADER, defaultValue = UserContextRegistry.DEFAULT_USER) String userId){
+        ResponseEntity<?> invalid = validateBulk(todos, false);
+        if (invalid != null){
+            return invalid;
+        }
+        BulkResult result = todoBulkService.create(userId, todos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(result.toMap());
+    }
+
+    // Cada item leva o id da tarefa e os campos do PUT individual; ids inexistentes voltam em notFound
+    @PutMapping("/bulk")
+    public ResponseEntity<?> updateTodos(@RequestBody List<Todo> todos){
+        ResponseEntity<?> invalid = validateBulk(todos, true);
+        if (invalid != null){
+            return invalid;
+        }
+        return ResponseEntity.ok(todoBulkService.update(todos).toMap());
+    }
+
+    @PatchMapping("/bulk/complete")
+    public ResponseEntity<?> completeTodos(@RequestBody List<Long> ids){
+        ResponseEntity<?> invalid = validateIds(ids);
+        if (invalid != null){
+            return invalid;
+        }
+        return ResponseEntity.ok(todoBulkService.complete(ids).toMap());
+    }
+
+    // POST porque DELETE com corpo não passa por todos os proxies
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> deleteTodos(@RequestBody List<Long> ids){
+        ResponseEntity<?> invalid = validateIds(ids);
+        if (invalid != null){
+            return invalid;
+        }
+        return ResponseEntity.ok(todoBulkService.delete(ids).toMap());
+    }
+
+    // @Valid não desce nos elementos de uma lista no corpo; valida item a item e aponta o índice
+    private ResponseEntity<?> validateBulk(List<Todo> todos, boolean requireId){
+        ResponseEntity<?> invalid = validateSize(todos);
+        if (invalid != null){
+            return invalid;
+        }
+        for (int i = 0; i < todos.size(); i++){
+            Todo todo = todos.get(i);
+            if (todo == null || (requireId && todo.getId() == null)){
+                return badRequest("Item sem id", "index", i);
+            }
+            Set<ConstraintViolation<Todo>> violations = validator.validate(todo);
+            if (!violations.isEmpty()){
+                ConstraintViolation<Todo> violation = violations.iterator().next();
+                return badRequest(violation.getPropertyPath() + ": " + violation.getMessage(), "index", i);
+            }
+        }
+        return null;
+    }
+
+    private static ResponseEntity<?> validateIds(List<Long> ids){
+        ResponseEntity<?> invalid = validateSize(ids);
+        if (invalid != null){
+            return invalid;
+        }
+        if (ids.contains(null)){
+            return badRequest("Lista com id nulo", "index", ids.indexOf(null));
+        }
+        return null;
+    }
+
+    private static ResponseEntity<?> validateSize(Collection<?> items){
+        if (items == null || items.isEmpty() || items.size() > TodoBulkService.MAX_ITEMS){
+            return badRequest("O lote deve ter entre 1 e " + TodoBulkService.MAX_ITEMS + " itens", "size",
+                    items == null ? 0 : items.size());
+        }
+        return null;
+    }
+
+    // Mesma ordem de antes (prioridade, criação); paginada só por page/size
     @GetMapping("/active")
-    public ResponseEntity<List<Todo>> getActiveTasks(){
-        return ResponseEntity.ok(todoService.findActiveTasks());
+    public ResponseEntity<?> getActiveTasks(
+            @RequestHeader(value = USER_HEADER, defaultValue = UserContextRegistry.DEFAULT_USER) String userId,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) List<String> priority,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) List<String> fields){
+        return listTodos(userId, true, status, priority, location, dueFrom, dueTo, page, size, null, fields);
+    }
+
+    private ResponseEntity<?> listTodos(String userId, boolean activeOnly, List<String> status, List<String> priority,
+                                        String location, LocalDateTime dueFrom, LocalDateTime dueTo,
+                                        Integer page, Integer size, Long after, List<String> fields){
+        if (page != null && after != null){
+            return badRequest("Use page ou after, não os dois", "after", after);
+        }
+        if (page != null && page < 0){
+            return badRequest("page deve ser maior ou igual a zero", "page", page);
+        }
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE){
+            return badRequest("size deve estar entre 1 e " + MAX_PAGE_SIZE, "size", pageSize);
+        }
+
+        List<Todo.TaskStatus> statuses;
+        List<Todo.Priority> priorities;
+        try{
+            statuses = parseValues(Todo.TaskStatus.class, status);
+        } catch (IllegalArgumentException e){
+            return badRequest(e.getMessage(), "status", status);
+        }
+        try{
+            priorities = parseValues(Todo.Priority.class, priority);
+        } catch (IllegalArgumentException e){
+            return badRequest(e.getMessage(), "priority", priority);
+        }
+
+        List<String> selected = null;
+        if (fields != null && !fields.isEmpty()){
+            selected = new ArrayList<>();
+            selected.add("id"); // sempre presente: é o cursor do keyset
+            for (String field : fields){
+                String name = field.trim();
+                if (name.isEmpty() || selected.contains(name)){
+                    continue;
+                }
+                if (!TodoListingRepository.LISTABLE_FIELDS.contains(name)){
+                    return badRequest("Campo desconhecido: " + name, "fields", fields);
+                }
+                selected.add(name);
+            }
+        }
+
+        int pageNumber = page != null ? page : 0;
+        int offset = (int) Math.min(Integer.MAX_VALUE, (long) pageNumber * pageSize);
+        TodoListQuery query = new TodoListQuery(UserContextRegistry.normalize(userId), statuses, activeOnly, priorities,
+                location, dueFrom, dueTo, after, after != null ? 0 : offset, pageSize + 1, activeOnly);
+
+        if (activeOnly && !query.hasFilters() && selected == null){
+            // Sem filtros a lista de ativas vem do cache e é só fatiada
+            List<Todo> active = todoService.findActiveTasks(userId);
+            // Limites em long: offset já vem limitado a Integer.MAX_VALUE e offset + pageSize estouraria o int
+            int from = (int) Math.min(offset, active.size());
+            int to = (int) Math.min((long) offset + pageSize, active.size());
+            List<Todo> slice = active.subList(from, to);
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT_HEADER, String.valueOf(active.size()))
+                    .body(new ArrayList<>(slice));
+        }
+
+        // Uma linha a mais diz se existe próxima página sem precisar contar
+        List<?> rows = selected == null ? todoService.list(query) : todoService.list(query, selected);
+        boolean more = rows.size() > pageSize;
+        if (more){
+            rows = rows.subList(0, pageSize);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (after == null){
+            long total = offset == 0 && !more ? rows.size() : todoService.count(query);
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(total));
+        }
+        if (more && !activeOnly){
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(idOf(rows.get(rows.size() - 1))));
+        }
+        return response.body(new ArrayList<>(rows));
+    }
+
+    private static Object idOf(Object row){
+        return row instanceof Todo todo ? todo.getId() : ((Map<?, ?>) row).get("id");
+    }
+
+    private static <E extends Enum<E>> List<E> parseValues(Class<E> type, List<String> values){
+        List<E> parsed = new ArrayList<>();
+        if (values == null){
+            return parsed;
+        }
+        for (String value : values){
+            if (value.isBlank()){
+                continue;
+            }
+            try{
+                parsed.add(Enum.valueOf(type, value.trim().toUpperCase()));
+            } catch (IllegalArgumentException e){
+                throw new IllegalArgumentException("Valor inválido: " + value + ", use " + Arrays.toString(type.getEnumConstants()));
+            }
+        }
+        return parsed;
+    }
+
+    private static ResponseEntity<Map<String, Object>> badRequest(String message, String parameter, Object value){
+        Map<String, Object> error = new HashMap<>();
+        error.put("message", message);
+        error.put(parameter, value);
+        return ResponseEntity.badRequest().body(error);
     }
 
+    // Sem o cabeçalho as contagens são de todos os usuários; lidas dos contadores em memória
     @GetMapping("/stats")
-    public ResponseEntity<Object> getStats(){
-        return ResponseEntity.ok(new Object(){
-            public final long completed = todoService.getCompletedCount();
-            public final long total = todoService.findAll().size();
-            public final long active = total - completed;
-        });
+    public ResponseEntity<Map<String, Object>> getStats(
+            @RequestHeader(value = USER_HEADER, required = false) String userId){
+        return ResponseEntity.ok(taskStatistics.getStats(userId));
     }
 }
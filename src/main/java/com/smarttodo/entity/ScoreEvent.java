@@ -0,0 +1,69 @@
+package com.smarttodo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Ajuste de score ainda não compactado: o score efetivo é o checkpoint em todos + os eventos em ordem de id
+@Entity
+@Table(name = "score_events", indexes = @Index(name = "idx_score_events_todo", columnList = "todo_id, id"))
+public class ScoreEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "todo_id", nullable = false)
+    private Long todoId;
+
+    @Column(name = "cause", nullable = false, length = 64)
+    private String cause; // "environment:high_noise", "location:office"
+
+    @Column(name = "delta", nullable = false)
+    private Double delta;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public ScoreEvent(){}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTodoId() {
+        return todoId;
+    }
+
+    public void setTodoId(Long todoId) {
+        this.todoId = todoId;
+    }
+
+    public String getCause() {
+        return cause;
+    }
+
+    public void setCause(String cause) {
+        this.cause = cause;
+    }
+
+    public Double getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Double delta) {
+        this.delta = delta;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,6 +1,7 @@
 package com.smarttodo.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -33,6 +34,11 @@ public class SensorData {
     @Column(name = "quality")
     private String quality;
 
+    // Usuário dono do sensor que gerou a leitura
+    @ColumnDefault("'default'")
+    @Column(name = "owner_id", nullable = false, length = 64)
+    private String ownerId = "default";
+
     public SensorData(){}
 
     public SensorData(String sensorId, String sensorType, Double value, String unit, String location) {
@@ -107,4 +113,12 @@ public class SensorData {
     public void setQuality(String quality) {
         this.quality = quality;
     }
-}
\ No newline at end of file
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
+}
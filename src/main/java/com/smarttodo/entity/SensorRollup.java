@@ -0,0 +1,136 @@
+package com.smarttodo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "sensor_rollup", uniqueConstraints = @UniqueConstraint(
+        name = "uk_sensor_rollup_bucket",
+        columnNames = {"sensor_type", "resolution", "bucket_start", "location"}))
+public class SensorRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "sensor_type", nullable = false)
+    private String sensorType;
+
+    @Column(name = "location", nullable = false)
+    private String location;
+
+    @Column(name = "resolution", nullable = false, length = 8)
+    private String resolution; // "1m", "1h", "1d"
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "reading_count", nullable = false)
+    private Long count;
+
+    @Column(name = "min_value", nullable = false)
+    private Double min;
+
+    @Column(name = "max_value", nullable = false)
+    private Double max;
+
+    @Column(name = "sum_value", nullable = false)
+    private Double sum;
+
+    @Column(name = "last_value", nullable = false)
+    private Double last;
+
+    @Column(name = "last_timestamp", nullable = false)
+    private LocalDateTime lastTimestamp;
+
+    public SensorRollup(){}
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSensorType() {
+        return sensorType;
+    }
+
+    public void setSensorType(String sensorType) {
+        this.sensorType = sensorType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(String resolution) {
+        this.resolution = resolution;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public Double getMin() {
+        return min;
+    }
+
+    public void setMin(Double min) {
+        this.min = min;
+    }
+
+    public Double getMax() {
+        return max;
+    }
+
+    public void setMax(Double max) {
+        this.max = max;
+    }
+
+    public Double getSum() {
+        return sum;
+    }
+
+    public void setSum(Double sum) {
+        this.sum = sum;
+    }
+
+    public Double getLast() {
+        return last;
+    }
+
+    public void setLast(Double last) {
+        this.last = last;
+    }
+
+    public LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(LocalDateTime lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+}
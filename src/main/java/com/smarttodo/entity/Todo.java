@@ -4,15 +4,21 @@ import jakarta.annotation.Priority;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "todos")
+@Table(name = "todos", indexes = @Index(name = "idx_todos_owner_status", columnList = "owner_id, status"))
 public class Todo {
 
+    // Sequência com otimizador pooled: um acesso à sequência reserva ALLOCATION_SIZE ids, e sem IDENTITY o
+    // Hibernate consegue agrupar os INSERTs em lotes JDBC (hibernate.jdbc.batch_size)
+    public static final int ALLOCATION_SIZE = 100;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+    @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Titulo é obrigatorio")
@@ -72,6 +78,11 @@ public class Todo {
     @Column(name = "suggested_order")
     private Integer suggestedOrder = 0;
 
+    // Usuário dono da tarefa; "default" é o usuário de instalações sem identificação
+    @ColumnDefault("'default'")
+    @Column(name = "owner_id", nullable = false, length = 64)
+    private String ownerId = "default";
+
     public enum Priority{
         LOW, MEDIUM, HIGH, URGENT
     }
@@ -215,4 +226,12 @@ public class Todo {
     public void setSuggestedOrder(Integer suggestedOrder) {
         this.suggestedOrder = suggestedOrder;
     }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(String ownerId) {
+        this.ownerId = ownerId;
+    }
 }
@@ -24,9 +24,22 @@ public interface SensorDataRepository extends JpaRepository<SensorData, Long> {
     @Query("SELECT s FROM SensorData s WHERE s.sensorType = :type AND s.timestamp >= :since ORDER BY s.timestamp DESC")
     List<SensorData> findBySensorTypeAndTimestampAfter(@Param("type") String sensorType, @Param("since") LocalDateTime since);
 
+    @Query("SELECT s FROM SensorData s WHERE s.sensorType = :type AND s.timestamp >= :since AND s.timestamp < :until ORDER BY s.timestamp DESC")
+    List<SensorData> findBySensorTypeAndTimestampBetween(@Param("type") String sensorType, @Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+
+    @Query("SELECT s FROM SensorData s WHERE s.ownerId = :ownerId AND s.sensorType = :type AND s.timestamp >= :since AND s.timestamp < :until ORDER BY s.timestamp DESC")
+    List<SensorData> findByOwnerAndSensorTypeAndTimestampBetween(@Param("ownerId") String ownerId, @Param("type") String sensorType,
+                                                                 @Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+
     @Query("SELECT s FROM SensorData s WHERE s.timestamp >= :since ORDER BY s.timestamp DESC")
     List<SensorData> findRecentData(@Param("since") LocalDateTime since);
 
+    // Projeção para o histórico de um usuário: só as colunas devolvidas pela API
+    @Query("SELECT new com.smarttodo.repository.SensorDataView(s.id, s.sensorId, s.sensorType, s.value, s.unit, " +
+            "s.location, s.timestamp, s.quality) FROM SensorData s WHERE s.ownerId = :ownerId AND s.timestamp >= :since " +
+            "ORDER BY s.timestamp DESC")
+    List<SensorDataView> findRecentDataView(@Param("ownerId") String ownerId, @Param("since") LocalDateTime since);
+
     @Query("SELECT DISTINCT s.sensorType FROM SensorData s")
     List<String> findAllSensorTypes();
 }
@@ -0,0 +1,17 @@
+package com.smarttodo.repository;
+
+import com.smarttodo.entity.SensorData;
+
+import java.time.LocalDateTime;
+
+// Leitura de sensor só com o que o histórico devolve: montada direto da consulta,
+// sem entidade gerenciada nem dirty checking
+public record SensorDataView(Long id, String sensorId, String sensorType, Double value, String unit,
+                             String location, LocalDateTime timestamp, String quality) {
+
+    // Leituras arquivadas voltam como entidade
+    public static SensorDataView of(SensorData data){
+        return new SensorDataView(data.getId(), data.getSensorId(), data.getSensorType(), data.getValue(),
+                data.getUnit(), data.getLocation(), data.getTimestamp(), data.getQuality());
+    }
+}
@@ -0,0 +1,20 @@
+package com.smarttodo.repository;
+
+import com.smarttodo.entity.SensorRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SensorRollupRepository extends JpaRepository<SensorRollup, Long> {
+
+    @Query("SELECT r FROM SensorRollup r WHERE r.sensorType = :type AND r.resolution = :resolution AND r.bucketStart >= :since ORDER BY r.bucketStart ASC")
+    List<SensorRollup> findBuckets(@Param("type") String sensorType, @Param("resolution") String resolution, @Param("since") LocalDateTime since);
+
+    @Query("SELECT r FROM SensorRollup r WHERE r.sensorType = :type AND r.resolution = :resolution AND r.location = :location AND r.bucketStart >= :since ORDER BY r.bucketStart ASC")
+    List<SensorRollup> findBuckets(@Param("type") String sensorType, @Param("resolution") String resolution, @Param("location") String location, @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,6 @@
+package com.smarttodo.repository;
+
+import com.smarttodo.entity.Todo;
+
+// Uma linha do GROUP BY de contagem: quantas tarefas têm essa combinação de dono, status, prioridade e ajuste
+public record TaskCountGroup(String ownerId, Todo.TaskStatus status, Todo.Priority priority, Boolean autoAdjusted, long count) {}
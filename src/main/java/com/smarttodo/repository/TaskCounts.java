@@ -0,0 +1,4 @@
+package com.smarttodo.repository;
+
+// Contagens do dashboard calculadas no banco, numa consulta
+public record TaskCounts(long total, long active, long autoAdjusted) {}
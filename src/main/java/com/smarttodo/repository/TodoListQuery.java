@@ -0,0 +1,18 @@
+package com.smarttodo.repository;
+
+import com.smarttodo.entity.Todo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Filtros e janela de uma listagem de tarefas. Listas vazias e valores null = sem filtro.
+// afterId (keyset, ordem por id) e offset (página) são alternativos; priorityOrder usa a ordem das listas de ativas
+public record TodoListQuery(String ownerId, List<Todo.TaskStatus> statuses, boolean activeOnly,
+                            List<Todo.Priority> priorities, String locationContext,
+                            LocalDateTime dueFrom, LocalDateTime dueTo,
+                            Long afterId, int offset, int limit, boolean priorityOrder) {
+
+    public boolean hasFilters(){
+        return !statuses.isEmpty() || !priorities.isEmpty() || locationContext != null || dueFrom != null || dueTo != null;
+    }
+}
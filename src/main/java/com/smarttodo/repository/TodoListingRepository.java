@@ -0,0 +1,23 @@
+package com.smarttodo.repository;
+
+import com.smarttodo.entity.Todo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Listagem filtrada e paginada, montada com Criteria (os filtros são opcionais e combináveis)
+public interface TodoListingRepository {
+
+    // Atributos de Todo que podem ser pedidos em fields=
+    Set<String> LISTABLE_FIELDS = Set.of("id", "title", "description", "priority", "status", "dueDate", "createdAt",
+            "completedAt", "requiredMood", "locationContext", "estimatedEnergy", "autoAdjusted", "lastMoodCheck",
+            "moodCompatibilityScore", "optimalEnvironment", "cognitiveLoad", "suggestedOrder", "ownerId");
+
+    List<Todo> list(TodoListQuery query);
+
+    // Só as colunas pedidas entram no SELECT; cada linha sai com as chaves na ordem de fields
+    List<Map<String, Object>> list(TodoListQuery query, List<String> fields);
+
+    long count(TodoListQuery query);
+}
@@ -0,0 +1,119 @@
+package com.smarttodo.repository;
+
+import com.smarttodo.entity.Todo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.AvailableHints;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+class TodoListingRepositoryImpl implements TodoListingRepository {
+
+    // Mesma lista das consultas de ativas do TodoRepository
+    private static final EnumSet<Todo.TaskStatus> ACTIVE_STATUSES = EnumSet.complementOf(EnumSet.of(Todo.TaskStatus.COMPLETED));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Todo> list(TodoListQuery query){
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Todo> criteria = cb.createQuery(Todo.class);
+        Root<Todo> root = criteria.from(Todo.class);
+        criteria.select(root).where(predicates(cb, root, query)).orderBy(order(cb, root, query));
+
+        // Só leitura: as entidades vão direto para a resposta
+        return window(entityManager.createQuery(criteria), query)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> list(TodoListQuery query, List<String> fields){
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<Todo> root = criteria.from(Todo.class);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields){
+            if (!LISTABLE_FIELDS.contains(field)){
+                throw new IllegalArgumentException("Campo desconhecido: " + field);
+            }
+            selections.add(root.get(field).alias(field));
+        }
+        criteria.multiselect(selections).where(predicates(cb, root, query)).orderBy(order(cb, root, query));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : window(entityManager.createQuery(criteria), query).getResultList()){
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields){
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public long count(TodoListQuery query){
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> criteria = cb.createQuery(Long.class);
+        Root<Todo> root = criteria.from(Todo.class);
+        // A posição do keyset não entra no total
+        TodoListQuery unbounded = new TodoListQuery(query.ownerId(), query.statuses(), query.activeOnly(),
+                query.priorities(), query.locationContext(), query.dueFrom(), query.dueTo(),
+                null, 0, 0, query.priorityOrder());
+        criteria.select(cb.count(root)).where(predicates(cb, root, unbounded));
+        return entityManager.createQuery(criteria).getSingleResult();
+    }
+
+    private Predicate[] predicates(CriteriaBuilder cb, Root<Todo> root, TodoListQuery query){
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("ownerId"), query.ownerId()));
+        if (query.activeOnly()){
+            predicates.add(root.get("status").in(ACTIVE_STATUSES));
+        }
+        if (!query.statuses().isEmpty()){
+            predicates.add(root.get("status").in(query.statuses()));
+        }
+        if (!query.priorities().isEmpty()){
+            predicates.add(root.get("priority").in(query.priorities()));
+        }
+        if (query.locationContext() != null){
+            predicates.add(cb.equal(root.get("locationContext"), query.locationContext()));
+        }
+        if (query.dueFrom() != null){
+            predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), query.dueFrom()));
+        }
+        if (query.dueTo() != null){
+            predicates.add(cb.lessThan(root.get("dueDate"), query.dueTo()));
+        }
+        if (query.afterId() != null){
+            predicates.add(cb.greaterThan(root.get("id"), query.afterId()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private List<Order> order(CriteriaBuilder cb, Root<Todo> root, TodoListQuery query){
+        if (query.priorityOrder()){
+            return List.of(cb.desc(root.get("priority")), cb.asc(root.get("createdAt")), cb.asc(root.get("id")));
+        }
+        return List.of(cb.asc(root.get("id")));
+    }
+
+    private static <T> TypedQuery<T> window(TypedQuery<T> typedQuery, TodoListQuery query){
+        return typedQuery.setFirstResult(query.offset()).setMaxResults(query.limit());
+    }
+}
@@ -2,20 +2,69 @@ package com.smarttodo.repository;
 
 import com.smarttodo.entity.Todo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface TodoRepository extends JpaRepository<Todo, Long> {
+public interface TodoRepository extends JpaRepository<Todo, Long>, TodoListingRepository {
     List<Todo> findByStatus(Todo.TaskStatus status);
 
     List<Todo> findByPriority(Todo.Priority priority);
 
-    @Query("SELECT t FROM Todo t WHERE t.status != 'COMPLETED' ORDER BY t.priority DESC, t.createdAt ASC")
+    // Ativas = todo status menos COMPLETED, escrito como lista: um <> não usa o índice (status, priority, created_at)
+    // e vira varredura da tabela
+    @Query("SELECT t FROM Todo t WHERE t.status IN ('PENDING', 'IN_PROGRESS', 'CANCELLED') ORDER BY t.priority DESC, t.createdAt ASC")
     List<Todo> findActiveTasks();
 
+    // Leitura para as passadas de pontuação: as entidades não entram no dirty checking,
+    // então alterar o score em memória não gera UPDATE implícito
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT t FROM Todo t WHERE t.status IN ('PENDING', 'IN_PROGRESS', 'CANCELLED') ORDER BY t.priority DESC, t.createdAt ASC")
+    List<Todo> findActiveTasksForScoring();
+
+    // Passadas de ajuste de um usuário: só as tarefas dele, pelo índice (owner_id, status)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT t FROM Todo t WHERE t.ownerId = :ownerId AND t.status IN ('PENDING', 'IN_PROGRESS', 'CANCELLED') ORDER BY t.priority DESC, t.createdAt ASC")
+    List<Todo> findActiveTasksForScoring(@Param("ownerId") String ownerId);
+
+    List<Todo> findByOwnerId(String ownerId);
+
+    @Query("SELECT t FROM Todo t WHERE t.ownerId = :ownerId AND t.status IN ('PENDING', 'IN_PROGRESS', 'CANCELLED') ORDER BY t.priority DESC, t.createdAt ASC")
+    List<Todo> findActiveTasks(@Param("ownerId") String ownerId);
+
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT t FROM Todo t WHERE t.id IN :ids")
+    List<Todo> findAllForScoring(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.id FROM Todo t WHERE t.ownerId = :ownerId AND t.autoAdjusted = true")
+    List<Long> findAutoAdjustedIds(@Param("ownerId") String ownerId);
+
+    // As combinações de status e prioridade que um reset tira do ajuste automático
+    @Query("SELECT new com.smarttodo.repository.TaskCountGroup(t.ownerId, t.status, t.priority, t.autoAdjusted, COUNT(t)) " +
+            "FROM Todo t WHERE t.ownerId = :ownerId AND t.autoAdjusted = true GROUP BY t.ownerId, t.status, t.priority, t.autoAdjusted")
+    List<TaskCountGroup> countAutoAdjustedGroups(@Param("ownerId") String ownerId);
+
+    // Reset das tarefas de um usuário em um único UPDATE, sem carregar as entidades
+    @Modifying
+    @Transactional
+    @Query("UPDATE Todo t SET t.autoAdjusted = false, t.moodCompatibilityScore = 0.0, t.suggestedOrder = 0 " +
+            "WHERE t.ownerId = :ownerId AND t.autoAdjusted = true")
+    int resetAutoAdjusted(@Param("ownerId") String ownerId);
+
+    // Todas as dimensões das estatísticas em uma agregação; as combinações são poucas mesmo com muitas tarefas
+    @Query("SELECT new com.smarttodo.repository.TaskCountGroup(t.ownerId, t.status, t.priority, t.autoAdjusted, COUNT(t)) " +
+            "FROM Todo t GROUP BY t.ownerId, t.status, t.priority, t.autoAdjusted")
+    List<TaskCountGroup> countGroups();
+
     @Query("SELECT COUNT(t) FROM Todo t WHERE t.status = 'COMPLETED'")
     long countCompletedTasks();
 }
@@ -0,0 +1,21 @@
+package com.smarttodo.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Resultado de uma passada de ajuste: quantas tarefas foram lidas, quantas mudaram e quantos statements foram ao banco
+public record AdjustmentReport(String pass, int rowsExamined, int rowsChanged, int statementsIssued,
+                               double elapsedMillis, LocalDateTime completedAt) {
+
+    public Map<String, Object> toMap(){
+        Map<String, Object> report = new HashMap<>();
+        report.put("pass", pass);
+        report.put("rowsExamined", rowsExamined);
+        report.put("rowsChanged", rowsChanged);
+        report.put("statementsIssued", statementsIssued);
+        report.put("elapsedMillis", elapsedMillis);
+        report.put("completedAt", completedAt);
+        return report;
+    }
+}
@@ -0,0 +1,156 @@
+package com.smarttodo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Executa as passadas de ajuste fora da thread do MQTT, uma por vez.
+// Pedidos são chaveados por usuário e tipo (location, high_temperature, ...): enquanto um pedido espera,
+// um novo do mesmo usuário e tipo o substitui e só o mais recente roda.
+// Métricas e contadores são só por tipo: o número de usuários não aumenta a quantidade de séries
+@Service
+public class AdjustmentWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdjustmentWorker.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<PendingKey, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> supersededByKind = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    private Counter submittedCounter;
+    private Counter processedCounter;
+    private Counter failedCounter;
+    private Timer waitTimer;
+    private Timer processingTimer;
+
+    @PostConstruct
+    public void initialize(){
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("task-adjustment-");
+        threadFactory.setDaemon(true);
+        executor = Executors.newSingleThreadExecutor(threadFactory);
+
+        submittedCounter = Counter.builder("smarttodo.adjustments.worker.submitted").register(meterRegistry);
+        processedCounter = Counter.builder("smarttodo.adjustments.worker.processed").register(meterRegistry);
+        failedCounter = Counter.builder("smarttodo.adjustments.worker.failed").register(meterRegistry);
+        Gauge.builder("smarttodo.adjustments.worker.pending", pending, Map::size).register(meterRegistry);
+
+        waitTimer = Timer.builder("smarttodo.adjustments.worker.wait")
+                .description("Tempo entre o pedido de ajuste e o início da passada")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        processingTimer = Timer.builder("smarttodo.adjustments.worker.processing")
+                .description("Duração da passada de ajuste")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    public boolean submit(String kind, Runnable adjustment){
+        return submit(UserContextRegistry.DEFAULT_USER, kind, adjustment);
+    }
+
+    // Devolve false quando o pedido substituiu outro ainda pendente do mesmo usuário e tipo
+    public boolean submit(String userId, String kind, Runnable adjustment){
+        submittedCounter.increment();
+
+        PendingKey key = new PendingKey(userId, kind);
+        Pending previous = pending.put(key, new Pending(adjustment, System.nanoTime()));
+        if (previous != null){
+            // Já existe uma execução agendada para a chave: ela vai pegar este pedido no lugar do anterior
+            supersededByKind.computeIfAbsent(kind, k -> new AtomicLong()).incrementAndGet();
+            meterRegistry.counter("smarttodo.adjustments.worker.superseded", "kind", kind).increment();
+            logger.debug("Ajuste {} de {} pendente substituído por um mais recente", kind, userId);
+            return false;
+        }
+
+        try{
+            executor.execute(() -> run(key));
+        } catch (RejectedExecutionException e){
+            pending.remove(key);
+            logger.warn("Worker de ajustes encerrado - ajuste {} de {} descartado", kind, userId);
+        }
+        return true;
+    }
+
+    private void run(PendingKey key){
+        Pending next = pending.remove(key);
+        if (next == null){
+            return;
+        }
+
+        long start = System.nanoTime();
+        waitTimer.record(start - next.submittedAt(), TimeUnit.NANOSECONDS);
+        try{
+            next.adjustment().run();
+            processedCounter.increment();
+        } catch (Exception e){
+            failedCounter.increment();
+            logger.error("Erro no ajuste {} de {}", key.kind(), key.userId(), e);
+        } finally {
+            processingTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public int getQueueDepth(){
+        return pending.size();
+    }
+
+    public long getSupersededCount(){
+        return supersededByKind.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Long> superseded = new HashMap<>();
+        supersededByKind.forEach((kind, count) -> superseded.put(kind, count.get()));
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("queueDepth", getQueueDepth());
+        status.put("pendingKinds", pending.keySet().stream().map(PendingKey::kind).distinct().toList());
+        status.put("submitted", (long) submittedCounter.count());
+        status.put("processed", (long) processedCounter.count());
+        status.put("failed", (long) failedCounter.count());
+        status.put("superseded", getSupersededCount());
+        status.put("supersededByKind", superseded);
+        status.put("wait", TimerSnapshots.latency(waitTimer));
+        status.put("processing", TimerSnapshots.latency(processingTimer));
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        executor.shutdown();
+        try{
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)){
+                logger.warn("Worker de ajustes encerrado com {} tipos pendentes", pending.size());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e){
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record PendingKey(String userId, String kind) {}
+
+    private record Pending(Runnable adjustment, long submittedAt) {}
+}
@@ -0,0 +1,20 @@
+package com.smarttodo.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Resultado de uma operação em lote: ids afetados e ids pedidos que não existem
+public record BulkResult(String operation, int requested, List<Long> ids, List<Long> notFound, double elapsedMillis) {
+
+    public Map<String, Object> toMap(){
+        Map<String, Object> result = new HashMap<>();
+        result.put("operation", operation);
+        result.put("requested", requested);
+        result.put("applied", ids.size());
+        result.put("ids", ids);
+        result.put("notFound", notFound);
+        result.put("elapsedMillis", elapsedMillis);
+        return result;
+    }
+}
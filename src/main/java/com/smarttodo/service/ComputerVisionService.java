@@ -33,12 +33,17 @@ public class ComputerVisionService {
     @Autowired
     private TodoService todoService;
 
+    @Autowired
+    private MoodPropagator moodPropagator;
+
+    @Autowired
+    private UserContextRegistry userContextRegistry;
+
     private VideoCapture camera;
     private CascadeClassifier faceDetector;
     private final AtomicBoolean isAnalysis = new AtomicBoolean(false);
     private final AtomicBoolean isInitialized = new AtomicBoolean(false);
 
-    private String currentMood = "neutral";
     private LocalDateTime lastAnalysis;
     private int consecutiveFailures = 0;
 
@@ -106,8 +111,10 @@ public class ComputerVisionService {
                 isAnalysis.set(true);
                 String detectedMood = performMoodAnalysis();
 
-                if (detectedMood != null && !detectedMood.equals(currentMood)) {
-                    handleMoodChange(detectedMood);
+                // Cada análise passa pela histerese; o humor do usuário da câmera só muda quando o novo se confirma
+                String previousMood = getCurrentMood();
+                if (detectedMood != null && moodPropagator.observe(cvProperties.getUserId(), detectedMood)) {
+                    handleMoodChange(previousMood, detectedMood);
                 }
 
                 consecutiveFailures = 0;
@@ -123,7 +130,7 @@ public class ComputerVisionService {
                     consecutiveFailures = 0;
                 }
 
-                return currentMood;
+                return getCurrentMood();
 
             } finally {
                 isAnalysis.set(false);
@@ -217,17 +224,11 @@ public class ComputerVisionService {
         }
     }
 
-    private void handleMoodChange(String newMood){
-        String previosMood = currentMood;
-        currentMood = newMood;
-
-        logger.info("Mudança de humor detectada: {} -> {}", previosMood, newMood);
+    private void handleMoodChange(String previousMood, String newMood){
+        logger.info("Mudança de humor detectada: {} -> {}", previousMood, newMood);
         logger.info("{}", moodAnalysisService.getMoodDescription(newMood));
 
-        // Aqui você pode integrar com outros serviços
-        // Por exemplo: ajustar tarefas, enviar notificações, etc.
-
-        // todoService.adjustTasksByMood(newMood);  // Implementamos depois
+        // O ajuste das tarefas já foi pedido pelo MoodPropagator, respeitando o intervalo mínimo entre passadas
     }
 
     public void startAnalysis(){
@@ -243,7 +244,7 @@ public class ComputerVisionService {
     }
 
     public String getCurrentMood(){
-        return currentMood;
+        return userContextRegistry.peek(cvProperties.getUserId()).getMood();
     }
 
     public boolean isAnalysisRunning(){
@@ -0,0 +1,111 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.IoTProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class EnvironmentalAdjustmentScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnvironmentalAdjustmentScheduler.class);
+
+    @Autowired
+    private TaskAdjustmentService taskAdjustmentService;
+
+    @Autowired
+    private AdjustmentWorker adjustmentWorker;
+
+    @Autowired
+    private IoTProperties ioTProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Última condição disparada por usuário e tipo de sensor (ex: default/temperature -> "high_temperature")
+    private final Map<TriggerKey, Trigger> lastTriggers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> firedByCondition = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> absorbedByCondition = new ConcurrentHashMap<>();
+
+    public boolean trigger(String userId, String sensorType, String conditionType, Double value){
+        long now = System.nanoTime();
+        long window = TimeUnit.MILLISECONDS.toNanos(ioTProperties.getAdjustments().getCoalesceWindow());
+        boolean[] fire = new boolean[1];
+
+        lastTriggers.compute(new TriggerKey(userId, sensorType), (key, last) -> {
+            if (last == null || !last.conditionType().equals(conditionType) || now - last.firedAt() >= window){
+                fire[0] = true;
+                return new Trigger(conditionType, now, LocalDateTime.now());
+            }
+            return last;
+        });
+
+        if (!fire[0]){
+            counter(absorbedByCondition, conditionType).incrementAndGet();
+            meterRegistry.counter("smarttodo.adjustments.coalesced", "condition", conditionType).increment();
+            logger.debug("Condição {} repetida dentro da janela - ajuste absorvido", conditionType);
+            return false;
+        }
+
+        counter(firedByCondition, conditionType).incrementAndGet();
+        meterRegistry.counter("smarttodo.adjustments.fired", "condition", conditionType).increment();
+        adjustmentWorker.submit(userId, conditionType,
+                () -> taskAdjustmentService.adjustForEnvironmentalCondition(userId, conditionType, value));
+        return true;
+    }
+
+    public void clear(String userId, String sensorType){
+        Trigger removed = lastTriggers.remove(new TriggerKey(userId, sensorType));
+        if (removed != null){
+            logger.debug("Condição {} normalizada para o sensor {} de {}", removed.conditionType(), sensorType, userId);
+        }
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Map<String, Object>> activeConditions = new HashMap<>();
+        lastTriggers.forEach((key, trigger) -> activeConditions
+                .computeIfAbsent(key.userId(), userId -> new HashMap<>())
+                .put(key.sensorType(), Map.of(
+                        "condition", trigger.conditionType(),
+                        "lastFired", trigger.firedAtTime()
+                )));
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("coalesceWindowMillis", ioTProperties.getAdjustments().getCoalesceWindow());
+        status.put("activeConditions", activeConditions);
+        status.put("firedByCondition", snapshot(firedByCondition));
+        status.put("absorbedByCondition", snapshot(absorbedByCondition));
+        status.put("totalFired", total(firedByCondition));
+        status.put("totalAbsorbed", total(absorbedByCondition));
+        status.put("lastPasses", taskAdjustmentService.getLastReports());
+        status.put("worker", adjustmentWorker.getStatus());
+        return status;
+    }
+
+    private AtomicLong counter(Map<String, AtomicLong> counters, String conditionType){
+        return counters.computeIfAbsent(conditionType, key -> new AtomicLong());
+    }
+
+    private Map<String, Long> snapshot(Map<String, AtomicLong> counters){
+        Map<String, Long> snapshot = new HashMap<>();
+        counters.forEach((key, value) -> snapshot.put(key, value.get()));
+        return snapshot;
+    }
+
+    private long total(Map<String, AtomicLong> counters){
+        return counters.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    private record TriggerKey(String userId, String sensorType) {}
+
+    private record Trigger(String conditionType, long firedAt, LocalDateTime firedAtTime) {}
+}
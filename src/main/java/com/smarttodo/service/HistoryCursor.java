@@ -0,0 +1,38 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.SensorData;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// Posição (timestamp, id) da última leitura entregue; o próximo lote começa estritamente depois dela
+public record HistoryCursor(LocalDateTime timestamp, long id) {
+
+    public static HistoryCursor of(SensorData sensorData){
+        return new HistoryCursor(sensorData.getTimestamp(), sensorData.getId());
+    }
+
+    public static HistoryCursor parse(String value){
+        int separator = value.lastIndexOf('_');
+        if (separator <= 0){
+            throw new IllegalArgumentException("Cursor inválido: " + value);
+        }
+
+        try{
+            return new HistoryCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e){
+            throw new IllegalArgumentException("Cursor inválido: " + value, e);
+        }
+    }
+
+    public boolean isAfter(SensorData sensorData){
+        int compare = sensorData.getTimestamp().compareTo(timestamp);
+        return compare < 0 || (compare == 0 && sensorData.getId() < id);
+    }
+
+    @Override
+    public String toString(){
+        return timestamp + "_" + id;
+    }
+}
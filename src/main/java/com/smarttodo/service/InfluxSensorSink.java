@@ -0,0 +1,172 @@
+package com.smarttodo.service;
+
+import com.influxdb.client.InfluxDBClient;
+import com.influxdb.client.InfluxDBClientFactory;
+import com.influxdb.client.WriteApi;
+import com.influxdb.client.WriteOptions;
+import com.influxdb.client.domain.WritePrecision;
+import com.influxdb.client.write.events.BackpressureEvent;
+import com.influxdb.client.write.events.WriteErrorEvent;
+import com.influxdb.client.write.events.WriteRetriableErrorEvent;
+import com.influxdb.client.write.events.WriteSuccessEvent;
+import com.smarttodo.config.IoTProperties;
+import com.smarttodo.entity.SensorData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+public class InfluxSensorSink implements SensorSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(InfluxSensorSink.class);
+
+    @Autowired
+    private IoTProperties ioTProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private InfluxDBClient client;
+    private WriteApi writeApi;
+
+    private Counter writtenCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+    private Counter backpressureCounter;
+
+    @PostConstruct
+    public void start(){
+        IoTProperties.InfluxDB config = ioTProperties.getInfluxDB();
+        if (!config.isEnabled()){
+            logger.info("Escrita no InfluxDB desabilitada");
+            return;
+        }
+
+        writtenCounter = Counter.builder("smarttodo.influxdb.points.written").register(meterRegistry);
+        retriedCounter = Counter.builder("smarttodo.influxdb.batches.retried").register(meterRegistry);
+        failedCounter = Counter.builder("smarttodo.influxdb.batches.failed").register(meterRegistry);
+        backpressureCounter = Counter.builder("smarttodo.influxdb.backpressure").register(meterRegistry);
+
+        client = InfluxDBClientFactory.create(config.getUrl(), config.getToken().toCharArray(),
+                config.getOrg(), config.getBucket());
+
+        // API assíncrona: os pontos são agrupados em lotes e reenviados pelo buffer de retentativa
+        writeApi = client.makeWriteApi(WriteOptions.builder()
+                .batchSize(config.getBatchSize())
+                .flushInterval(config.getFlushInterval())
+                .bufferLimit(config.getBufferLimit())
+                .retryInterval(config.getRetryInterval())
+                .maxRetries(config.getMaxRetries())
+                .maxRetryDelay(config.getMaxRetryDelay())
+                .build());
+
+        writeApi.listenEvents(WriteSuccessEvent.class, event ->
+                writtenCounter.increment(event.getLineProtocol().split("\n").length));
+        writeApi.listenEvents(WriteRetriableErrorEvent.class, event -> {
+            retriedCounter.increment();
+            logger.warn("InfluxDB indisponível, lote será reenviado em {}ms", event.getRetryInterval());
+        });
+        writeApi.listenEvents(WriteErrorEvent.class, event -> {
+            failedCounter.increment();
+            logger.error("Erro ao gravar lote no InfluxDB", event.getThrowable());
+        });
+        writeApi.listenEvents(BackpressureEvent.class, event -> {
+            backpressureCounter.increment();
+            logger.warn("Buffer do InfluxDB cheio ({}), pontos antigos descartados", event.getReason());
+        });
+
+        logger.info("Escrita no InfluxDB habilitada - {} bucket: {}", config.getUrl(), config.getBucket());
+    }
+
+    @Override
+    public String getName(){
+        return "influxdb";
+    }
+
+    @Override
+    public boolean isEnabled(){
+        return writeApi != null;
+    }
+
+    @Override
+    public void write(SensorData sensorData){
+        if (writeApi == null){
+            return;
+        }
+
+        writeApi.writeRecord(WritePrecision.NS, toLineProtocol(sensorData));
+    }
+
+    String toLineProtocol(SensorData sensorData){
+        StringBuilder line = new StringBuilder(128);
+
+        escape(line, ioTProperties.getInfluxDB().getMeasurement(), false);
+        appendTag(line, "sensor_type", sensorData.getSensorType());
+        appendTag(line, "sensor_id", sensorData.getSensorId());
+        appendTag(line, "location", sensorData.getLocation());
+        appendTag(line, "unit", sensorData.getUnit());
+        appendTag(line, "quality", sensorData.getQuality());
+
+        line.append(" value=").append(sensorData.getValue());
+
+        LocalDateTime timestamp = sensorData.getTimestamp() != null ? sensorData.getTimestamp() : LocalDateTime.now();
+        Instant instant = timestamp.atZone(ZoneId.systemDefault()).toInstant();
+        line.append(' ').append(instant.getEpochSecond() * 1_000_000_000L + instant.getNano());
+
+        return line.toString();
+    }
+
+    private void appendTag(StringBuilder line, String key, String value){
+        if (value == null || value.isEmpty()){
+            return;
+        }
+        line.append(',').append(key).append('=');
+        escape(line, value, true);
+    }
+
+    // Regras de escape do line protocol: espaço e vírgula sempre; '=' só em tags
+    private void escape(StringBuilder line, String value, boolean tag){
+        for (int i = 0; i < value.length(); i++){
+            char c = value.charAt(i);
+            if (c == ' ' || c == ',' || (tag && c == '=')){
+                line.append('\\');
+            }
+            line.append(c);
+        }
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", isEnabled());
+        if (isEnabled()){
+            status.put("writtenPoints", (long) writtenCounter.count());
+            status.put("retriedBatches", (long) retriedCounter.count());
+            status.put("failedBatches", (long) failedCounter.count());
+            status.put("backpressureEvents", (long) backpressureCounter.count());
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        if (client == null){
+            return;
+        }
+
+        // close() do WriteApi faz o flush do que ainda está no buffer
+        writeApi.close();
+        client.close();
+        logger.info("Cliente InfluxDB encerrado");
+    }
+}
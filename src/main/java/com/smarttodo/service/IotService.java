@@ -3,7 +3,7 @@ package com.smarttodo.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smarttodo.config.IoTProperties;
 import com.smarttodo.entity.SensorData;
-import com.smarttodo.repository.SensorDataRepository;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.integration.annotation.ServiceActivator;
@@ -20,7 +20,6 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class IotService {
@@ -34,17 +33,42 @@ public class IotService {
     private IoTProperties ioTProperties;
 
     @Autowired
-    private SensorDataRepository sensorDataRepository;
+    private MqttTopicRouter mqttTopicRouter;
+
+    @Autowired
+    private SensorPayloadDecoder sensorPayloadDecoder;
+
+    @Autowired
+    private List<SensorSink> sensorSinks;
+
+    @Autowired
+    private SensorHotStore sensorHotStore;
+
+    @Autowired
+    private SensorRollupService sensorRollupService;
 
     @Autowired
     private TaskAdjustmentService taskAdjustmentService;
 
+    @Autowired
+    private EnvironmentalAdjustmentScheduler environmentalAdjustmentScheduler;
+
+    @Autowired
+    private AdjustmentWorker adjustmentWorker;
+
+    @Autowired
+    private UserContextRegistry userContextRegistry;
+
     @Autowired(required = false)
     private MessageChannel mqttOutboundChannel;
 
-    private final Map<String, SensorData> lastSensorReadings = new ConcurrentHashMap<>();
-    private String currentUserLocation = "home";
-    private final Map<String, Object> environmentalConditions = new ConcurrentHashMap<>();
+    @PostConstruct
+    public void registerTopicHandlers(){
+        IoTProperties.Topics topics = ioTProperties.getMqtt().getTopics();
+
+        mqttTopicRouter.register(topics.getSensor(), this::handleSensorMessage);
+        mqttTopicRouter.register(topics.getLocation(), this::handleLocationMessage);
+    }
 
     @ServiceActivator(inputChannel = "mqttInputChannel")
     public void handleMqttMessage(@Payload String payload, @Header(MqttHeaders.RECEIVED_TOPIC) String topic) {
@@ -52,10 +76,8 @@ public class IotService {
         try {
             logger.debug("📡 Mensagem MQTT recebida - Tópico: {} | Payload: {}", topic, payload);
 
-            if (topic.startsWith("sensors/")) {
-                handleSensorMessage(topic, payload);
-            } else if (topic.startsWith("location/")) {
-                handleLocationMessage(topic, payload);
+            if (!mqttTopicRouter.route(topic, payload)) {
+                logger.debug("Nenhum handler registrado para o tópico: {}", topic);
             }
 
         } catch (Exception e) {
@@ -63,138 +85,182 @@ public class IotService {
         }
     }
 
-    private void handleSensorMessage(String topic, String payload){
+    private void handleSensorMessage(TopicMatch match, String payload){
         try{
-            Map<String, Object> rawData = objectMapper.readValue(payload, Map.class);
-            String sensorType = extractSensorType(topic);
+            SensorReading reading = sensorPayloadDecoder.decodeSensor(payload);
+            String sensorType = match.getSegmentCount() > 0 ? match.segment(0) : "unknown";
+            // Leitura sem user_id pertence ao usuário padrão
+            UserContext context = userContextRegistry.get(reading.userId());
 
             SensorData sensorData = new SensorData();
-            sensorData.setSensorId((String) rawData.get("sensor_id"));
+            sensorData.setSensorId(reading.sensorId());
             sensorData.setSensorType(sensorType);
-            sensorData.setValue(getDoubleValue(rawData.get("value")));
-            sensorData.setUnit((String) rawData.get("unit"));
-            sensorData.setLocation((String) rawData.getOrDefault("location", currentUserLocation));
-            sensorData.setQuality((String) rawData.getOrDefault("quality", "good"));
+            sensorData.setValue(reading.value());
+            sensorData.setUnit(reading.unit());
+            sensorData.setLocation(reading.location() != null ? reading.location() : context.getLocation());
+            sensorData.setQuality(reading.quality() != null ? reading.quality() : "good");
 
-            if (rawData.get("timestamp") != null){
-                sensorData.setTimestamp(LocalDateTime.parse((String) rawData.get("timestamp")));
+            if (reading.timestamp() != null){
+                sensorData.setTimestamp(reading.timestamp());
             }
 
-            lastSensorReadings.put(sensorType, sensorData);
+            sensorData.setOwnerId(context.getUserId());
+
+            context.getLastSensorReadings().put(sensorType, sensorData);
 
-            sensorDataRepository.save(sensorData);
+            recordReading(sensorData);
 
-            processEnvironmentalData(sensorData);
+            processEnvironmentalData(context, sensorData);
 
-            logger.info("Sensor {} processado: {} {} (qualidade: {})",
-                    sensorType, sensorData.getValue(), sensorData.getUnit(), sensorData.getQuality());
+            logger.info("Sensor {} de {} processado: {} {} (qualidade: {})",
+                    sensorType, context.getUserId(), sensorData.getValue(), sensorData.getUnit(), sensorData.getQuality());
         } catch (Exception e){
             logger.error("Erro ao processar dados do sensor", e);
         }
     }
 
-    private void handleLocationMessage(String topic, String payload){
+    private void handleLocationMessage(TopicMatch match, String payload){
         try {
-            Map<String, Object> locationData = objectMapper.readValue(payload, Map.class);
+            LocationUpdate locationUpdate = sensorPayloadDecoder.decodeLocation(payload);
+            UserContext context = userContextRegistry.get(locationUser(locationUpdate, match));
+            String userId = context.getUserId();
 
-            String newLocation = (String) locationData.get("location");
-            Double confidence = getDoubleValue(locationData.get("confidence"));
+            String newLocation = locationUpdate.location();
+            Double confidence = locationUpdate.confidence();
 
-            if(confidence != null && confidence > 0.7 && !newLocation.equals(currentUserLocation)){
-                String previousLocation = currentUserLocation;
-                currentUserLocation = newLocation;
+            if(newLocation != null && confidence != null && confidence > 0.7 && !newLocation.equals(context.getLocation())){
+                String previousLocation = context.getLocation();
+                context.setLocation(newLocation);
 
-                logger.info("Localização alterada: {} -> {} (confiança: {})",
-                            previousLocation, newLocation, confidence);
+                logger.info("Localização de {} alterada: {} -> {} (confiança: {})",
+                            userId, previousLocation, newLocation, confidence);
 
-                taskAdjustmentService.adjustTasksByLocation(newLocation);
+                // A passada roda no worker; mudanças seguidas de localização do usuário ficam só com a última
+                adjustmentWorker.submit(userId, "location", () -> taskAdjustmentService.adjustTasksByLocation(userId, newLocation));
             }
         } catch (Exception e){
             logger.error("Erro ao processar atualização de localização", e);
         }
     }
 
-    private void processEnvironmentalData(SensorData data){
+    // Mesmo critério das leituras de sensor: user_id do payload; sem ele, o segmento de location/user/{id},
+    // traduzido pelo mapa configurado quando o dispositivo não publica com o id do usuário
+    private String locationUser(LocationUpdate locationUpdate, TopicMatch match){
+        if (locationUpdate.userId() != null && !locationUpdate.userId().isBlank()){
+            return locationUpdate.userId();
+        }
+        if (match.getSegmentCount() == 0){
+            return null;
+        }
+        String segment = match.segment(0);
+        return ioTProperties.getUsers().getLocationTopicUsers().getOrDefault(segment, segment);
+    }
+
+    private void processEnvironmentalData(UserContext context, SensorData data){
+        String userId = context.getUserId();
         String sensorType = data.getSensorType();
         Double value = data.getValue();
 
-        environmentalConditions.put(sensorType, value);
+        context.getEnvironmentalConditions().put(sensorType, value);
 
         switch (sensorType){
-            case "temperature" -> processTemperatureData(value);
-            case "humidity" -> processHumidityData(value);
-            case "light" -> processLightData(value);
-            case "noise" -> processNoiseData(value);
-            case "air_quality" -> processAirQualityData(value);
-            case "motion" -> processMotionData(value > 0);
-            case "presence" -> processPresenceData(value > 0);
+            case "temperature" -> processTemperatureData(userId, value);
+            case "humidity" -> processHumidityData(userId, value);
+            case "light" -> processLightData(userId, value);
+            case "noise" -> processNoiseData(userId, value);
+            case "air_quality" -> processAirQualityData(userId, value);
+            case "motion" -> processMotionData(userId, value > 0);
+            case "presence" -> processPresenceData(userId, value > 0);
         }
     }
 
-    private void processTemperatureData(Double temperature){
+    private void processTemperatureData(String userId, Double temperature){
         if(temperature > 26){
             logger.info("Temperatura alta detectada: {}C Sugerindo tarefas em ambiente mais fresco", temperature);
-            taskAdjustmentService.adjustForEnvironmentalCondition("high_temperature", temperature);
+            environmentalAdjustmentScheduler.trigger(userId, "temperature", "high_temperature", temperature);
             sendSmartHomeCommand("climate", "cool", Map.of("target_temperature", 24));
         } else if(temperature < 18){
             logger.info("Temperatura baixa detectada: {}C - Sugeringdo aquecimento", temperature);
-            taskAdjustmentService.adjustForEnvironmentalCondition("low_temperature", temperature);
+            environmentalAdjustmentScheduler.trigger(userId, "temperature", "low_temperature", temperature);
             sendSmartHomeCommand("climate", "heat", Map.of("target_temperature", 22));
+        } else {
+            environmentalAdjustmentScheduler.clear(userId, "temperature");
         }
     }
 
-    private void processHumidityData(Double humidity){
+    private void processHumidityData(String userId, Double humidity){
         if (humidity > 70){
             logger.info("Umidade alta detectada: {}% - Ajustando tarefas", humidity);
-            taskAdjustmentService.adjustForEnvironmentalCondition("high_humidity", humidity);
+            environmentalAdjustmentScheduler.trigger(userId, "humidity", "high_humidity", humidity);
             sendSmartHomeCommand("humidifier", "on", Map.of("target_humidity", 45));
+        } else {
+            environmentalAdjustmentScheduler.clear(userId, "humidity");
         }
     }
 
-    private void processLightData(Double lightLevel){
+    private void processLightData(String userId, Double lightLevel){
         if (lightLevel < 300){
             logger.info("Pouca luminosidade detectda: {} lux - Sugerindo melhor iluminação", lightLevel);
-            taskAdjustmentService.adjustForEnvironmentalCondition("low_light", lightLevel);
+            environmentalAdjustmentScheduler.trigger(userId, "light", "low_light", lightLevel);
             sendSmartHomeCommand("lights", "brighten", Map.of("brightness", 80));
         } else if(lightLevel > 1000){
             logger.info("Muita luminosidade detectada: {} luz - Filtrando tarefas sensiveis a luz", lightLevel);
-            taskAdjustmentService.adjustForEnvironmentalCondition("high_light", lightLevel);
+            environmentalAdjustmentScheduler.trigger(userId, "light", "high_light", lightLevel);
+        } else {
+            environmentalAdjustmentScheduler.clear(userId, "light");
         }
     }
 
-    private void processNoiseData(Double noiseLevel){
+    private void processNoiseData(String userId, Double noiseLevel){
         if (noiseLevel > 60){
             logger.info("Ruido alto detectado: {} dB - Priorizando tarefas tolerantes ao ruido", noiseLevel);
-            taskAdjustmentService.adjustForEnvironmentalCondition("high_noise", noiseLevel);
+            environmentalAdjustmentScheduler.trigger(userId, "noise", "high_noise", noiseLevel);
         } else if(noiseLevel < 30){
             logger.info("Ambiente silencioso detectado: {} dB - Priorizando tarefas que requerem concentração", noiseLevel);
-            taskAdjustmentService.adjustForEnvironmentalCondition("low_noise", noiseLevel);
+            environmentalAdjustmentScheduler.trigger(userId, "noise", "low_noise", noiseLevel);
+        } else {
+            environmentalAdjustmentScheduler.clear(userId, "noise");
         }
     }
 
-    private void processAirQualityData(Double airQualityIndex){
+    private void processAirQualityData(String userId, Double airQualityIndex){
         if (airQualityIndex > 100){
             logger.info("Qualidade do ar ruim detectada: AQI {} - Sugerindo tarefas indoor", airQualityIndex);
-            taskAdjustmentService.adjustForEnvironmentalCondition("poor_air_quality", airQualityIndex);
+            environmentalAdjustmentScheduler.trigger(userId, "air_quality", "poor_air_quality", airQualityIndex);
             sendSmartHomeCommand("air_purifier", "on", Map.of("speed", "high"));
+        } else {
+            environmentalAdjustmentScheduler.clear(userId, "air_quality");
         }
     }
 
-    private void processMotionData(boolean motionDetected){
+    private void processMotionData(String userId, boolean motionDetected){
         if(!motionDetected){
             logger.debug("Pouco movimento detectado - Sugerindo lembretes de pausa");
-            taskAdjustmentService.adjustForEnvironmentalCondition("low_activity", 0.0);
+            environmentalAdjustmentScheduler.trigger(userId, "motion", "low_activity", 0.0);
+        } else {
+            environmentalAdjustmentScheduler.clear(userId, "motion");
         }
     }
 
-    private void processPresenceData(boolean presenceDetected){
+    private void processPresenceData(String userId, boolean presenceDetected){
         if(presenceDetected){
             logger.debug("Presença detectada - Ativando modo de trabalho");
-            taskAdjustmentService.adjustForEnvironmentalCondition("word_mode", 1.0);
+            environmentalAdjustmentScheduler.trigger(userId, "presence", "word_mode", 1.0);
         } else {
             logger.debug("Ausencia detectada - Pausando tarefas especificas de localização");
-            taskAdjustmentService.adjustForEnvironmentalCondition("away_mode", 0.0);
+            environmentalAdjustmentScheduler.trigger(userId, "presence", "away_mode", 0.0);
+        }
+    }
+
+    public void recordReading(SensorData sensorData){
+        for (SensorSink sink : sensorSinks){
+            if (sink.isEnabled()){
+                sink.write(sensorData);
+            }
         }
+
+        sensorHotStore.record(sensorData);
+        sensorRollupService.record(sensorData);
     }
 
     public void sendSmartHomeCommand(String device, String action, Map<String, Object> parameters){
@@ -227,41 +293,44 @@ public class IotService {
         }
     }
 
-    private String extractSensorType(String topic){
-        String [] parts = topic.split("/");
-        return parts.length > 1 ? parts[1] : "unknown";
+    public String getCurrentLocation() {
+        return getCurrentLocation(UserContextRegistry.DEFAULT_USER);
     }
 
-    private Double getDoubleValue(Object value){
-        if (value == null) return null;
-        if (value instanceof Number){
-            return ((Number) value).doubleValue();
-        }
-        try{
-            return Double.parseDouble(value.toString());
-        } catch (NumberFormatException e){
-            return null;
-        }
+    public String getCurrentLocation(String userId) {
+        return userContextRegistry.peek(userId).getLocation();
     }
 
-    public String getCurrentLocation() {
-        return currentUserLocation;
+    public Map<String, Object> getCurrentEnvironmentalConditions() {
+        return getCurrentEnvironmentalConditions(UserContextRegistry.DEFAULT_USER);
     }
 
-    public Map<String, Object> getCurrentEnvironmentalConditions() {
-        return Map.copyOf(environmentalConditions);
+    public Map<String, Object> getCurrentEnvironmentalConditions(String userId) {
+        return Map.copyOf(userContextRegistry.peek(userId).getEnvironmentalConditions());
     }
 
     public SensorData getLatestSensorData(String sensorType) {
-        return lastSensorReadings.get(sensorType);
+        return getLatestSensorData(UserContextRegistry.DEFAULT_USER, sensorType);
+    }
+
+    public SensorData getLatestSensorData(String userId, String sensorType) {
+        return userContextRegistry.peek(userId).getLastSensorReadings().get(sensorType);
     }
 
     public Map<String, SensorData> getAllLatestSensorData() {
-        return Map.copyOf(lastSensorReadings);
+        return getAllLatestSensorData(UserContextRegistry.DEFAULT_USER);
+    }
+
+    public Map<String, SensorData> getAllLatestSensorData(String userId) {
+        return Map.copyOf(userContextRegistry.peek(userId).getLastSensorReadings());
     }
 
     public List<SensorData> getRecentSensorData(String sensorType, int hours) {
+        return getRecentSensorData(UserContextRegistry.DEFAULT_USER, sensorType, hours);
+    }
+
+    public List<SensorData> getRecentSensorData(String userId, String sensorType, int hours) {
         LocalDateTime since = LocalDateTime.now().minusHours(hours);
-        return sensorDataRepository.findBySensorTypeAndTimestampAfter(sensorType, since);
+        return sensorHotStore.findRecent(userId, sensorType, since);
     }
 }
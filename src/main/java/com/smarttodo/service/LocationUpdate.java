@@ -0,0 +1,3 @@
+package com.smarttodo.service;
+
+public record LocationUpdate(String location, Double confidence, String userId) {}
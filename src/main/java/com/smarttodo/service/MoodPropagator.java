@@ -0,0 +1,202 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.ComputerVisionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Entre a análise de humor e o ajuste de tarefas: um humor novo só vale depois de aparecer em N análises
+// seguidas ou durar T ms (histerese), e as passadas de ajuste respeitam um intervalo mínimo entre si.
+// Uma câmera oscilando entre "neutral" e "focused" não reescreve as tarefas a cada troca.
+// O estado de cada usuário fica no contexto dele (UserContext.moodState)
+@Service
+public class MoodPropagator {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoodPropagator.class);
+
+    @Autowired
+    private ComputerVisionProperties cvProperties;
+
+    @Autowired
+    private AdjustmentWorker adjustmentWorker;
+
+    @Autowired
+    private TaskAdjustmentService taskAdjustmentService;
+
+    @Autowired
+    private UserContextRegistry userContextRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Usuários com humor adiado esperando o fim do intervalo mínimo
+    private final Set<String> pendingUsers = ConcurrentHashMap.newKeySet();
+
+    private Counter observationCounter;
+    private Counter absorbedCounter;
+    private Counter confirmedCounter;
+    private Counter deferredCounter;
+    private Counter rescoringCounter;
+
+    @PostConstruct
+    public void initialize(){
+        observationCounter = Counter.builder("smarttodo.mood.observations").register(meterRegistry);
+        absorbedCounter = Counter.builder("smarttodo.mood.flips.absorbed").register(meterRegistry);
+        confirmedCounter = Counter.builder("smarttodo.mood.changes.confirmed").register(meterRegistry);
+        deferredCounter = Counter.builder("smarttodo.mood.rescoring.deferred").register(meterRegistry);
+        rescoringCounter = Counter.builder("smarttodo.mood.rescoring.submitted").register(meterRegistry);
+    }
+
+    public boolean observe(String mood){
+        return observe(UserContextRegistry.DEFAULT_USER, mood);
+    }
+
+    // Resultado de cada análise do usuário; devolve true quando o humor estável dele mudou
+    public boolean observe(String userId, String mood){
+        return observe(userId, mood, System.currentTimeMillis());
+    }
+
+    boolean observe(String mood, long now){
+        return observe(UserContextRegistry.DEFAULT_USER, mood, now);
+    }
+
+    boolean observe(String userId, String mood, long now){
+        UserContext context = userContextRegistry.get(userId);
+        UserContext.MoodState state = context.moodState;
+        observationCounter.increment();
+
+        synchronized (state){
+            flushPending(context, now);
+
+            String stableMood = context.getMood();
+            if (mood.equals(stableMood)){
+                if (state.candidate != null){
+                    // Voltou ao humor estável antes de confirmar: a troca é descartada
+                    absorbedCounter.increment();
+                    state.candidate = null;
+                }
+                return false;
+            }
+
+            if (!mood.equals(state.candidate)){
+                if (state.candidate != null){
+                    absorbedCounter.increment();
+                }
+                state.candidate = mood;
+                state.candidateSince = now;
+                state.candidateCount = 0;
+            }
+            state.candidateCount++;
+
+            if (state.candidateCount < cvProperties.getMoodConfirmAnalyses()
+                    && now - state.candidateSince < cvProperties.getMoodConfirmWindow()){
+                return false;
+            }
+
+            logger.info("Humor de {} confirmado: {} -> {} ({} análises em {} ms)",
+                    context.getUserId(), stableMood, mood, state.candidateCount, now - state.candidateSince);
+            context.setMood(mood);
+            state.candidate = null;
+            confirmedCounter.increment();
+            requestRescoring(context, mood, now);
+            return true;
+        }
+    }
+
+    // Chamado com o lock do estado do usuário
+    private void requestRescoring(UserContext context, String mood, long now){
+        UserContext.MoodState state = context.moodState;
+        String userId = context.getUserId();
+
+        if (state.lastRescoring != Long.MIN_VALUE && now - state.lastRescoring < cvProperties.getMoodRescoreInterval()){
+            // Passada recente: guarda só o último humor confirmado até o intervalo acabar
+            state.pendingMood = mood;
+            pendingUsers.add(userId);
+            deferredCounter.increment();
+            return;
+        }
+
+        state.pendingMood = null;
+        pendingUsers.remove(userId);
+        state.lastRescoring = now;
+        rescoringCounter.increment();
+        adjustmentWorker.submit(userId, "mood", () -> taskAdjustmentService.adjustTasksByMood(userId, mood));
+    }
+
+    // Sem novas análises (câmera parada) o humor adiado ainda precisa sair quando o intervalo acabar
+    @Scheduled(fixedDelayString = "${smarttodo.computer-vision.analysis-interval:5000}")
+    public void scheduledFlush(){
+        long now = System.currentTimeMillis();
+        for (String userId : pendingUsers){
+            flushPending(userId, now);
+        }
+    }
+
+    void flushPending(long now){
+        flushPending(UserContextRegistry.DEFAULT_USER, now);
+    }
+
+    void flushPending(String userId, long now){
+        UserContext context = userContextRegistry.find(userId);
+        if (context == null){
+            pendingUsers.remove(userId);
+            return;
+        }
+        synchronized (context.moodState){
+            flushPending(context, now);
+        }
+    }
+
+    private void flushPending(UserContext context, long now){
+        UserContext.MoodState state = context.moodState;
+        if (state.pendingMood != null && now - state.lastRescoring >= cvProperties.getMoodRescoreInterval()){
+            requestRescoring(context, state.pendingMood, now);
+        }
+    }
+
+    public String getStableMood(){
+        return getStableMood(UserContextRegistry.DEFAULT_USER);
+    }
+
+    public String getStableMood(String userId){
+        return userContextRegistry.peek(userId).getMood();
+    }
+
+    public Map<String, Object> getStatus(){
+        return getStatus(UserContextRegistry.DEFAULT_USER);
+    }
+
+    public Map<String, Object> getStatus(String userId){
+        UserContext context = userContextRegistry.peek(userId);
+        UserContext.MoodState state = context.moodState;
+
+        Map<String, Object> status = new HashMap<>();
+        synchronized (state){
+            status.put("userId", context.getUserId());
+            status.put("stableMood", context.getMood());
+            status.put("candidateMood", state.candidate);
+            status.put("candidateAnalyses", state.candidate != null ? state.candidateCount : 0);
+            status.put("pendingMood", state.pendingMood);
+        }
+        status.put("usersWithPendingMood", pendingUsers.size());
+        status.put("confirmAnalyses", cvProperties.getMoodConfirmAnalyses());
+        status.put("confirmWindowMillis", cvProperties.getMoodConfirmWindow());
+        status.put("rescoreIntervalMillis", cvProperties.getMoodRescoreInterval());
+        status.put("observations", (long) observationCounter.count());
+        status.put("flipsAbsorbed", (long) absorbedCounter.count());
+        status.put("confirmedChanges", (long) confirmedCounter.count());
+        status.put("rescoringDeferred", (long) deferredCounter.count());
+        status.put("rescoringSubmitted", (long) rescoringCounter.count());
+        return status;
+    }
+}
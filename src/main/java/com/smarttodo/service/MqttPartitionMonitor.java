@@ -0,0 +1,136 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.IoTProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.integration.mqtt.support.MqttHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class MqttPartitionMonitor implements ExecutorChannelInterceptor {
+
+    private static final String ENQUEUED_AT = "smarttodo_enqueuedAt";
+
+    @Autowired
+    private IoTProperties ioTProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Partition[] partitions;
+
+    @PostConstruct
+    public void initialize(){
+        int count = Math.max(1, ioTProperties.getInbound().getPartitions());
+        partitions = new Partition[count];
+
+        for (int i = 0; i < count; i++){
+            String index = String.valueOf(i);
+            AtomicInteger pending = new AtomicInteger();
+
+            Gauge.builder("smarttodo.mqtt.partition.pending", pending, AtomicInteger::get)
+                    .tag("partition", index)
+                    .register(meterRegistry);
+
+            partitions[i] = new Partition(
+                    pending,
+                    Timer.builder("smarttodo.mqtt.partition.lag")
+                            .description("Tempo entre a chegada da mensagem e o início do processamento")
+                            .tag("partition", index)
+                            .register(meterRegistry),
+                    Counter.builder("smarttodo.mqtt.partition.processed")
+                            .tag("partition", index)
+                            .register(meterRegistry)
+            );
+        }
+    }
+
+    public int getPartitionCount(){
+        return partitions.length;
+    }
+
+    // Mensagens do mesmo tópico sempre caem na mesma partição, preservando a ordem. Os tópicos de sensor são por
+    // tipo (sensors/{type}/data): todos os sensores de um tipo dividem uma partição, então o paralelismo fica limitado
+    // ao número de tópicos ativos (tipos de sensor + usuários de localização), qualquer que seja o número de partições.
+    // O índice é devolvido como chave: o PartitionedDispatcher usa hashCode() % partições, que é o próprio índice
+    public Object partitionKey(Message<?> message){
+        return partitionFor(message);
+    }
+
+    private int partitionFor(Message<?> message){
+        Object topic = message.getHeaders().get(MqttHeaders.RECEIVED_TOPIC);
+        return topic == null ? 0 : Math.floorMod(topic.hashCode(), partitions.length);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel){
+        partitions[partitionFor(message)].pending().incrementAndGet();
+        return MessageBuilder.fromMessage(message)
+                .setHeader(ENQUEUED_AT, System.nanoTime())
+                .build();
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex){
+        if (!sent){
+            partitions[partitionFor(message)].pending().decrementAndGet();
+        }
+    }
+
+    @Override
+    public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler){
+        Partition partition = partitions[partitionFor(message)];
+        partition.pending().decrementAndGet();
+
+        Long enqueuedAt = message.getHeaders().get(ENQUEUED_AT, Long.class);
+        if (enqueuedAt != null){
+            partition.lag().record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+        return message;
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex){
+        partitions[partitionFor(message)].processed().increment();
+    }
+
+    public Map<String, Object> getStatus(){
+        IoTProperties.Inbound inbound = ioTProperties.getInbound();
+        List<Map<String, Object>> partitionStatus = new ArrayList<>();
+
+        for (int i = 0; i < partitions.length; i++){
+            Partition partition = partitions[i];
+            Map<String, Object> status = new HashMap<>();
+            status.put("partition", i);
+            status.put("pending", partition.pending().get());
+            status.put("processed", (long) partition.processed().count());
+            status.put("meanLagMillis", partition.lag().mean(TimeUnit.MILLISECONDS));
+            status.put("maxLagMillis", partition.lag().max(TimeUnit.MILLISECONDS));
+            partitionStatus.add(status);
+        }
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("mode", inbound.getMode());
+        status.put("virtualThreads", inbound.isVirtualThreads());
+        status.put("partitions", partitionStatus);
+        return status;
+    }
+
+    private record Partition(AtomicInteger pending, Timer lag, Counter processed) {}
+}
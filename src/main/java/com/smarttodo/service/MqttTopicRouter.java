@@ -0,0 +1,188 @@
+package com.smarttodo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.integration.mqtt.inbound.MqttPahoMessageDrivenChannelAdapter;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Component
+public class MqttTopicRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttTopicRouter.class);
+
+    @Autowired(required = false)
+    private MqttPahoMessageDrivenChannelAdapter mqttInbound;
+
+    private final Node root = new Node(null);
+    private final Set<String> patterns = ConcurrentHashMap.newKeySet();
+    private volatile int maxWildcards = 0;
+
+    public synchronized void register(String pattern, TopicHandler handler) {
+        validate(pattern);
+
+        Node node = root;
+        int wildcards = 0;
+        int start = 0;
+
+        // O padrão é quebrado em níveis apenas aqui, no registro; o roteamento percorre a árvore já compilada
+        while (true) {
+            int end = pattern.indexOf('/', start);
+            if (end < 0) end = pattern.length();
+            String level = pattern.substring(start, end);
+
+            if (level.equals("#")) {
+                node = node.hashChild();
+                wildcards++;
+                break;
+            } else if (level.equals("+")) {
+                node = node.plusChild();
+                wildcards++;
+            } else {
+                node = node.literalChild(level);
+            }
+
+            if (end == pattern.length()) break;
+            start = end + 1;
+        }
+
+        if (node.route != null) {
+            throw new IllegalStateException("Já existe handler registrado para o padrão: " + pattern);
+        }
+
+        node.route = new Route(pattern, handler, wildcards);
+        maxWildcards = Math.max(maxWildcards, wildcards);
+        patterns.add(pattern);
+        subscribe(pattern);
+
+        logger.info("Handler MQTT registrado para o padrão: {}", pattern);
+    }
+
+    public boolean route(String topic, String payload) throws Exception {
+        int[] bounds = new int[Math.max(1, maxWildcards) * 2];
+        Route route = match(root, topic, 0, bounds, 0);
+
+        if (route == null) {
+            return false;
+        }
+
+        route.handler().handle(new TopicMatch(topic, route.pattern(), bounds, route.wildcards()), payload);
+        return true;
+    }
+
+    public Set<String> getPatterns() {
+        return Set.copyOf(patterns);
+    }
+
+    // Prioridade por nível: literal, depois '+', depois '#', com backtracking quando um ramo não fecha
+    private Route match(Node node, String topic, int start, int[] bounds, int captured) {
+        if (start > topic.length()) {
+            if (node.route != null) return node.route;
+            if (node.hash != null) {
+                bounds[captured * 2] = topic.length();
+                bounds[captured * 2 + 1] = topic.length();
+                return node.hash.route;
+            }
+            return null;
+        }
+
+        int end = topic.indexOf('/', start);
+        if (end < 0) end = topic.length();
+
+        for (Node child : node.literals) {
+            if (child.matches(topic, start, end)) {
+                Route route = match(child, topic, end + 1, bounds, captured);
+                if (route != null) return route;
+            }
+        }
+
+        // Tópicos de sistema ($SYS/...) não casam com curingas no primeiro nível
+        boolean systemTopic = start == 0 && topic.startsWith("$");
+
+        if (node.plus != null && !systemTopic) {
+            bounds[captured * 2] = start;
+            bounds[captured * 2 + 1] = end;
+            Route route = match(node.plus, topic, end + 1, bounds, captured + 1);
+            if (route != null) return route;
+        }
+
+        if (node.hash != null && !systemTopic) {
+            bounds[captured * 2] = start;
+            bounds[captured * 2 + 1] = topic.length();
+            return node.hash.route;
+        }
+
+        return null;
+    }
+
+    private void validate(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Padrão de tópico vazio");
+        }
+
+        int hash = pattern.indexOf('#');
+        if (hash >= 0 && (hash != pattern.length() - 1 || (hash > 0 && pattern.charAt(hash - 1) != '/'))) {
+            throw new IllegalArgumentException("'#' deve ocupar sozinho o último nível: " + pattern);
+        }
+
+        for (int i = pattern.indexOf('+'); i >= 0; i = pattern.indexOf('+', i + 1)) {
+            boolean alone = (i == 0 || pattern.charAt(i - 1) == '/')
+                    && (i == pattern.length() - 1 || pattern.charAt(i + 1) == '/');
+            if (!alone) {
+                throw new IllegalArgumentException("'+' deve ocupar um nível inteiro: " + pattern);
+            }
+        }
+    }
+
+    private void subscribe(String pattern) {
+        if (mqttInbound == null || Arrays.asList(mqttInbound.getTopic()).contains(pattern)) {
+            return;
+        }
+
+        mqttInbound.addTopic(pattern, 1);
+        logger.info("Inscrição MQTT adicionada: {}", pattern);
+    }
+
+    private record Route(String pattern, TopicHandler handler, int wildcards) {}
+
+    private static final class Node {
+        private final String level;
+        private final List<Node> literals = new CopyOnWriteArrayList<>();
+        private volatile Node plus;
+        private volatile Node hash;
+        private volatile Route route;
+
+        private Node(String level) {
+            this.level = level;
+        }
+
+        private boolean matches(String topic, int start, int end) {
+            return level.length() == end - start && topic.regionMatches(start, level, 0, end - start);
+        }
+
+        private Node literalChild(String name) {
+            for (Node child : literals) {
+                if (child.level.equals(name)) return child;
+            }
+            Node child = new Node(name);
+            literals.add(child);
+            return child;
+        }
+
+        private Node plusChild() {
+            if (plus == null) plus = new Node("+");
+            return plus;
+        }
+
+        private Node hashChild() {
+            if (hash == null) hash = new Node("#");
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.smarttodo.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+public enum RollupResolution {
+    MINUTE("1m", ChronoUnit.MINUTES),
+    HOUR("1h", ChronoUnit.HOURS),
+    DAY("1d", ChronoUnit.DAYS);
+
+    private final String code;
+    private final ChronoUnit unit;
+
+    RollupResolution(String code, ChronoUnit unit) {
+        this.code = code;
+        this.unit = unit;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public LocalDateTime bucketStart(LocalDateTime timestamp) {
+        return timestamp.truncatedTo(unit);
+    }
+
+    public static Optional<RollupResolution> fromCode(String code) {
+        for (RollupResolution resolution : values()) {
+            if (resolution.code.equalsIgnoreCase(code) || resolution.name().equalsIgnoreCase(code)) {
+                return Optional.of(resolution);
+            }
+        }
+        return Optional.empty();
+    }
+}
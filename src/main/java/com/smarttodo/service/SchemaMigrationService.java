@@ -0,0 +1,134 @@
+package com.smarttodo.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+// Migrações versionadas em db/migration/V<versão>__<descrição>.sql, aplicadas em ordem depois que o
+// Hibernate cria as tabelas. Cada versão roda uma vez e fica registrada em schema_migrations com o checksum;
+// um script alterado depois de aplicado só gera aviso (o banco não é reescrito)
+@Service
+@DependsOn("entityManagerFactory")
+public class SchemaMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrationService.class);
+
+    private static final String LOCATION = "classpath*:db/migration/V*__*.sql";
+    private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS schema_migrations (version INT PRIMARY KEY, description VARCHAR(200) NOT NULL, " +
+            "checksum BIGINT NOT NULL, applied_at TIMESTAMP NOT NULL, execution_millis BIGINT NOT NULL)";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Map<String, Object>> appliedNow = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void initialize(){
+        migrate();
+    }
+
+    // Devolve quantas migrações foram aplicadas nesta chamada
+    public synchronized int migrate(){
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+
+        Map<Integer, Long> applied = new HashMap<>();
+        jdbcTemplate.query("SELECT version, checksum FROM schema_migrations",
+                rs -> { applied.put(rs.getInt("version"), rs.getLong("checksum")); });
+
+        int count = 0;
+        for (Migration migration : findMigrations()){
+            Long checksum = applied.get(migration.version());
+            if (checksum != null){
+                if (checksum != migration.checksum()){
+                    logger.warn("Migração V{} ({}) foi alterada depois de aplicada - ignorada",
+                            migration.version(), migration.description());
+                }
+                continue;
+            }
+
+            long start = System.nanoTime();
+            new ResourceDatabasePopulator(migration.script()).execute(dataSource);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            jdbcTemplate.update("INSERT INTO schema_migrations (version, description, checksum, applied_at, execution_millis) " +
+                    "VALUES (?, ?, ?, ?, ?)", migration.version(), migration.description(), migration.checksum(),
+                    Timestamp.valueOf(LocalDateTime.now()), elapsedMillis);
+            appliedNow.add(Map.of("version", migration.version(), "description", migration.description(),
+                    "executionMillis", elapsedMillis));
+            logger.info("Migração V{} aplicada: {} ({} ms)", migration.version(), migration.description(), elapsedMillis);
+            count++;
+        }
+        return count;
+    }
+
+    private List<Migration> findMigrations(){
+        List<Migration> migrations = new ArrayList<>();
+        try{
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)){
+                Matcher matcher = FILE_NAME.matcher(resource.getFilename());
+                if (!matcher.matches()){
+                    continue;
+                }
+                migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                        checksum(resource), resource));
+            }
+        } catch (IOException e){
+            throw new UncheckedIOException("Falha ao listar as migrações de schema", e);
+        }
+        migrations.sort(Comparator.comparingInt(Migration::version));
+        return migrations;
+    }
+
+    private static long checksum(Resource resource) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = resource.getInputStream()){
+            crc.update(in.readAllBytes());
+        }
+        return crc.getValue();
+    }
+
+    public int getCurrentVersion(){
+        Integer version = jdbcTemplate.queryForObject("SELECT MAX(version) FROM schema_migrations", Integer.class);
+        return version != null ? version : 0;
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> status = new HashMap<>();
+        status.put("currentVersion", getCurrentVersion());
+        status.put("applied", jdbcTemplate.queryForList(
+                "SELECT version, description, applied_at, execution_millis FROM schema_migrations ORDER BY version"));
+        status.put("appliedByThisInstance", appliedNow);
+        return status;
+    }
+
+    private record Migration(int version, String description, long checksum, Resource script) {}
+}
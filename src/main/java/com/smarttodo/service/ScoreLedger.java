@@ -0,0 +1,449 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.ScoringProperties;
+import com.smarttodo.entity.Todo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ajustes ambientais e de localização viram eventos (tarefa, causa, delta, hora) em vez de reescrever a linha.
+// Score efetivo = checkpoint (todos.mood_compatibility_score) + eventos em ordem de id, com clamp a cada passo;
+// é calculado na primeira leitura e mantido num cache LRU limitado. A compactação grava o resultado como novo checkpoint.
+// Ajustes automáticos decaem em direção ao score base pela idade (last_mood_check / hora do evento); o decaimento
+// é aplicado na leitura, então nenhuma varredura precisa reescrever a tabela
+@Service
+public class ScoreLedger implements TaskIndexListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoreLedger.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int IN_CLAUSE_LIMIT = 1000;
+    private static final int MAX_CAUSE_LENGTH = 64;
+
+    // Mesmo ponto de partida que os ajustes usavam para tarefas sem score
+    private static final double NULL_CHECKPOINT = 0.5;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO score_events (todo_id, cause, delta, created_at) VALUES (?, ?, ?, ?)";
+
+    // Checkpoint sem ajuste automático não decai
+    private static final long NOT_ADJUSTED = Long.MAX_VALUE;
+
+    private static final String SELECT_EVENTS_SQL =
+            "SELECT todo_id, delta, created_at FROM score_events WHERE todo_id IN (:ids) ORDER BY id";
+
+    private static final String SELECT_CHECKPOINTS_SQL =
+            "SELECT id, mood_compatibility_score, auto_adjusted, last_mood_check FROM todos WHERE id IN (:ids)";
+
+    // Na compactação também o que as estatísticas precisam para tirar a tarefa do grupo anterior
+    private static final String SELECT_COMPACTION_CHECKPOINTS_SQL =
+            "SELECT id, owner_id, status, priority, mood_compatibility_score, auto_adjusted, last_mood_check " +
+            "FROM todos WHERE id IN (:ids)";
+
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT id, todo_id, delta, created_at FROM score_events WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String CHECKPOINT_SQL =
+            "UPDATE todos SET mood_compatibility_score = ?, auto_adjusted = TRUE, last_mood_check = ? WHERE id = ?";
+
+    private static final String DELETE_CHUNK_SQL = "DELETE FROM score_events WHERE id > ? AND id <= ?";
+
+    // Compactação de um usuário: só os eventos das tarefas dele (índice do dono em todos, depois (todo_id, id))
+    private static final String SELECT_OWNER_CHUNK_SQL =
+            "SELECT e.id, e.todo_id, e.delta, e.created_at FROM score_events e JOIN todos t ON t.id = e.todo_id " +
+            "WHERE t.owner_id = ? AND e.id > ? ORDER BY e.id LIMIT ?";
+
+    private static final String DELETE_OWNER_CHUNK_SQL =
+            "DELETE FROM score_events WHERE id > ? AND id <= ? AND todo_id IN (SELECT id FROM todos WHERE owner_id = ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TodoCache todoCache;
+
+    @Autowired
+    private TaskStatistics taskStatistics;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TaskScoringIndex taskScoringIndex;
+
+    @Autowired
+    private ScoringProperties scoringProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // id -> score efetivo sem decaimento e hora do último ajuste, em ordem de acesso (LRU até ledgerCacheSize).
+    // É invalidado quando o checkpoint da tarefa muda por fora do ledger (o decaimento depende só do relógio)
+    private final LinkedHashMap<Long, Effective> effectiveScores = new LinkedHashMap<>(256, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Effective> eldest){
+            boolean evict = size() > scoringProperties.getLedgerCacheSize();
+            if (evict){
+                evictionCounter.increment();
+            }
+            return evict;
+        }
+    };
+
+    // Guarda só o mapa do cache; leituras com acerto não esperam o lock do ledger
+    private final Object cacheLock = new Object();
+
+    // Serializa append, cálculo sob demanda e compactação: um cálculo nunca vê um checkpoint novo com eventos já apagados
+    private final Object lock = new Object();
+
+    private Counter appendedCounter;
+    private Counter compactedCounter;
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter evictionCounter;
+
+    private volatile LocalDateTime lastCompaction;
+    private volatile long lastCompactionEvents;
+
+    @PostConstruct
+    public void initialize(){
+        appendedCounter = Counter.builder("smarttodo.ledger.events.appended").register(meterRegistry);
+        compactedCounter = Counter.builder("smarttodo.ledger.events.compacted").register(meterRegistry);
+        hitCounter = Counter.builder("smarttodo.ledger.cache.hits").register(meterRegistry);
+        missCounter = Counter.builder("smarttodo.ledger.cache.misses").register(meterRegistry);
+        evictionCounter = Counter.builder("smarttodo.ledger.cache.evictions").register(meterRegistry);
+        Gauge.builder("smarttodo.ledger.cache.size", this, ScoreLedger::cacheSize).register(meterRegistry);
+
+        taskScoringIndex.addListener(this);
+    }
+
+    // Registra um delta por tarefa; deltas que não mudam o score efetivo (já no limite) não viram evento
+    Appended append(String cause, Map<Long, Double> deltas){
+        if (deltas.isEmpty()){
+            return new Appended(0, 0);
+        }
+
+        String eventCause = cause.length() > MAX_CAUSE_LENGTH ? cause.substring(0, MAX_CAUSE_LENGTH) : cause;
+        long nowMillis = System.currentTimeMillis();
+        Timestamp now = new Timestamp(nowMillis);
+        synchronized (lock){
+            Map<Long, Effective> current = entries(deltas.keySet());
+            List<Adjustment> adjustments = new ArrayList<>();
+            deltas.forEach((id, delta) -> {
+                Effective effective = current.get(id);
+                if (effective != null){
+                    double score = decayed(effective, nowMillis);
+                    double newScore = apply(score, delta);
+                    if (newScore != score){
+                        adjustments.add(new Adjustment(id, delta, newScore));
+                    }
+                }
+            });
+            if (adjustments.isEmpty()){
+                return new Appended(0, 0);
+            }
+
+            int[][] batches = jdbcTemplate.batchUpdate(INSERT_SQL, adjustments, BATCH_SIZE, (ps, adjustment) -> {
+                ps.setLong(1, adjustment.todoId());
+                ps.setString(2, eventCause);
+                ps.setDouble(3, adjustment.delta());
+                ps.setTimestamp(4, now);
+            });
+
+            synchronized (cacheLock){
+                for (Adjustment adjustment : adjustments){
+                    effectiveScores.put(adjustment.todoId(), new Effective(adjustment.newScore(), nowMillis));
+                }
+            }
+            appendedCounter.increment(adjustments.size());
+            return new Appended(adjustments.size(), batches.length);
+        }
+    }
+
+    public double effectiveScore(long todoId){
+        Double score = effectiveScores(List.of(todoId)).get(todoId);
+        return score != null ? score : Double.NaN;
+    }
+
+    // Scores efetivos (já com decaimento) das tarefas pedidas; tarefas inexistentes ficam de fora do mapa
+    public Map<Long, Double> effectiveScores(Collection<Long> todoIds){
+        long now = System.currentTimeMillis();
+        Map<Long, Double> scores = new HashMap<>();
+        entries(todoIds).forEach((id, effective) -> scores.put(id, decayed(effective, now)));
+        return scores;
+    }
+
+    private Map<Long, Effective> entries(Collection<Long> todoIds){
+        Map<Long, Effective> result = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        synchronized (cacheLock){
+            for (Long id : todoIds){
+                Effective cached = effectiveScores.get(id);
+                if (cached != null){
+                    result.put(id, cached);
+                } else {
+                    misses.add(id);
+                }
+            }
+        }
+        hitCounter.increment(result.size());
+
+        if (!misses.isEmpty()){
+            missCounter.increment(misses.size());
+            synchronized (lock){
+                for (int from = 0; from < misses.size(); from += IN_CLAUSE_LIMIT){
+                    Map<Long, Effective> folded = fold(misses.subList(from, Math.min(misses.size(), from + IN_CLAUSE_LIMIT)));
+                    synchronized (cacheLock){
+                        effectiveScores.putAll(folded);
+                    }
+                    result.putAll(folded);
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, Effective> fold(List<Long> ids){
+        Map<String, Object> params = Map.of("ids", ids);
+        Map<Long, Effective> scores = new LinkedHashMap<>();
+        namedParameterJdbcTemplate.query(SELECT_CHECKPOINTS_SQL, params, rs -> {
+            scores.put(rs.getLong("id"), checkpoint(rs));
+        });
+        namedParameterJdbcTemplate.query(SELECT_EVENTS_SQL, params, rs -> {
+            double delta = rs.getDouble("delta");
+            long at = rs.getTimestamp("created_at").getTime();
+            scores.computeIfPresent(rs.getLong("todo_id"), (id, effective) -> step(effective, delta, at));
+        });
+        return scores;
+    }
+
+    private static Effective checkpoint(ResultSet rs) throws SQLException {
+        double score = rs.getDouble("mood_compatibility_score");
+        if (rs.wasNull()){
+            score = NULL_CHECKPOINT;
+        }
+        Timestamp lastMoodCheck = rs.getTimestamp("last_mood_check");
+        boolean adjusted = rs.getBoolean("auto_adjusted") && lastMoodCheck != null;
+        return new Effective(score, adjusted ? lastMoodCheck.getTime() : NOT_ADJUSTED);
+    }
+
+    private static TaskStatistics.Key statisticsKey(ResultSet rs) throws SQLException {
+        String status = rs.getString("status");
+        String priority = rs.getString("priority");
+        return new TaskStatistics.Key(rs.getString("owner_id"),
+                status != null ? Todo.TaskStatus.valueOf(status) : null,
+                priority != null ? Todo.Priority.valueOf(priority) : null,
+                rs.getBoolean("auto_adjusted"));
+    }
+
+    // Cada evento parte do valor já decaído até a hora dele e reinicia o relógio do decaimento
+    private Effective step(Effective effective, double delta, long at){
+        return new Effective(apply(decayed(effective, at), delta), at);
+    }
+
+    private double decayed(Effective effective, long at){
+        return decay(effective.score(), taskScoringIndex.getRules().getBaseScore(),
+                at - effective.adjustedAt(), scoringProperties.getDecayHalfLife());
+    }
+
+    static double apply(double score, double delta){
+        return Math.max(0.0, Math.min(1.0, score + delta));
+    }
+
+    // Decaimento exponencial do ajuste em direção ao alvo: metade da distância a cada meia-vida
+    static double decay(double score, double target, long ageMillis, long halfLifeMillis){
+        if (halfLifeMillis <= 0 || ageMillis <= 0){
+            return score;
+        }
+        return target + (score - target) * Math.pow(0.5, (double) ageMillis / halfLifeMillis);
+    }
+
+    // Entidades lidas para a API mostram o score efetivo; só para leitura (nada é gravado a partir delas)
+    public <T extends Collection<Todo>> T overlay(T tasks){
+        List<Long> ids = new ArrayList<>(tasks.size());
+        for (Todo task : tasks){
+            if (task.getId() != null){
+                ids.add(task.getId());
+            }
+        }
+
+        Map<Long, Double> scores = effectiveScores(ids);
+        for (Todo task : tasks){
+            Double score = scores.get(task.getId());
+            if (score != null && !score.equals(task.getMoodCompatibilityScore())){
+                task.setMoodCompatibilityScore(score);
+                task.setAutoAdjusted(true);
+            }
+        }
+        return tasks;
+    }
+
+    @Scheduled(initialDelayString = "${smarttodo.scoring.compaction-interval:60000}",
+            fixedDelayString = "${smarttodo.scoring.compaction-interval:60000}")
+    public void scheduledCompaction(){
+        compact();
+    }
+
+    // Dobra os eventos pendentes nos checkpoints, em pedaços por faixa de id, e apaga os eventos dobrados
+    public long compact(){
+        return compact(null);
+    }
+
+    // Só os eventos das tarefas do usuário: a passada de humor de um usuário não reescreve as tarefas dos outros,
+    // e o lock do ledger fica preso pelo tempo proporcional aos eventos dele. ownerId null = todos os eventos
+    public long compact(String ownerId){
+        int chunkSize = Math.max(1, scoringProperties.getCompactionChunkSize());
+        String owner = ownerId != null ? UserContextRegistry.normalize(ownerId) : null;
+        long compacted = 0;
+
+        synchronized (lock){
+            long lastId = 0;
+            while (true){
+                RowMapper<Object[]> rowMapper = (rs, rowNum) -> new Object[]{
+                        rs.getLong("id"), rs.getLong("todo_id"), rs.getDouble("delta"), rs.getTimestamp("created_at")
+                };
+                List<Object[]> chunk = owner == null
+                        ? jdbcTemplate.query(SELECT_CHUNK_SQL, rowMapper, lastId, chunkSize)
+                        : jdbcTemplate.query(SELECT_OWNER_CHUNK_SQL, rowMapper, owner, lastId, chunkSize);
+                if (chunk.isEmpty()){
+                    break;
+                }
+
+                List<Long> ids = chunk.stream().map(row -> (Long) row[1]).distinct().toList();
+                Map<Long, Effective> scores = new LinkedHashMap<>();
+                Map<Long, TaskStatistics.Key> previous = new HashMap<>();
+                for (int from = 0; from < ids.size(); from += IN_CLAUSE_LIMIT){
+                    namedParameterJdbcTemplate.query(SELECT_COMPACTION_CHECKPOINTS_SQL,
+                            Map.of("ids", ids.subList(from, Math.min(ids.size(), from + IN_CLAUSE_LIMIT))), rs -> {
+                        scores.put(rs.getLong("id"), checkpoint(rs));
+                        previous.put(rs.getLong("id"), statisticsKey(rs));
+                    });
+                }
+                // Eventos de tarefas já apagadas não têm checkpoint: são só descartados
+                for (Object[] row : chunk){
+                    long at = ((Timestamp) row[3]).getTime();
+                    scores.computeIfPresent((Long) row[1], (id, effective) -> step(effective, (Double) row[2], at));
+                }
+
+                // O checkpoint guarda o valor na hora do último evento; o decaimento até agora continua na leitura
+                long fromId = lastId;
+                long toId = (Long) chunk.get(chunk.size() - 1)[0];
+                List<Map.Entry<Long, Effective>> checkpoints = new ArrayList<>(scores.entrySet());
+                // O checkpoint marca auto_adjusted direto no banco: a diferença vai para as estatísticas junto com a gravação
+                taskStatistics.tracking(() -> {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.batchUpdate(CHECKPOINT_SQL, checkpoints, BATCH_SIZE, (ps, entry) -> {
+                            ps.setDouble(1, entry.getValue().score());
+                            ps.setTimestamp(2, new Timestamp(entry.getValue().adjustedAt()));
+                            ps.setLong(3, entry.getKey());
+                        });
+                        if (owner == null){
+                            jdbcTemplate.update(DELETE_CHUNK_SQL, fromId, toId);
+                        } else {
+                            jdbcTemplate.update(DELETE_OWNER_CHUNK_SQL, fromId, toId, owner);
+                        }
+                    });
+                    for (Map.Entry<Long, Effective> entry : checkpoints){
+                        TaskStatistics.Key key = previous.get(entry.getKey());
+                        taskStatistics.changed(key, key.withAutoAdjusted(true));
+                    }
+                    return null;
+                });
+
+                for (Map.Entry<Long, Effective> entry : checkpoints){
+                    taskScoringIndex.applyAdjustment(entry.getKey(), entry.getValue().score(), true, null);
+                }
+                todoCache.evictEntities(scores.keySet());
+                compacted += chunk.size();
+                lastId = toId;
+            }
+        }
+
+        compactedCounter.increment(compacted);
+        lastCompaction = LocalDateTime.now();
+        lastCompactionEvents = compacted;
+        if (compacted > 0){
+            logger.debug("Ledger de score: {} eventos compactados{}", compacted, owner != null ? " de " + owner : "");
+        }
+        return compacted;
+    }
+
+    // O checkpoint mudou por fora do ledger (passada de humor, reset): o próximo acesso recalcula
+    public void invalidate(long todoId){
+        synchronized (cacheLock){
+            effectiveScores.remove(todoId);
+        }
+    }
+
+    public void invalidateAll(){
+        synchronized (cacheLock){
+            effectiveScores.clear();
+        }
+    }
+
+    @Override
+    public void taskChanged(String ownerId, long id){
+        invalidate(id);
+    }
+
+    @Override
+    public void indexRebuilt(){
+        invalidateAll();
+    }
+
+    private int cacheSize(){
+        synchronized (cacheLock){
+            return effectiveScores.size();
+        }
+    }
+
+    public long getPendingEvents(){
+        Long pending = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM score_events", Long.class);
+        return pending != null ? pending : 0;
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> status = new HashMap<>();
+        status.put("pendingEvents", getPendingEvents());
+        status.put("cachedScores", cacheSize());
+        status.put("cacheMaxSize", scoringProperties.getLedgerCacheSize());
+        status.put("appendedEvents", (long) appendedCounter.count());
+        status.put("compactedEvents", (long) compactedCounter.count());
+        status.put("cacheHits", (long) hitCounter.count());
+        status.put("cacheMisses", (long) missCounter.count());
+        status.put("cacheEvictions", (long) evictionCounter.count());
+        status.put("lastCompaction", lastCompaction);
+        status.put("lastCompactionEvents", lastCompactionEvents);
+        return status;
+    }
+
+    private record Adjustment(long todoId, double delta, double newScore) {}
+
+    private record Effective(double score, long adjustedAt) {}
+
+    record Appended(int events, int statements) {}
+}
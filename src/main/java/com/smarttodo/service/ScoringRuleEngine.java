@@ -0,0 +1,133 @@
+package com.smarttodo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttodo.config.ScoringProperties;
+import com.smarttodo.config.ScoringRuleSet;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Carrega as regras de pontuação do arquivo configurado e recompila quando ele muda, sem reiniciar a aplicação
+@Service
+public class ScoringRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringRuleEngine.class);
+
+    @Autowired
+    private ScoringProperties scoringProperties;
+
+    @Autowired
+    private TaskScoringIndex taskScoringIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile String source = "classpath:scoring-rules.json";
+    private volatile FileTime loadedModified;
+    private volatile LocalDateTime loadedAt;
+    private volatile String lastError;
+
+    @PostConstruct
+    public void initialize(){
+        if (rulesFile() == null){
+            loadedAt = LocalDateTime.now();
+            logger.info("Regras de pontuação padrão carregadas ({} condições)", getRules().conditionCount());
+            return;
+        }
+
+        try{
+            reload();
+        } catch (RuntimeException e){
+            // Arquivo inválido na subida: segue com as regras padrão até a próxima verificação
+            logger.error("Regras de pontuação inválidas em {}, usando as padrão", rulesFile(), e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${smarttodo.scoring.reload-interval:30000}",
+            fixedDelayString = "${smarttodo.scoring.reload-interval:30000}")
+    public void checkForChanges(){
+        Path file = rulesFile();
+        if (file == null || !Files.exists(file)){
+            return;
+        }
+
+        try{
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (!modified.equals(loadedModified)){
+                reload();
+            }
+        } catch (IOException | RuntimeException e){
+            logger.warn("Falha ao recarregar regras de pontuação de {}: {}", file, e.getMessage());
+        }
+    }
+
+    // Relê o arquivo configurado; um arquivo inválido lança exceção e mantém as regras atuais
+    public ScoringRules reload(){
+        Path file = rulesFile();
+        if (file == null){
+            return apply(ScoringRules.loadDefaultRuleSet(objectMapper), "classpath:scoring-rules.json");
+        }
+
+        try{
+            FileTime modified = Files.getLastModifiedTime(file);
+            ScoringRules rules = apply(objectMapper.readValue(file.toFile(), ScoringRuleSet.class), file.toString());
+            loadedModified = modified;
+            return rules;
+        } catch (IOException e){
+            lastError = e.getMessage();
+            throw new IllegalArgumentException("Falha ao ler regras de pontuação de " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Regras enviadas pela API: valem até a próxima alteração do arquivo ou reinício
+    public ScoringRules update(ScoringRuleSet ruleSet){
+        return apply(ruleSet, "api");
+    }
+
+    private ScoringRules apply(ScoringRuleSet ruleSet, String origin){
+        ScoringRules rules;
+        try{
+            rules = ScoringRules.compile(ruleSet);
+        } catch (IllegalArgumentException e){
+            lastError = e.getMessage();
+            throw e;
+        }
+
+        taskScoringIndex.setRules(rules);
+        source = origin;
+        loadedAt = LocalDateTime.now();
+        lastError = null;
+        logger.info("Regras de pontuação compiladas de {} ({} condições)", origin, rules.conditionCount());
+        return rules;
+    }
+
+    public ScoringRules getRules(){
+        return taskScoringIndex.getRules();
+    }
+
+    private Path rulesFile(){
+        String rulesFile = scoringProperties.getRulesFile();
+        return rulesFile == null || rulesFile.isBlank() ? null : Paths.get(rulesFile);
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> status = new HashMap<>();
+        status.put("source", source);
+        status.put("loadedAt", loadedAt);
+        status.put("conditions", getRules().conditionCount());
+        status.put("lastError", lastError);
+        return status;
+    }
+}
@@ -0,0 +1,319 @@
+package com.smarttodo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttodo.config.ScoringRuleSet;
+import com.smarttodo.entity.Todo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Regras de pontuação compiladas em tabelas densas indexadas pelos códigos das colunas do TaskScoringIndex.
+// Imutável: uma recarga compila uma instância nova e troca a referência
+public final class ScoringRules {
+
+    public static final String[] MOODS = {"focused", "energetic", "creative", "relaxed", "tired", "stressed", "neutral"};
+    static final String[] ENVIRONMENTS = {"quiet", "collaborative", "bright"};
+
+    private static final String DEFAULT_RULES = "/scoring-rules.json";
+
+    // Códigos especiais: -1 = nulo, o último código de humor = valor fora da lista conhecida
+    static final byte NONE = -1;
+    static final byte NULL_LOAD = Byte.MIN_VALUE;
+
+    // Janela máxima de prazo compilável, para a tabela por hora não crescer sem limite
+    private static final long MAX_DUE_HOURS = 24 * 365;
+
+    private final double baseScore;
+
+    // [humor atual][código + 1]; a última linha é um humor desconhecido
+    private final double[][] requiredMoodTable = new double[MOODS.length + 1][];
+    private final double[][] cognitiveTable = new double[MOODS.length + 1][];
+    private final double[][] priorityTable = new double[MOODS.length + 1][];
+    private final double[][] environmentTable = new double[MOODS.length + 1][];
+
+    // Ajuste por horas até o prazo, de dueFromHours até dueToHours (valores fora do intervalo são presos nas pontas)
+    private final double[] dueTable;
+    private final long dueFromHours;
+    private final long dueToHours;
+
+    private final Map<String, ConditionTable> conditions = new HashMap<>();
+
+    private final ScoringRuleSet source;
+
+    private ScoringRules(ScoringRuleSet ruleSet){
+        this.source = ruleSet;
+        this.baseScore = ruleSet.getBaseScore();
+
+        validateMoods(ruleSet.getCompatibleMoods().keySet(), false, "compatibleMoods");
+        validateMoods(ruleSet.getCognitiveLoad().keySet(), false, "cognitiveLoad");
+        validateMoods(ruleSet.getPriority().keySet(), true, "priority");
+        validateMoods(ruleSet.getEnvironment().keySet(), true, "environment");
+
+        ScoringRuleSet.RequiredMood required = ruleSet.getRequiredMood();
+        for (int mood = 0; mood <= MOODS.length; mood++){
+            String currentMood = mood < MOODS.length ? MOODS[mood] : null;
+
+            // Código 0 (humor exigido nulo) não soma nada; o último código é um humor exigido desconhecido
+            double[] requiredRow = new double[MOODS.length + 2];
+            for (int code = 0; code <= MOODS.length; code++){
+                String requiredMood = code < MOODS.length ? MOODS[code] : null;
+                requiredRow[code + 1] = requiredMood != null && requiredMood.equals(currentMood) ? required.getMatch()
+                        : requiredMood != null && currentMood != null && ruleSet.getCompatibleMoods().getOrDefault(requiredMood, List.of()).contains(currentMood)
+                        ? required.getCompatible() : required.getMismatch();
+            }
+            requiredMoodTable[mood] = requiredRow;
+
+            double[] cognitiveRow = new double[256];
+            List<Double> loads = currentMood != null ? ruleSet.getCognitiveLoad().get(currentMood) : null;
+            for (int load = Byte.MIN_VALUE + 1; load <= Byte.MAX_VALUE; load++){
+                cognitiveRow[load + 128] = byLoad(loads, load, 0.0);
+            }
+            cognitiveTable[mood] = cognitiveRow;
+
+            Map<String, Double> priorities = row(ruleSet.getPriority(), currentMood);
+            double[] priorityRow = new double[Todo.Priority.values().length + 1];
+            for (Map.Entry<String, Double> entry : priorities.entrySet()){
+                priorityRow[priorityCode(entry.getKey()) + 1] = entry.getValue();
+            }
+            priorityTable[mood] = priorityRow;
+
+            Map<String, Double> environments = row(ruleSet.getEnvironment(), currentMood);
+            double[] environmentRow = new double[ENVIRONMENTS.length + 1];
+            for (Map.Entry<String, Double> entry : environments.entrySet()){
+                environmentRow[knownEnvironmentCode(entry.getKey()) + 1] = entry.getValue();
+            }
+            environmentTable[mood] = environmentRow;
+        }
+
+        List<ScoringRuleSet.DueWindow> windows = ruleSet.getDueDate();
+        if (windows.isEmpty()){
+            dueFromHours = 0;
+            dueToHours = 0;
+            dueTable = new double[1];
+        } else {
+            for (int i = 0; i < windows.size(); i++){
+                long maxHours = windows.get(i).getMaxHours();
+                if (Math.abs(maxHours) > MAX_DUE_HOURS || (i > 0 && maxHours <= windows.get(i - 1).getMaxHours())){
+                    throw new IllegalArgumentException("Janelas de prazo devem ser crescentes e até " + MAX_DUE_HOURS + "h");
+                }
+            }
+
+            // Abaixo da primeira janela vale a primeira; acima da última (dueToHours) não há ajuste
+            dueFromHours = windows.get(0).getMaxHours();
+            dueToHours = windows.get(windows.size() - 1).getMaxHours() + 1;
+            dueTable = new double[(int) (dueToHours - dueFromHours + 1)];
+            int window = 0;
+            for (long hours = dueFromHours; hours < dueToHours; hours++){
+                while (hours > windows.get(window).getMaxHours()){
+                    window++;
+                }
+                dueTable[(int) (hours - dueFromHours)] = windows.get(window).getAdjustment();
+            }
+        }
+
+        ruleSet.getConditions().forEach((name, condition) -> conditions.put(name, new ConditionTable(name, condition)));
+    }
+
+    public static ScoringRules compile(ScoringRuleSet ruleSet){
+        return new ScoringRules(ruleSet);
+    }
+
+    // Regras padrão empacotadas com a aplicação
+    public static ScoringRules defaults(){
+        return Defaults.RULES;
+    }
+
+    static ScoringRuleSet loadDefaultRuleSet(ObjectMapper objectMapper){
+        try (InputStream in = ScoringRules.class.getResourceAsStream(DEFAULT_RULES)){
+            if (in == null){
+                throw new IllegalStateException("Regras padrão não encontradas: " + DEFAULT_RULES);
+            }
+            return objectMapper.readValue(in, ScoringRuleSet.class);
+        } catch (IOException e){
+            throw new UncheckedIOException("Falha ao ler " + DEFAULT_RULES, e);
+        }
+    }
+
+    public ScoringRuleSet getSource(){
+        return source;
+    }
+
+    public double getBaseScore(){
+        return baseScore;
+    }
+
+    // Avaliação sobre as colunas codificadas: só leituras de tabela, na mesma ordem de soma das regras originais
+    double score(int mood, byte requiredMood, byte cognitiveLoad, byte priority, byte environment, double dueAdjustment){
+        double score = baseScore + requiredMoodTable[mood][requiredMood + 1];
+        score += cognitiveTable[mood][cognitiveLoad + 128];
+        score += priorityTable[mood][priority + 1];
+        score += dueAdjustment;
+        score += environmentTable[mood][environment + 1];
+        return Math.max(0.0, Math.min(1.0, score));
+    }
+
+    double dueAdjustment(long hoursUntilDue){
+        long hours = Math.max(dueFromHours, Math.min(dueToHours, hoursUntilDue));
+        return dueTable[(int) (hours - dueFromHours)];
+    }
+
+    public double score(Todo task, String currentMood, LocalDateTime now){
+        double due = task.getDueDate() != null ? dueAdjustment(Duration.between(now, task.getDueDate()).toHours()) : 0.0;
+        return score(moodCode(currentMood), requiredMoodCode(task.getRequiredMood()), loadCode(task.getCognitiveLoad()),
+                priorityCode(task.getPriority()), environmentCode(task.getOptimalEnvironment()), due);
+    }
+
+    // Ajuste de uma condição ambiental (high_noise, low_light...); condição sem regra não ajusta
+    public double conditionAdjustment(Todo task, String conditionType){
+        ConditionTable condition = conditions.get(conditionType);
+        return condition != null ? condition.adjustment(task) : 0.0;
+    }
+
+    public int conditionCount(){
+        return conditions.size();
+    }
+
+    static int moodCode(String mood){
+        for (int i = 0; i < MOODS.length; i++){
+            if (MOODS[i].equals(mood)){
+                return i;
+            }
+        }
+        return MOODS.length;
+    }
+
+    static byte requiredMoodCode(String mood){
+        return mood != null ? (byte) moodCode(mood) : NONE;
+    }
+
+    static byte loadCode(Integer cognitiveLoad){
+        return cognitiveLoad != null
+                ? (byte) Math.max(Byte.MIN_VALUE + 1, Math.min(Byte.MAX_VALUE, cognitiveLoad))
+                : NULL_LOAD;
+    }
+
+    static byte priorityCode(Todo.Priority priority){
+        return priority != null ? (byte) priority.ordinal() : NONE;
+    }
+
+    static byte environmentCode(String environment){
+        for (int i = 0; i < ENVIRONMENTS.length; i++){
+            if (ENVIRONMENTS[i].equals(environment)){
+                return (byte) i;
+            }
+        }
+        return NONE;
+    }
+
+    private static byte priorityCode(String priority){
+        try{
+            return (byte) Todo.Priority.valueOf(priority).ordinal();
+        } catch (IllegalArgumentException e){
+            throw new IllegalArgumentException("Prioridade desconhecida nas regras: " + priority);
+        }
+    }
+
+    private static byte knownEnvironmentCode(String environment){
+        byte code = environmentCode(environment);
+        if (code == NONE){
+            throw new IllegalArgumentException("Ambiente desconhecido nas regras: " + environment);
+        }
+        return code;
+    }
+
+    // Posição = carga; cargas negativas usam a primeira e cargas além do fim usam a última
+    private static double byLoad(List<Double> loads, int load, double fallback){
+        if (loads == null || loads.isEmpty()){
+            return fallback;
+        }
+        return loads.get(Math.max(0, Math.min(loads.size() - 1, load)));
+    }
+
+    private static Map<String, Double> row(Map<String, Map<String, Double>> table, String mood){
+        Map<String, Double> row = mood != null ? table.get(mood) : null;
+        if (row == null){
+            row = table.get("default");
+        }
+        return row != null ? row : Map.of();
+    }
+
+    private static void validateMoods(Iterable<String> moods, boolean allowDefault, String section){
+        for (String mood : moods){
+            if (!(allowDefault && "default".equals(mood)) && moodCode(mood) == MOODS.length){
+                throw new IllegalArgumentException("Humor desconhecido em " + section + ": " + mood);
+            }
+        }
+    }
+
+    // Regra de uma condição compilada para a coluna que ela consulta
+    private static final class ConditionTable {
+        private final Kind kind;
+        private final double[] table;
+        private final Map<String, Double> locations;
+        private final double defaultValue;
+
+        private enum Kind { FIXED, COGNITIVE_LOAD, PRIORITY, ENVIRONMENT, LOCATION }
+
+        private ConditionTable(String name, ScoringRuleSet.Condition condition){
+            this.defaultValue = condition.getDefaultValue();
+            this.kind = condition.getBy() == null ? Kind.FIXED : switch (condition.getBy()){
+                case "cognitiveLoad" -> Kind.COGNITIVE_LOAD;
+                case "priority" -> Kind.PRIORITY;
+                case "environment" -> Kind.ENVIRONMENT;
+                case "location" -> Kind.LOCATION;
+                default -> throw new IllegalArgumentException("Condição " + name + " com critério desconhecido: " + condition.getBy());
+            };
+
+            Map<String, Double> values = condition.getValues();
+            double[] compiled = null;
+            switch (kind){
+                case COGNITIVE_LOAD -> {
+                    compiled = new double[256];
+                    compiled[0] = defaultValue;
+                    for (int load = Byte.MIN_VALUE + 1; load <= Byte.MAX_VALUE; load++){
+                        compiled[load + 128] = byLoad(condition.getLoads(), load, defaultValue);
+                    }
+                }
+                case PRIORITY -> {
+                    compiled = new double[Todo.Priority.values().length + 1];
+                    Arrays.fill(compiled, defaultValue);
+                    for (Map.Entry<String, Double> entry : values.entrySet()){
+                        compiled[priorityCode(entry.getKey()) + 1] = entry.getValue();
+                    }
+                }
+                case ENVIRONMENT -> {
+                    compiled = new double[ENVIRONMENTS.length + 1];
+                    Arrays.fill(compiled, defaultValue);
+                    for (Map.Entry<String, Double> entry : values.entrySet()){
+                        compiled[knownEnvironmentCode(entry.getKey()) + 1] = entry.getValue();
+                    }
+                }
+                default -> { }
+            }
+            this.table = compiled;
+            this.locations = kind == Kind.LOCATION ? Map.copyOf(values) : Map.of();
+        }
+
+        private double adjustment(Todo task){
+            return switch (kind){
+                case FIXED -> defaultValue;
+                case COGNITIVE_LOAD -> table[loadCode(task.getCognitiveLoad()) + 128];
+                case PRIORITY -> table[priorityCode(task.getPriority()) + 1];
+                case ENVIRONMENT -> table[environmentCode(task.getOptimalEnvironment()) + 1];
+                case LOCATION -> task.getLocationContext() != null
+                        ? locations.getOrDefault(task.getLocationContext(), defaultValue) : defaultValue;
+            };
+        }
+    }
+
+    private static final class Defaults {
+        private static final ScoringRules RULES = compile(loadDefaultRuleSet(new ObjectMapper()));
+    }
+}
@@ -0,0 +1,129 @@
+package com.smarttodo.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.smarttodo.entity.SensorData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SensorHistoryService {
+
+    static final int PAGE_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SensorRetentionService sensorRetentionService;
+
+    // Escreve o histórico em NDJSON, uma leitura por linha, da mais nova para a mais antiga.
+    // A tabela é lida em páginas por keyset (timestamp, id) e os arquivos de retenção um dia por vez,
+    // então a memória usada não depende do tamanho do período. Quando o limite é atingido,
+    // a última linha traz o cursor para a próxima chamada: {"nextCursor": "..."}
+    // ownerId e sensorType null = sem filtro
+    public long streamHistory(String ownerId, String sensorType, LocalDateTime since, HistoryCursor after, Integer limit, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(SensorData.class);
+        String owner = ownerId != null ? UserContextRegistry.normalize(ownerId) : null;
+        long max = limit != null ? limit : Long.MAX_VALUE;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)){
+            generator.setRootValueSeparator(null);
+            Page page = new Page(after);
+
+            while (page.written < max){
+                int pageSize = (int) Math.min(PAGE_SIZE, max - page.written);
+                List<SensorData> readings = fetchPage(owner, sensorType, since, page.cursor, pageSize);
+                for (SensorData data : readings){
+                    page.write(writer, generator, data);
+                }
+                generator.flush();
+
+                if (readings.size() < pageSize){
+                    break;
+                }
+            }
+
+            // O que já saiu da tabela vem dos arquivos; todo arquivado é mais antigo que o restante da tabela
+            if (page.written < max){
+                LocalDateTime until = page.cursor != null ? page.cursor.timestamp().plusNanos(1) : LocalDateTime.now();
+                sensorRetentionService.forEachArchived(owner, sensorType, since, until, data -> {
+                    if (page.cursor != null && !page.cursor.isAfter(data)){
+                        return true;
+                    }
+                    page.write(writer, generator, data);
+                    return page.written < max;
+                });
+            }
+
+            if (limit != null && page.written >= max && page.cursor != null){
+                generator.writeObject(Map.of("nextCursor", page.cursor.toString()));
+                generator.writeRaw('\n');
+            }
+            return page.written;
+        }
+    }
+
+    private List<SensorData> fetchPage(String owner, String sensorType, LocalDateTime since, HistoryCursor cursor, int pageSize){
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, sensor_id, sensor_type, sensor_value, unit, location, timestamp, quality, owner_id FROM sensor_data " +
+                "WHERE timestamp >= ?");
+        List<Object> args = new ArrayList<>(7);
+        args.add(Timestamp.valueOf(since));
+
+        if (owner != null){
+            sql.append(" AND owner_id = ?");
+            args.add(owner);
+        }
+        if (sensorType != null){
+            sql.append(" AND sensor_type = ?");
+            args.add(sensorType);
+        }
+        if (cursor != null){
+            Timestamp cursorTimestamp = Timestamp.valueOf(cursor.timestamp());
+            sql.append(" AND (timestamp < ? OR (timestamp = ? AND id < ?))");
+            args.add(cursorTimestamp);
+            args.add(cursorTimestamp);
+            args.add(cursor.id());
+        }
+
+        sql.append(" ORDER BY timestamp DESC, id DESC LIMIT ?");
+        args.add(pageSize);
+
+        return jdbcTemplate.query(sql.toString(), SensorRetentionService.ROW_MAPPER, args.toArray());
+    }
+
+    private static final class Page {
+        private HistoryCursor cursor;
+        private long written;
+
+        private Page(HistoryCursor cursor){
+            this.cursor = cursor;
+        }
+
+        private void write(ObjectWriter writer, JsonGenerator generator, SensorData data){
+            try{
+                writer.writeValue(generator, data);
+                generator.writeRaw('\n');
+            } catch (IOException e){
+                throw new UncheckedIOException(e);
+            }
+            cursor = HistoryCursor.of(data);
+            written++;
+        }
+    }
+}
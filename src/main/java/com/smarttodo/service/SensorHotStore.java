@@ -0,0 +1,303 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.IoTProperties;
+import com.smarttodo.entity.SensorData;
+import com.smarttodo.repository.SensorDataRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class SensorHotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorHotStore.class);
+    private static final int INITIAL_CAPACITY = 256;
+
+    @Autowired
+    private IoTProperties ioTProperties;
+
+    @Autowired
+    private SensorDataRepository sensorDataRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter evictionCounter;
+
+    // sensorType -> (dono, sensorId) -> buffer circular; sensores sem leitura dentro da retenção são descartados
+    private final Map<String, Map<RingKey, SensorRing>> rings = new ConcurrentHashMap<>();
+
+    // A partir de quando o store tem todas as leituras (antes disso só o banco responde)
+    private volatile long coveredSince;
+
+    @PostConstruct
+    public void initialize(){
+        evictionCounter = Counter.builder("smarttodo.iot.hotstore.sensors.evicted").register(meterRegistry);
+
+        LocalDateTime now = LocalDateTime.now();
+        coveredSince = toEpochNanos(now);
+
+        if (!ioTProperties.getHotStore().isWarmUp()){
+            return;
+        }
+
+        // Roda antes do adapter MQTT iniciar, então não concorre com leituras novas
+        LocalDateTime since = now.minusHours(ioTProperties.getHotStore().getRetentionHours());
+        List<SensorData> recent = sensorDataRepository.findRecentData(since);
+        for (int i = recent.size() - 1; i >= 0; i--){
+            record(recent.get(i));
+        }
+
+        coveredSince = toEpochNanos(since);
+        logger.info("Hot store carregado com {} leituras das últimas {}h",
+                recent.size(), ioTProperties.getHotStore().getRetentionHours());
+    }
+
+    public void record(SensorData sensorData){
+        if (sensorData.getSensorType() == null || sensorData.getValue() == null){
+            return;
+        }
+
+        String sensorId = sensorData.getSensorId() != null ? sensorData.getSensorId() : "unknown";
+        String ownerId = UserContextRegistry.normalize(sensorData.getOwnerId());
+        LocalDateTime timestamp = sensorData.getTimestamp() != null ? sensorData.getTimestamp() : LocalDateTime.now();
+        int maxCapacity = Math.max(1, ioTProperties.getHotStore().getMaxReadingsPerSensor());
+
+        // A escrita acontece dentro do compute para não cair num buffer que o evictIdle acabou de remover
+        rings.computeIfAbsent(sensorData.getSensorType(), type -> new ConcurrentHashMap<>())
+                .compute(new RingKey(ownerId, sensorId), (key, ring) -> {
+                    SensorRing target = ring != null ? ring
+                            : new SensorRing(sensorData.getSensorType(), key, Math.min(INITIAL_CAPACITY, maxCapacity));
+                    target.add(toEpochNanos(timestamp), sensorData.getValue(), sensorData.getUnit(),
+                            sensorData.getLocation(), sensorData.getQuality(), maxCapacity);
+                    return target;
+                });
+    }
+
+    @Scheduled(initialDelayString = "${smarttodo.iot.hot-store.eviction-interval:600000}",
+            fixedDelayString = "${smarttodo.iot.hot-store.eviction-interval:600000}")
+    public void scheduledEviction(){
+        evictIdle(LocalDateTime.now());
+    }
+
+    // Um buffer cuja leitura mais nova já saiu da retenção não responde mais nada (coverageStart nunca é
+    // anterior ao início da retenção), então descartá-lo não muda nenhuma resposta
+    int evictIdle(LocalDateTime now){
+        long retentionStart = toEpochNanos(now.minusHours(ioTProperties.getHotStore().getRetentionHours()));
+
+        int evicted = 0;
+        for (Map<RingKey, SensorRing> sensors : rings.values()){
+            for (RingKey key : sensors.keySet()){
+                boolean[] removed = new boolean[1];
+                sensors.computeIfPresent(key, (k, ring) -> {
+                    removed[0] = ring.newest() < retentionStart;
+                    return removed[0] ? null : ring;
+                });
+                if (removed[0]){
+                    evicted++;
+                }
+            }
+        }
+
+        if (evicted > 0){
+            evictionCounter.increment(evicted);
+            logger.debug("{} sensores sem leituras recentes descartados do hot store", evicted);
+        }
+        return evicted;
+    }
+
+    // Leituras dos sensores de um usuário; ownerId null = todos os usuários
+    public List<SensorData> findRecent(String ownerId, String sensorType, LocalDateTime since){
+        String owner = ownerId != null ? UserContextRegistry.normalize(ownerId) : null;
+        long from = toEpochNanos(since);
+        long coverage = coverageStart(sensorType);
+
+        List<SensorData> result = new ArrayList<>();
+        Map<RingKey, SensorRing> sensors = rings.get(sensorType);
+        if (sensors != null){
+            long hotFrom = Math.max(from, coverage);
+            for (SensorRing ring : sensors.values()){
+                if (owner == null || owner.equals(ring.key.ownerId())){
+                    ring.collectSince(hotFrom, result);
+                }
+            }
+            result.sort(Comparator.comparing(SensorData::getTimestamp).reversed());
+        }
+
+        // Só o trecho anterior à cobertura do store vai ao banco
+        if (from < coverage){
+            LocalDateTime until = fromEpochNanos(coverage);
+            result.addAll(owner == null
+                    ? sensorDataRepository.findBySensorTypeAndTimestampBetween(sensorType, since, until)
+                    : sensorDataRepository.findByOwnerAndSensorTypeAndTimestampBetween(owner, sensorType, since, until));
+        }
+
+        return result;
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> sensorsByType = new HashMap<>();
+        long totalReadings = 0;
+
+        for (Map.Entry<String, Map<RingKey, SensorRing>> entry : rings.entrySet()){
+            Map<String, Integer> readingsBySensor = new HashMap<>();
+            for (SensorRing ring : entry.getValue().values()){
+                int size = ring.size();
+                readingsBySensor.merge(ring.key.sensorId(), size, Integer::sum);
+                totalReadings += size;
+            }
+            sensorsByType.put(entry.getKey(), readingsBySensor);
+        }
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("retentionHours", ioTProperties.getHotStore().getRetentionHours());
+        status.put("coveredSince", fromEpochNanos(coveredSince));
+        status.put("totalReadings", totalReadings);
+        status.put("sensorsEvicted", (long) evictionCounter.count());
+        status.put("readingsBySensor", sensorsByType);
+        return status;
+    }
+
+    private long coverageStart(String sensorType){
+        long retentionStart = toEpochNanos(LocalDateTime.now().minusHours(ioTProperties.getHotStore().getRetentionHours()));
+        long coverage = Math.max(coveredSince, retentionStart);
+
+        Map<RingKey, SensorRing> sensors = rings.get(sensorType);
+        if (sensors != null){
+            for (SensorRing ring : sensors.values()){
+                coverage = Math.max(coverage, ring.evictedUpTo() + 1);
+            }
+        }
+        return coverage;
+    }
+
+    static long toEpochNanos(LocalDateTime timestamp){
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + timestamp.getNano();
+    }
+
+    static LocalDateTime fromEpochNanos(long epochNanos){
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, 1_000_000_000L),
+                (int) Math.floorMod(epochNanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    // O mesmo sensorId pode existir em casas de usuários diferentes
+    private record RingKey(String ownerId, String sensorId) {}
+
+    private static final class SensorRing {
+        private final String sensorType;
+        private final RingKey key;
+
+        private long[] timestamps;
+        private double[] values;
+        private String[] units;
+        private String[] locations;
+        private String[] qualities;
+
+        private int head; // próxima posição de escrita
+        private int size;
+        private long evictedUpTo = Long.MIN_VALUE;
+
+        private SensorRing(String sensorType, RingKey key, int capacity){
+            this.sensorType = sensorType;
+            this.key = key;
+            this.timestamps = new long[capacity];
+            this.values = new double[capacity];
+            this.units = new String[capacity];
+            this.locations = new String[capacity];
+            this.qualities = new String[capacity];
+        }
+
+        private synchronized void add(long timestamp, double value, String unit, String location, String quality, int maxCapacity){
+            if (size == timestamps.length && timestamps.length < maxCapacity){
+                grow(Math.min(maxCapacity, timestamps.length * 2));
+            }
+
+            if (size == timestamps.length){
+                evictedUpTo = Math.max(evictedUpTo, timestamps[head]);
+            } else {
+                size++;
+            }
+
+            timestamps[head] = timestamp;
+            values[head] = value;
+            units[head] = unit;
+            locations[head] = location;
+            qualities[head] = quality;
+            head = (head + 1) % timestamps.length;
+        }
+
+        // Percorre do mais novo para o mais antigo; as leituras de um sensor chegam em ordem
+        private synchronized void collectSince(long from, List<SensorData> out){
+            int capacity = timestamps.length;
+            for (int i = 0; i < size; i++){
+                int index = (head - 1 - i + capacity) % capacity;
+                if (timestamps[index] < from){
+                    break;
+                }
+
+                SensorData data = new SensorData();
+                data.setSensorId(key.sensorId());
+                data.setSensorType(sensorType);
+                data.setOwnerId(key.ownerId());
+                data.setValue(values[index]);
+                data.setUnit(units[index]);
+                data.setLocation(locations[index]);
+                data.setQuality(qualities[index]);
+                data.setTimestamp(fromEpochNanos(timestamps[index]));
+                out.add(data);
+            }
+        }
+
+        private void grow(int newCapacity){
+            long[] newTimestamps = new long[newCapacity];
+            double[] newValues = new double[newCapacity];
+            String[] newUnits = new String[newCapacity];
+            String[] newLocations = new String[newCapacity];
+            String[] newQualities = new String[newCapacity];
+
+            // Reorganiza do mais antigo para o mais novo a partir do índice 0
+            int oldest = (head - size + timestamps.length) % timestamps.length;
+            for (int i = 0; i < size; i++){
+                int index = (oldest + i) % timestamps.length;
+                newTimestamps[i] = timestamps[index];
+                newValues[i] = values[index];
+                newUnits[i] = units[index];
+                newLocations[i] = locations[index];
+                newQualities[i] = qualities[index];
+            }
+
+            timestamps = newTimestamps;
+            values = newValues;
+            units = newUnits;
+            locations = newLocations;
+            qualities = newQualities;
+            head = size % newCapacity;
+        }
+
+        private synchronized int size(){
+            return size;
+        }
+
+        private synchronized long newest(){
+            return size == 0 ? Long.MIN_VALUE : timestamps[(head - 1 + timestamps.length) % timestamps.length];
+        }
+
+        private synchronized long evictedUpTo(){
+            return evictedUpTo;
+        }
+    }
+}
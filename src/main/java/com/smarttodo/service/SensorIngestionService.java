@@ -0,0 +1,256 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.IoTProperties;
+import com.smarttodo.entity.SensorData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class SensorIngestionService implements SensorSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorIngestionService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sensor_data (sensor_id, sensor_type, sensor_value, unit, location, timestamp, quality, owner_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IoTProperties ioTProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<SensorData> queue;
+    private Thread flusher;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private Timer flushTimer;
+    private Counter flushedCounter;
+    private Counter rejectedCounter;
+    private Counter failedCounter;
+
+    private volatile int lastFlushSize;
+    private volatile LocalDateTime lastFlush;
+
+    @PostConstruct
+    public void start(){
+        IoTProperties.Ingestion config = ioTProperties.getIngestion();
+        queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+
+        Gauge.builder("smarttodo.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Leituras aguardando gravação em lote")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("smarttodo.ingestion.flush.latency")
+                .description("Tempo de gravação de cada lote de leituras")
+                .register(meterRegistry);
+        flushedCounter = Counter.builder("smarttodo.ingestion.readings.flushed").register(meterRegistry);
+        rejectedCounter = Counter.builder("smarttodo.ingestion.readings.rejected").register(meterRegistry);
+        failedCounter = Counter.builder("smarttodo.ingestion.readings.failed").register(meterRegistry);
+
+        running.set(true);
+        flusher = new Thread(this::runFlushLoop, "sensor-ingestion");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        logger.info("Pipeline de ingestão iniciado - capacidade: {}, lote: {}, intervalo: {}ms",
+                config.getQueueCapacity(), config.getBatchSize(), config.getFlushInterval());
+    }
+
+    @Override
+    public String getName(){
+        return "relational";
+    }
+
+    @Override
+    public boolean isEnabled(){
+        return ioTProperties.getIngestion().isEnabled();
+    }
+
+    @Override
+    public void write(SensorData sensorData){
+        submit(sensorData);
+    }
+
+    public boolean submit(SensorData sensorData){
+        if (sensorData.getSensorId() == null || sensorData.getValue() == null){
+            throw new IllegalArgumentException("Leitura sem sensor_id ou valor: " + sensorData.getSensorType());
+        }
+
+        if (running.get()){
+            try{
+                // Bloqueia o chamador (thread do MQTT) enquanto a fila estiver cheia, até o limite configurado
+                if (queue.offer(sensorData, ioTProperties.getIngestion().getOfferTimeout(), TimeUnit.MILLISECONDS)){
+                    return true;
+                }
+            } catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        rejectedCounter.increment();
+        logger.warn("Fila de ingestão cheia ou parada - leitura descartada: {} ({})",
+                sensorData.getSensorType(), sensorData.getSensorId());
+        return false;
+    }
+
+    private void runFlushLoop(){
+        IoTProperties.Ingestion config = ioTProperties.getIngestion();
+        int batchSize = Math.max(1, config.getBatchSize());
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushInterval());
+        List<SensorData> batch = new ArrayList<>(batchSize);
+
+        while (running.get() || !queue.isEmpty()){
+            try{
+                SensorData first = queue.poll(config.getFlushInterval(), TimeUnit.MILLISECONDS);
+                if (first == null){
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+
+                while (batch.size() < batchSize){
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || !running.get()){
+                        break;
+                    }
+
+                    SensorData next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null){
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e){
+                logger.debug("Thread de ingestão interrompida");
+            } catch (Exception e){
+                logger.error("Erro inesperado no pipeline de ingestão", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<SensorData> batch){
+        if (batch.isEmpty()){
+            return;
+        }
+
+        long start = System.nanoTime();
+        try{
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), this::bindReading);
+            flushedCounter.increment(batch.size());
+        } catch (DataAccessException e){
+            logger.warn("Falha ao gravar lote de {} leituras, gravando individualmente", batch.size(), e);
+            flushIndividually(batch);
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            lastFlushSize = batch.size();
+            lastFlush = LocalDateTime.now();
+        }
+    }
+
+    private void flushIndividually(List<SensorData> batch){
+        for (SensorData sensorData : batch){
+            try{
+                jdbcTemplate.update(INSERT_SQL, ps -> bindReading(ps, sensorData));
+                flushedCounter.increment();
+            } catch (DataAccessException e){
+                failedCounter.increment();
+                logger.error("Leitura descartada: {} ({})", sensorData.getSensorType(), sensorData.getSensorId(), e);
+            }
+        }
+    }
+
+    private void bindReading(PreparedStatement ps, SensorData sensorData) throws SQLException {
+        LocalDateTime timestamp = sensorData.getTimestamp() != null ? sensorData.getTimestamp() : LocalDateTime.now();
+
+        ps.setString(1, sensorData.getSensorId());
+        ps.setString(2, sensorData.getSensorType());
+        ps.setDouble(3, sensorData.getValue());
+        setNullableString(ps, 4, sensorData.getUnit());
+        setNullableString(ps, 5, sensorData.getLocation());
+        ps.setTimestamp(6, Timestamp.valueOf(timestamp));
+        setNullableString(ps, 7, sensorData.getQuality());
+        ps.setString(8, UserContextRegistry.normalize(sensorData.getOwnerId()));
+    }
+
+    private void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null){
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> status = new HashMap<>();
+        status.put("running", running.get());
+        status.put("queueDepth", queue.size());
+        status.put("queueCapacity", ioTProperties.getIngestion().getQueueCapacity());
+        status.put("flushedReadings", (long) flushedCounter.count());
+        status.put("rejectedReadings", (long) rejectedCounter.count());
+        status.put("failedReadings", (long) failedCounter.count());
+        status.put("flushCount", flushTimer.count());
+        status.put("meanFlushMillis", flushTimer.mean(TimeUnit.MILLISECONDS));
+        status.put("maxFlushMillis", flushTimer.max(TimeUnit.MILLISECONDS));
+        status.put("lastFlushSize", lastFlushSize);
+        status.put("lastFlush", lastFlush);
+        return status;
+    }
+
+    public int getQueueDepth(){
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        if (!running.compareAndSet(true, false)){
+            return;
+        }
+
+        logger.info("Encerrando pipeline de ingestão - {} leituras pendentes", queue.size());
+        try{
+            flusher.join(ioTProperties.getIngestion().getShutdownTimeout());
+        } catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+
+        // Garante que nada enfileirado durante o encerramento fique para trás
+        List<SensorData> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+
+        logger.info("Pipeline de ingestão encerrado");
+    }
+}
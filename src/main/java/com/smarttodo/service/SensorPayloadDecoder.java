@@ -0,0 +1,163 @@
+package com.smarttodo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+@Component
+public class SensorPayloadDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public SensorPayloadDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    public SensorReading decodeSensor(String payload) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            expectObject(parser);
+
+            String sensorId = null;
+            Double value = null;
+            String unit = null;
+            String location = null;
+            String quality = null;
+            LocalDateTime timestamp = null;
+            String userId = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+
+                switch (field) {
+                    case "sensor_id" -> sensorId = readText(parser, token);
+                    case "value" -> value = readDouble(parser, token);
+                    case "unit" -> unit = readText(parser, token);
+                    case "location" -> location = readText(parser, token);
+                    case "quality" -> quality = readText(parser, token);
+                    case "timestamp" -> timestamp = readTimestamp(parser, token);
+                    case "user_id" -> userId = readText(parser, token);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            return new SensorReading(sensorId, value, unit, location, quality, timestamp, userId);
+        }
+    }
+
+    public LocationUpdate decodeLocation(String payload) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            expectObject(parser);
+
+            String location = null;
+            Double confidence = null;
+            String userId = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+
+                switch (field) {
+                    case "location" -> location = readText(parser, token);
+                    case "confidence" -> confidence = readDouble(parser, token);
+                    case "user_id" -> userId = readText(parser, token);
+                    default -> parser.skipChildren();
+                }
+            }
+
+            return new LocationUpdate(location, confidence, userId);
+        }
+    }
+
+    private void expectObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Payload deve ser um objeto JSON");
+        }
+    }
+
+    private String readText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) return null;
+        if (token.isScalarValue()) return parser.getText();
+
+        parser.skipChildren();
+        return null;
+    }
+
+    private Double readDouble(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Double.parseDouble(parser.getText());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        parser.skipChildren();
+        return null;
+    }
+
+    private LocalDateTime readTimestamp(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return null;
+        }
+
+        return parseTimestamp(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+
+    // Caminho rápido para o formato ISO enviado pelos sensores (yyyy-MM-ddTHH:mm:ss[.fração]),
+    // lido direto do buffer do parser; qualquer outra variação cai no LocalDateTime.parse
+    static LocalDateTime parseTimestamp(char[] buf, int off, int len) {
+        if (len >= 19 && buf[off + 4] == '-' && buf[off + 7] == '-' && buf[off + 10] == 'T'
+                && buf[off + 13] == ':' && buf[off + 16] == ':') {
+
+            int year = digits(buf, off, 4);
+            int month = digits(buf, off + 5, 2);
+            int day = digits(buf, off + 8, 2);
+            int hour = digits(buf, off + 11, 2);
+            int minute = digits(buf, off + 14, 2);
+            int second = digits(buf, off + 17, 2);
+            int nano = fraction(buf, off + 19, off + len);
+
+            if ((year | month | day | hour | minute | second | nano) >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+            }
+        }
+
+        return LocalDateTime.parse(new String(buf, off, len));
+    }
+
+    private static int digits(char[] buf, int off, int count) {
+        int result = 0;
+        for (int i = off; i < off + count; i++) {
+            int digit = buf[i] - '0';
+            if (digit < 0 || digit > 9) return -1;
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static int fraction(char[] buf, int pos, int end) {
+        if (pos == end) return 0;
+        if (buf[pos] != '.' || end - pos < 2 || end - pos > 10) return -1;
+
+        int nano = 0;
+        int scale = 100_000_000;
+        for (int i = pos + 1; i < end; i++) {
+            int digit = buf[i] - '0';
+            if (digit < 0 || digit > 9) return -1;
+            nano += digit * scale;
+            scale /= 10;
+        }
+        return nano;
+    }
+}
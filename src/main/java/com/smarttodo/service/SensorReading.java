@@ -0,0 +1,13 @@
+package com.smarttodo.service;
+
+import java.time.LocalDateTime;
+
+public record SensorReading(
+        String sensorId,
+        Double value,
+        String unit,
+        String location,
+        String quality,
+        LocalDateTime timestamp,
+        String userId
+) {}
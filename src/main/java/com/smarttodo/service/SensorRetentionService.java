@@ -0,0 +1,309 @@
+package com.smarttodo.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.smarttodo.config.IoTProperties;
+import com.smarttodo.entity.SensorData;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class SensorRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorRetentionService.class);
+
+    private static final String SELECT_CHUNK_SQL =
+            "SELECT id, sensor_id, sensor_type, sensor_value, unit, location, timestamp, quality, owner_id FROM sensor_data " +
+            "WHERE timestamp >= ? AND timestamp < ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String DELETE_CHUNK_SQL =
+            "DELETE FROM sensor_data WHERE timestamp >= ? AND timestamp < ? AND id > ? AND id <= ?";
+
+    private static final String CHUNK_SUFFIX = ".ndjson.gz";
+
+    static final Comparator<SensorData> NEWEST_FIRST =
+            Comparator.comparing(SensorData::getTimestamp).thenComparing(SensorData::getId).reversed();
+
+    static final RowMapper<SensorData> ROW_MAPPER = (rs, rowNum) -> {
+        SensorData data = new SensorData();
+        data.setId(rs.getLong("id"));
+        data.setSensorId(rs.getString("sensor_id"));
+        data.setSensorType(rs.getString("sensor_type"));
+        data.setValue(rs.getDouble("sensor_value"));
+        data.setUnit(rs.getString("unit"));
+        data.setLocation(rs.getString("location"));
+        Timestamp timestamp = rs.getTimestamp("timestamp");
+        data.setTimestamp(timestamp != null ? timestamp.toLocalDateTime() : null);
+        data.setQuality(rs.getString("quality"));
+        data.setOwnerId(rs.getString("owner_id"));
+        return data;
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IoTProperties ioTProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private Counter archivedCounter;
+    private Counter chunkCounter;
+
+    private volatile LocalDateTime lastRun;
+    private volatile LocalDateTime lastCutoff;
+    private volatile long lastRunArchived;
+
+    @PostConstruct
+    public void initialize(){
+        archivedCounter = Counter.builder("smarttodo.retention.readings.archived").register(meterRegistry);
+        chunkCounter = Counter.builder("smarttodo.retention.chunks.archived").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${smarttodo.iot.retention.interval:3600000}",
+            fixedDelayString = "${smarttodo.iot.retention.interval:3600000}")
+    public void scheduledPurge(){
+        if (ioTProperties.getRetention().isEnabled()){
+            purge();
+        }
+    }
+
+    // A janela viva termina na meia-noite de (hoje - liveDays): cada dia expirado vira um diretório de arquivo completo
+    public long purge(){
+        LocalDateTime cutoff = LocalDate.now().minusDays(ioTProperties.getRetention().getLiveDays()).atStartOfDay();
+        return purgeBefore(cutoff);
+    }
+
+    public long purgeBefore(LocalDateTime cutoff){
+        if (!running.compareAndSet(false, true)){
+            logger.debug("Retenção já em execução, ignorando");
+            return 0;
+        }
+
+        long archived = 0;
+        try{
+            Timestamp oldest = jdbcTemplate.queryForObject(
+                    "SELECT MIN(timestamp) FROM sensor_data WHERE timestamp < ?", Timestamp.class, Timestamp.valueOf(cutoff));
+
+            if (oldest != null){
+                LocalDate day = oldest.toLocalDateTime().toLocalDate();
+                while (day.atStartOfDay().isBefore(cutoff)){
+                    LocalDateTime end = day.plusDays(1).atStartOfDay();
+                    archived += archiveDay(day, day.atStartOfDay(), end.isBefore(cutoff) ? end : cutoff);
+                    day = day.plusDays(1);
+                }
+            }
+
+            lastCutoff = cutoff;
+            lastRunArchived = archived;
+            if (archived > 0){
+                logger.info("Retenção: {} leituras anteriores a {} arquivadas em {}",
+                        archived, cutoff, ioTProperties.getRetention().getArchiveDirectory());
+            }
+        } finally {
+            lastRun = LocalDateTime.now();
+            running.set(false);
+        }
+        return archived;
+    }
+
+    private long archiveDay(LocalDate day, LocalDateTime from, LocalDateTime until){
+        int chunkSize = Math.max(1, ioTProperties.getRetention().getChunkSize());
+        Timestamp fromTs = Timestamp.valueOf(from);
+        Timestamp untilTs = Timestamp.valueOf(until);
+
+        long archived = 0;
+        long lastId = 0;
+        while (true){
+            long afterId = lastId;
+            // Cada chunk é gravado no disco antes do DELETE, na mesma transação: se o arquivo falhar nada é apagado
+            long[] chunkResult = transactionTemplate.execute(status -> {
+                List<SensorData> chunk = jdbcTemplate.query(SELECT_CHUNK_SQL, ROW_MAPPER, fromTs, untilTs, afterId, chunkSize);
+                if (chunk.isEmpty()){
+                    return null;
+                }
+
+                long maxId = chunk.get(chunk.size() - 1).getId();
+                writeChunk(day, chunk.get(0).getId(), chunk);
+                jdbcTemplate.update(DELETE_CHUNK_SQL, fromTs, untilTs, afterId, maxId);
+                return new long[]{maxId, chunk.size()};
+            });
+
+            if (chunkResult == null){
+                return archived;
+            }
+
+            archivedCounter.increment(chunkResult[1]);
+            chunkCounter.increment();
+            archived += chunkResult[1];
+            lastId = chunkResult[0];
+        }
+    }
+
+    // O nome do arquivo vem do primeiro id do chunk: uma execução repetida após falha sobrescreve em vez de duplicar
+    private void writeChunk(LocalDate day, long firstId, List<SensorData> chunk){
+        try{
+            Path dayDirectory = archiveRoot().resolve(day.toString());
+            Files.createDirectories(dayDirectory);
+
+            Path target = dayDirectory.resolve(String.format("chunk-%019d%s", firstId, CHUNK_SUFFIX));
+            Path temp = dayDirectory.resolve(target.getFileName() + ".tmp");
+
+            // NDJSON comprimido: uma leitura por linha, lido de volta em streaming por findArchived
+            try (OutputStream out = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp)));
+                 SequenceWriter writer = objectMapper.writerFor(SensorData.class)
+                         .withRootValueSeparator("\n").writeValues(out)){
+                writer.writeAll(chunk);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e){
+            throw new UncheckedIOException("Falha ao arquivar leituras de " + day, e);
+        }
+    }
+
+    // ownerId e sensorType null = sem filtro
+    public List<SensorData> findArchived(String ownerId, String sensorType, LocalDateTime since, LocalDateTime until){
+        List<SensorData> result = new ArrayList<>();
+        forEachArchived(ownerId, sensorType, since, until, result::add);
+        return result;
+    }
+
+    // Percorre os arquivos do dia mais novo para o mais antigo, em ordem (timestamp, id) decrescente.
+    // Só um dia fica em memória por vez; o visitor devolve false para interromper a leitura
+    public boolean forEachArchived(String ownerId, String sensorType, LocalDateTime since, LocalDateTime until,
+                                   Predicate<SensorData> visitor){
+        String owner = ownerId != null ? UserContextRegistry.normalize(ownerId) : null;
+        for (Path dayDirectory : archivedDays(since.toLocalDate(), until.toLocalDate())){
+            List<SensorData> day = new ArrayList<>();
+            try (DirectoryStream<Path> chunks = Files.newDirectoryStream(dayDirectory, "*" + CHUNK_SUFFIX)){
+                for (Path chunk : chunks){
+                    readChunk(chunk, owner, sensorType, since, until, day);
+                }
+            } catch (IOException e){
+                throw new UncheckedIOException("Falha ao ler arquivo de " + dayDirectory, e);
+            }
+
+            day.sort(NEWEST_FIRST);
+            for (SensorData data : day){
+                if (!visitor.test(data)){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void readChunk(Path chunk, String owner, String sensorType, LocalDateTime since, LocalDateTime until, List<SensorData> out) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(chunk));
+             MappingIterator<SensorData> readings = objectMapper.readerFor(SensorData.class).readValues(in)){
+            while (readings.hasNext()){
+                SensorData data = readings.next();
+                LocalDateTime timestamp = data.getTimestamp();
+                if ((sensorType == null || sensorType.equals(data.getSensorType()))
+                        && (owner == null || owner.equals(data.getOwnerId()))
+                        && !timestamp.isBefore(since) && timestamp.isBefore(until)){
+                    out.add(data);
+                }
+            }
+        }
+    }
+
+    private List<Path> archivedDays(LocalDate from, LocalDate to){
+        Path root = archiveRoot();
+        List<Path> days = new ArrayList<>();
+        if (!Files.isDirectory(root)){
+            return days;
+        }
+
+        try (DirectoryStream<Path> directories = Files.newDirectoryStream(root, Files::isDirectory)){
+            for (Path directory : directories){
+                LocalDate day = parseDay(directory.getFileName().toString());
+                if (day != null && !day.isBefore(from) && !day.isAfter(to)){
+                    days.add(directory);
+                }
+            }
+            days.sort(Comparator.comparing(Path::getFileName).reversed());
+        } catch (IOException e){
+            throw new UncheckedIOException("Falha ao listar arquivos de retenção", e);
+        }
+        return days;
+    }
+
+    public LocalDate getOldestArchivedDay(){
+        List<Path> days = archivedDays(LocalDate.MIN, LocalDate.MAX);
+        return days.stream()
+                .map(path -> parseDay(path.getFileName().toString()))
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    private LocalDate parseDay(String name){
+        try{
+            return LocalDate.parse(name);
+        } catch (Exception e){
+            return null;
+        }
+    }
+
+    private Path archiveRoot(){
+        return Paths.get(ioTProperties.getRetention().getArchiveDirectory());
+    }
+
+    public Map<String, Object> getStatus(){
+        IoTProperties.Retention config = ioTProperties.getRetention();
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", config.isEnabled());
+        status.put("liveDays", config.getLiveDays());
+        status.put("chunkSize", config.getChunkSize());
+        status.put("archiveDirectory", archiveRoot().toAbsolutePath().toString());
+        status.put("oldestArchivedDay", getOldestArchivedDay());
+        status.put("archivedReadings", (long) archivedCounter.count());
+        status.put("archivedChunks", (long) chunkCounter.count());
+        status.put("lastRun", lastRun);
+        status.put("lastCutoff", lastCutoff);
+        status.put("lastRunArchived", lastRunArchived);
+        return status;
+    }
+}
@@ -0,0 +1,230 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.SensorData;
+import com.smarttodo.entity.SensorRollup;
+import com.smarttodo.repository.SensorRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class SensorRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorRollupService.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE sensor_rollup SET reading_count = reading_count + ?, sum_value = sum_value + ?, " +
+            "min_value = LEAST(min_value, ?), max_value = GREATEST(max_value, ?), " +
+            "last_value = CASE WHEN last_timestamp <= ? THEN ? ELSE last_value END, " +
+            "last_timestamp = GREATEST(last_timestamp, ?) " +
+            "WHERE sensor_type = ? AND resolution = ? AND bucket_start = ? AND location = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sensor_rollup (sensor_type, location, resolution, bucket_start, reading_count, " +
+            "min_value, max_value, sum_value, last_value, last_timestamp) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SensorRollupRepository sensorRollupRepository;
+
+    // Deltas ainda não gravados, por bucket
+    private final Map<RollupKey, Accumulator> pending = new ConcurrentHashMap<>();
+
+    public void record(SensorData sensorData){
+        if (sensorData.getSensorType() == null || sensorData.getValue() == null){
+            return;
+        }
+
+        String location = sensorData.getLocation() != null ? sensorData.getLocation() : "unknown";
+        LocalDateTime timestamp = sensorData.getTimestamp() != null ? sensorData.getTimestamp() : LocalDateTime.now();
+        double value = sensorData.getValue();
+
+        for (RollupResolution resolution : RollupResolution.values()){
+            RollupKey key = new RollupKey(sensorData.getSensorType(), location, resolution, resolution.bucketStart(timestamp));
+            pending.compute(key, (k, accumulator) -> {
+                if (accumulator == null) accumulator = new Accumulator();
+                accumulator.add(value, timestamp);
+                return accumulator;
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${smarttodo.iot.rollups.flush-interval:10000}")
+    public void flush(){
+        List<Map.Entry<RollupKey, Accumulator>> drained = new ArrayList<>();
+        for (RollupKey key : pending.keySet()){
+            Accumulator accumulator = pending.remove(key);
+            if (accumulator != null){
+                drained.add(Map.entry(key, accumulator));
+            }
+        }
+
+        if (drained.isEmpty()){
+            return;
+        }
+
+        try{
+            int[][] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, drained, drained.size(), (ps, entry) -> {
+                RollupKey key = entry.getKey();
+                Accumulator delta = entry.getValue();
+                Timestamp lastTimestamp = Timestamp.valueOf(delta.lastTimestamp);
+
+                ps.setLong(1, delta.count);
+                ps.setDouble(2, delta.sum);
+                ps.setDouble(3, delta.min);
+                ps.setDouble(4, delta.max);
+                ps.setTimestamp(5, lastTimestamp);
+                ps.setDouble(6, delta.last);
+                ps.setTimestamp(7, lastTimestamp);
+                ps.setString(8, key.sensorType());
+                ps.setString(9, key.resolution().getCode());
+                ps.setTimestamp(10, Timestamp.valueOf(key.bucketStart()));
+                ps.setString(11, key.location());
+            });
+
+            List<Map.Entry<RollupKey, Accumulator>> missing = new ArrayList<>();
+            for (int i = 0; i < drained.size(); i++){
+                if (updated[0][i] == 0){
+                    missing.add(drained.get(i));
+                }
+            }
+
+            for (Map.Entry<RollupKey, Accumulator> entry : missing){
+                insert(entry.getKey(), entry.getValue());
+            }
+
+            logger.debug("Rollups gravados: {} buckets atualizados, {} criados", drained.size() - missing.size(), missing.size());
+        } catch (DataAccessException e){
+            logger.error("Erro ao gravar rollups, {} buckets voltam para a fila", drained.size(), e);
+            drained.forEach(entry -> restore(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private void insert(RollupKey key, Accumulator delta){
+        try{
+            jdbcTemplate.update(INSERT_SQL, key.sensorType(), key.location(), key.resolution().getCode(),
+                    Timestamp.valueOf(key.bucketStart()), delta.count, delta.min, delta.max, delta.sum,
+                    delta.last, Timestamp.valueOf(delta.lastTimestamp));
+        } catch (DuplicateKeyException e){
+            // Outro flush criou o bucket no meio tempo; o delta entra no próximo ciclo como update
+            restore(key, delta);
+        }
+    }
+
+    private void restore(RollupKey key, Accumulator delta){
+        pending.merge(key, delta, Accumulator::combine);
+    }
+
+    public List<Map<String, Object>> getRollup(String sensorType, RollupResolution resolution, LocalDateTime since, String location){
+        LocalDateTime from = resolution.bucketStart(since);
+        List<SensorRollup> rows = location == null
+                ? sensorRollupRepository.findBuckets(sensorType, resolution.getCode(), from)
+                : sensorRollupRepository.findBuckets(sensorType, resolution.getCode(), location, from);
+
+        TreeMap<LocalDateTime, Accumulator> buckets = new TreeMap<>();
+        for (SensorRollup row : rows){
+            buckets.merge(row.getBucketStart(), Accumulator.of(row), Accumulator::combine);
+        }
+
+        // Soma o que ainda está em memória para o gráfico não ficar atrasado um ciclo de flush
+        for (RollupKey key : pending.keySet()){
+            if (key.resolution() == resolution && key.sensorType().equals(sensorType)
+                    && !key.bucketStart().isBefore(from)
+                    && (location == null || key.location().equals(location))){
+                Accumulator[] snapshot = new Accumulator[1];
+                pending.computeIfPresent(key, (k, accumulator) -> {
+                    snapshot[0] = accumulator.copy();
+                    return accumulator;
+                });
+                if (snapshot[0] != null){
+                    buckets.merge(key.bucketStart(), snapshot[0], Accumulator::combine);
+                }
+            }
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(buckets.size());
+        buckets.forEach((bucketStart, accumulator) -> {
+            Map<String, Object> bucket = new HashMap<>();
+            bucket.put("bucketStart", bucketStart);
+            bucket.put("count", accumulator.count);
+            bucket.put("min", accumulator.min);
+            bucket.put("max", accumulator.max);
+            bucket.put("avg", accumulator.sum / accumulator.count);
+            bucket.put("last", accumulator.last);
+            bucket.put("lastTimestamp", accumulator.lastTimestamp);
+            result.add(bucket);
+        });
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        flush();
+    }
+
+    private record RollupKey(String sensorType, String location, RollupResolution resolution, LocalDateTime bucketStart) {}
+
+    private static final class Accumulator {
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+        private double last;
+        private LocalDateTime lastTimestamp;
+
+        private static Accumulator of(SensorRollup row){
+            Accumulator accumulator = new Accumulator();
+            accumulator.count = row.getCount();
+            accumulator.sum = row.getSum();
+            accumulator.min = row.getMin();
+            accumulator.max = row.getMax();
+            accumulator.last = row.getLast();
+            accumulator.lastTimestamp = row.getLastTimestamp();
+            return accumulator;
+        }
+
+        private void add(double value, LocalDateTime timestamp){
+            count++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            if (lastTimestamp == null || !timestamp.isBefore(lastTimestamp)){
+                last = value;
+                lastTimestamp = timestamp;
+            }
+        }
+
+        private Accumulator combine(Accumulator other){
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            if (lastTimestamp == null || (other.lastTimestamp != null && !other.lastTimestamp.isBefore(lastTimestamp))){
+                last = other.last;
+                lastTimestamp = other.lastTimestamp;
+            }
+            return this;
+        }
+
+        private Accumulator copy(){
+            return new Accumulator().combine(this);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.SensorData;
+
+public interface SensorSink {
+
+    String getName();
+
+    boolean isEnabled();
+
+    void write(SensorData sensorData);
+}
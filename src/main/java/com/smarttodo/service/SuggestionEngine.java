@@ -0,0 +1,325 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.ScoringProperties;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class SuggestionEngine implements TaskIndexListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionEngine.class);
+
+    // Tamanho do ranking mantido por humor; pedidos maiores recalculam com o k pedido
+    static final int RANKING_SIZE = 20;
+
+    // O ajuste por prazo depende do relógio, então o ranking é refeito de tempos em tempos mesmo sem mudanças
+    private static final long RANKING_TTL_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    @Autowired
+    private TaskScoringIndex taskScoringIndex;
+
+    @Autowired
+    private TaskScorer taskScorer;
+
+    @Autowired
+    private MoodAnalysisService moodAnalysisService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private ScoringProperties scoringProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // usuário -> humor -> ranking, criado no primeiro pedido do usuário; LRU até rankingUsers usuários.
+    // Um usuário descartado só recalcula os rankings no próximo pedido
+    private final LinkedHashMap<String, Map<String, MoodRanking>> rankings = new LinkedHashMap<>(16, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<String, MoodRanking>> eldest){
+            boolean evict = size() > scoringProperties.getRankingUsers();
+            if (evict){
+                evictionCounter.increment();
+            }
+            return evict;
+        }
+    };
+
+    private Counter hitCounter;
+    private Counter recomputeCounter;
+    private Counter incrementalCounter;
+    private Counter evictionCounter;
+
+    @PostConstruct
+    public void initialize(){
+        hitCounter = Counter.builder("smarttodo.suggestions.ranking.hits").register(meterRegistry);
+        recomputeCounter = Counter.builder("smarttodo.suggestions.ranking.recomputes").register(meterRegistry);
+        incrementalCounter = Counter.builder("smarttodo.suggestions.ranking.incremental").register(meterRegistry);
+        evictionCounter = Counter.builder("smarttodo.suggestions.ranking.evictions").register(meterRegistry);
+
+        Map<String, MoodRanking> defaultRankings = rankingsFor(UserContextRegistry.DEFAULT_USER);
+        defaultRankings.forEach((mood, ranking) -> {
+            synchronized (ranking){
+                recompute(ranking, UserContextRegistry.DEFAULT_USER, mood, RANKING_SIZE);
+            }
+        });
+        taskScoringIndex.addListener(this);
+        logger.info("Rankings de sugestões calculados para {} humores", defaultRankings.size());
+    }
+
+    public List<Todo> getSuggestions(String mood, int maxSuggestions){
+        return getSuggestions(UserContextRegistry.DEFAULT_USER, mood, maxSuggestions);
+    }
+
+    public List<Todo> getSuggestions(String owner, String mood, int maxSuggestions){
+        if (maxSuggestions <= 0){
+            return new ArrayList<>();
+        }
+
+        MoodRanking ranking = rankingsFor(owner).get(mood);
+        if (ranking == null){
+            // Humor fora da lista: calcula na hora, sem guardar
+            return hydrate(selectTop(owner, mood, maxSuggestions, Double.NEGATIVE_INFINITY));
+        }
+
+        Ranked top;
+        synchronized (ranking){
+            if (ranking.stale || System.nanoTime() - ranking.computedAt > RANKING_TTL_NANOS
+                    || (!ranking.complete && maxSuggestions > ranking.size)){
+                recompute(ranking, owner, mood, Math.max(RANKING_SIZE, maxSuggestions));
+            } else {
+                hitCounter.increment();
+            }
+
+            int count = Math.min(maxSuggestions, ranking.size);
+            top = new Ranked(Arrays.copyOf(ranking.ids, count), Arrays.copyOf(ranking.scores, count), count);
+        }
+        return hydrate(top);
+    }
+
+    // Seleção top-k direto do índice, para quem precisa de um corte ou limite próprio
+    Ranked selectTop(String mood, int k, double minScore){
+        return selectTop(UserContextRegistry.DEFAULT_USER, mood, k, minScore);
+    }
+
+    Ranked selectTop(String owner, String mood, int k, double minScore){
+        TaskScoringIndex.Scores scores = taskScorer.scoreTop(owner, mood, LocalDateTime.now(), k, minScore);
+        return Ranked.of(scores, scores.top);
+    }
+
+    private Map<String, MoodRanking> rankingsFor(String owner){
+        synchronized (rankings){
+            return rankings.computeIfAbsent(owner, key -> {
+                Map<String, MoodRanking> moods = new ConcurrentHashMap<>();
+                for (String mood : moodAnalysisService.getAllMoods()){
+                    moods.put(mood, new MoodRanking(RANKING_SIZE));
+                }
+                return moods;
+            });
+        }
+    }
+
+    @Override
+    public void taskChanged(String ownerId, long id){
+        // Só os rankings do dono da tarefa podem mudar
+        Map<String, MoodRanking> ownerRankings;
+        synchronized (rankings){
+            ownerRankings = rankings.get(ownerId);
+        }
+        if (ownerRankings == null){
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        ownerRankings.forEach((mood, ranking) -> {
+            double score = taskScoringIndex.scoreOne(id, mood, now);
+            synchronized (ranking){
+                ranking.remove(id);
+                if (!Double.isNaN(score)){
+                    ranking.offer(id, score);
+                }
+            }
+        });
+        incrementalCounter.increment();
+    }
+
+    @Override
+    public void indexRebuilt(){
+        List<Map<String, MoodRanking>> all;
+        synchronized (rankings){
+            all = new ArrayList<>(rankings.values());
+        }
+        all.forEach(ownerRankings -> ownerRankings.values().forEach(ranking -> {
+            synchronized (ranking){
+                ranking.stale = true;
+            }
+        }));
+    }
+
+    private void recompute(MoodRanking ranking, String owner, String mood, int capacity){
+        TaskScoringIndex.Scores scores = taskScorer.scoreTop(owner, mood, LocalDateTime.now(), capacity, Double.NEGATIVE_INFINITY);
+        int[] slots = scores.top;
+
+        ranking.reset(capacity);
+        for (int slot : slots){
+            ranking.ids[ranking.size] = scores.ids[slot];
+            ranking.scores[ranking.size] = scores.scores[slot];
+            ranking.size++;
+        }
+        ranking.complete = slots.length == scores.size;
+        ranking.computedAt = System.nanoTime();
+        ranking.stale = false;
+        recomputeCounter.increment();
+    }
+
+    // Carrega só as entidades do ranking, na ordem dele e já com o score calculado
+    List<Todo> hydrate(Ranked ranked){
+        if (ranked.count == 0){
+            return new ArrayList<>();
+        }
+
+        List<Long> ids = new ArrayList<>(ranked.count);
+        for (int i = 0; i < ranked.count; i++){
+            ids.add(ranked.ids[i]);
+        }
+
+        Map<Long, Todo> byId = new HashMap<>();
+        for (Todo task : todoRepository.findAllForScoring(ids)){
+            byId.put(task.getId(), task);
+        }
+
+        List<Todo> tasks = new ArrayList<>(ranked.count);
+        for (int i = 0; i < ranked.count; i++){
+            Todo task = byId.get(ranked.ids[i]);
+            if (task != null){
+                task.setMoodCompatibilityScore(ranked.scores[i]);
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> sizes = new HashMap<>();
+        rankingsFor(UserContextRegistry.DEFAULT_USER).forEach((mood, ranking) -> {
+            synchronized (ranking){
+                sizes.put(mood, Map.of("size", ranking.size, "complete", ranking.complete));
+            }
+        });
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("rankings", sizes);
+        synchronized (rankings){
+            status.put("users", rankings.size());
+        }
+        status.put("maxUsers", scoringProperties.getRankingUsers());
+        status.put("evictions", (long) evictionCounter.count());
+        status.put("hits", (long) hitCounter.count());
+        status.put("recomputes", (long) recomputeCounter.count());
+        status.put("incrementalUpdates", (long) incrementalCounter.count());
+        return status;
+    }
+
+    // Ids e scores em ordem de ranking
+    static final class Ranked {
+        final long[] ids;
+        final double[] scores;
+        final int count;
+
+        Ranked(long[] ids, double[] scores, int count){
+            this.ids = ids;
+            this.scores = scores;
+            this.count = count;
+        }
+
+        static Ranked of(TaskScoringIndex.Scores scores, int[] slots){
+            long[] ids = new long[slots.length];
+            double[] values = new double[slots.length];
+            for (int i = 0; i < slots.length; i++){
+                ids[i] = scores.ids[slots[i]];
+                values[i] = scores.scores[slots[i]];
+            }
+            return new Ranked(ids, values, slots.length);
+        }
+    }
+
+    // Invariante: ids[0..size) são exatamente as size melhores tarefas do humor.
+    // complete = o ranking contém todas as tarefas ativas (nenhuma ficou de fora do corte)
+    private static final class MoodRanking {
+        private long[] ids;
+        private double[] scores;
+        private int size;
+        private boolean complete;
+        private boolean stale;
+        private long computedAt;
+
+        // Nasce vencido: é calculado no primeiro pedido
+        private MoodRanking(int capacity){
+            reset(capacity);
+            stale = true;
+        }
+
+        private void reset(int capacity){
+            ids = new long[capacity];
+            scores = new double[capacity];
+            size = 0;
+        }
+
+        private void remove(long id){
+            for (int i = 0; i < size; i++){
+                if (ids[i] == id){
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    System.arraycopy(scores, i + 1, scores, i, size - i - 1);
+                    size--;
+                    return;
+                }
+            }
+        }
+
+        // Só entra se o ranking tem todas as tarefas ou se a tarefa supera a última posição conhecida;
+        // caso contrário ela pertence ao trecho fora do corte e o invariante continua valendo
+        private void offer(long id, double score){
+            if (!complete && (size == 0 || !TopKSelector.better(score, id, scores[size - 1], ids[size - 1]))){
+                return;
+            }
+
+            int position = size;
+            while (position > 0 && TopKSelector.better(score, id, scores[position - 1], ids[position - 1])){
+                position--;
+            }
+
+            if (size == ids.length){
+                if (position == size){
+                    complete = false;
+                    return;
+                }
+                complete = false;
+                size--;
+            }
+
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            System.arraycopy(scores, position, scores, position + 1, size - position);
+            ids[position] = id;
+            scores[position] = score;
+            size++;
+        }
+    }
+}
@@ -1,302 +1,288 @@
 package com.smarttodo.service;
 
 import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TaskCountGroup;
 import com.smarttodo.repository.TodoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class TaskAdjustmentService {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskAdjustmentService.class);
 
+    private static final int BATCH_SIZE = 500;
+
+    // suggested_order e last_mood_check só são escritos quando a passada define um valor (null mantém o atual)
+    private static final String UPDATE_SCORE_SQL =
+            "UPDATE todos SET mood_compatibility_score = ?, auto_adjusted = ?, last_mood_check = COALESCE(?, last_mood_check), " +
+            "suggested_order = COALESCE(?, suggested_order) WHERE id = ?";
+
+    private static final double SCORE_EPSILON = 1e-9;
+
     @Autowired
     private TodoRepository todoRepository;
 
     @Autowired
     private MoodAnalysisService moodAnalysisService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TodoCache todoCache;
+
+    @Autowired
+    private TaskStatistics taskStatistics;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskScoringIndex taskScoringIndex;
+
+    @Autowired
+    private SuggestionEngine suggestionEngine;
+
+    @Autowired
+    private TaskScorer taskScorer;
+
+    @Autowired
+    private ScoreLedger scoreLedger;
+
+    private final Map<String, AdjustmentReport> lastReports = new ConcurrentHashMap<>();
+
     public Map<String, Object> adjustTasksByMood(String currentMood){
-        logger.info("Ajustando tarefas para o humor: {}", currentMood);
+        return adjustTasksByMood(UserContextRegistry.DEFAULT_USER, currentMood);
+    }
+
+    // Cada passada trabalha só nas tarefas do usuário dono do humor/localização/sensor
+    public Map<String, Object> adjustTasksByMood(String userId, String currentMood){
+        logger.info("Ajustando tarefas de {} para o humor: {}", userId, currentMood);
+
+        long start = System.nanoTime();
+        // A passada de humor grava scores absolutos: primeiro os eventos pendentes do usuário viram checkpoint
+        scoreLedger.compact(userId);
 
-        List<Todo> activeTasks = todoRepository.findActiveTasks();
+        LocalDateTime now = LocalDateTime.now();
+        // Top 5 recomendações entre as com score acima de 0.7, selecionadas junto com a pontuação
+        TaskScoringIndex.Scores scores = taskScorer.scoreTop(userId, currentMood, now, 5, 0.7);
         Map<String, Object> adjustmentResult = new HashMap<>();
 
         int adjustmentCount = 0;
-        List<Todo> recommenedTasks = new ArrayList<>();
+        Map<Long, ScoreChange> changes = new LinkedHashMap<>();
 
-        for(Todo task : activeTasks){
-            double compatibilityScore = calculateMoodCompatibility(task, currentMood);
+        for (int i = 0; i < scores.size; i++){
+            double compatibilityScore = scores.scores[i];
+            double previousScore = scores.storedScores[i];
+            boolean autoAdjusted = scores.autoAdjusted[i];
 
-            task.setMoodCompatibilityScore(compatibilityScore);
-            task.setLastMoodCheck(LocalDateTime.now());
-
-            if(Math.abs(compatibilityScore - task.getMoodCompatibilityScore()) > 0.3){
-                task.setAutoAdjusted(true);
+            if(Math.abs(compatibilityScore - previousScore) > 0.3){
+                autoAdjusted = true;
                 adjustmentCount++;
             }
 
-            if (compatibilityScore > 0.7){
-                recommenedTasks.add(task);
+            if (Math.abs(compatibilityScore - previousScore) > SCORE_EPSILON || autoAdjusted != scores.autoAdjusted[i]){
+                changes.put(scores.ids[i], new ScoreChange(scores.ids[i], compatibilityScore, autoAdjusted, now));
             }
-
-            todoRepository.save(task);
         }
 
-        recommenedTasks = recommenedTasks.stream()
-                .sorted((t1, t2) -> Double.compare(t2.getMoodCompatibilityScore(), t1.getMoodCompatibilityScore()))
-                .limit(5)  // Top 5 recomendações
-                .collect(Collectors.toList());
+        int[] topSlots = scores.top;
+
+        updateSuggestedOrder(scores, topSlots, changes);
 
-        updateSuggestedOrder(recommenedTasks);
+        // Só as vencedoras viram entidades; o resto da passada trabalha nas colunas do índice
+        List<Todo> recommenedTasks = suggestionEngine.hydrate(SuggestionEngine.Ranked.of(scores, topSlots));
+        for (Todo task : recommenedTasks){
+            ScoreChange change = changes.get(task.getId());
+            if (change != null){
+                change.task = task;
+            }
+        }
 
+        AdjustmentReport report = applyChanges("mood", scores.size, changes.values(), start);
+
+        adjustmentResult.put("userId", userId);
         adjustmentResult.put("currentMood", currentMood);
         adjustmentResult.put("moodDescription", moodAnalysisService.getMoodDescription(currentMood));
-        adjustmentResult.put("totalTasks", activeTasks.size());
+        adjustmentResult.put("totalTasks", scores.size);
         adjustmentResult.put("adjustedTasks", adjustmentCount);
         adjustmentResult.put("recommendedTasks", recommenedTasks);
         adjustmentResult.put("adjustmentTime", LocalDateTime.now());
+        adjustmentResult.put("report", report.toMap());
 
-        logger.info("Ajuste concluido: {} tarefas analisadas, {} ajustadas, {} recomendadas",
-                activeTasks.size(), adjustmentCount, recommenedTasks.size());
+        logger.info("Ajuste concluido: {} tarefas analisadas, {} ajustadas, {} recomendadas, {} linhas gravadas",
+                scores.size, adjustmentCount, recommenedTasks.size(), report.rowsChanged());
 
         return adjustmentResult;
     }
 
-    private double calculateMoodCompatibility(Todo task, String currentMood){
-        double baseScore = 0.5;
-
-        if (task.getRequiredMood() != null){
-            if(task.getRequiredMood().equals(currentMood)){
-                baseScore += 0.4;
-            } else if (areCompatibleMoods(task.getRequiredMood(), currentMood)){
-                baseScore += 0.2;
-            }else {
-                baseScore -= 0.3;
+    private void updateSuggestedOrder(TaskScoringIndex.Scores scores, int[] topSlots, Map<Long, ScoreChange> changes){
+        for (int i = 0; i < topSlots.length; i++){
+            int slot = topSlots[i];
+            int order = i + 1;
+            ScoreChange change = changes.get(scores.ids[slot]);
+
+            if (change != null){
+                change.suggestedOrder = order;
+            } else if (scores.suggestedOrders[slot] != order){
+                // Score igual, só a posição mudou
+                ScoreChange orderOnly = new ScoreChange(scores.ids[slot], scores.storedScores[slot], scores.autoAdjusted[slot], null);
+                orderOnly.suggestedOrder = order;
+                changes.put(scores.ids[slot], orderOnly);
             }
         }
+    }
 
-        Integer cognitiveLoad = task.getCognitiveLoad();
-        if (cognitiveLoad != null) {
-            double cognitiveAdjustment = calculateCognitiveCompatibility(cognitiveLoad ,currentMood);
-            baseScore += cognitiveAdjustment;
-        }
-
-        baseScore += getPriorityAdjustment(task.getPriority(), currentMood);
-
-        if (task.getDueDate() != null){
-            baseScore += getTemporalAdjustment(task.getDueDate());
-        }
-
-        if(task.getOptimalEnvironment() != null){
-            baseScore += getEnvironmentAdjustment(task.getOptimalEnvironment(), currentMood);
+    // Grava só as linhas alteradas, em lotes JDBC dentro de uma única transação,
+    // e depois reflete os novos valores nas entidades devolvidas ao chamador
+    private AdjustmentReport applyChanges(String pass, int rowsExamined, Collection<ScoreChange> changes, long start){
+        int statements = 0;
+        if (!changes.isEmpty()){
+            List<ScoreChange> rows = new ArrayList<>(changes);
+            // auto_adjusted é gravado por JDBC, fora do TodoService: a diferença de cada linha vai para as estatísticas
+            statements = taskStatistics.tracking(() -> {
+                int[][] batches = transactionTemplate.execute(status ->
+                        jdbcTemplate.batchUpdate(UPDATE_SCORE_SQL, rows, BATCH_SIZE, (ps, change) -> {
+                            ps.setDouble(1, change.score);
+                            ps.setBoolean(2, change.autoAdjusted);
+                            ps.setTimestamp(3, change.lastMoodCheck != null ? Timestamp.valueOf(change.lastMoodCheck) : null);
+                            if (change.suggestedOrder != null){
+                                ps.setInt(4, change.suggestedOrder);
+                            } else {
+                                ps.setNull(4, Types.INTEGER);
+                            }
+                            ps.setLong(5, change.id);
+                        }));
+
+                for (ScoreChange change : rows){
+                    change.applyToEntity();
+                    TaskStatistics.Key previous =
+                            taskScoringIndex.applyAdjustment(change.id, change.score, change.autoAdjusted, change.suggestedOrder);
+                    if (previous != null){
+                        taskStatistics.changed(previous, previous.withAutoAdjusted(change.autoAdjusted));
+                    }
+                    scoreLedger.invalidate(change.id);
+                }
+                todoCache.evictEntities(rows.stream().map(change -> change.id).toList());
+                return batches != null ? batches.length : 0;
+            });
         }
 
-        return Math.max(0.0, Math.min(1.0, baseScore));
+        return report(pass, rowsExamined, changes.size(), statements, start);
     }
 
-    private boolean areCompatibleMoods(String requiredMood, String currentMood){
-        Map<String, List<String>> compatibilityMap = Map.of(
-                "focused", List.of("neutral", "creative"),
-                "energetic", List.of("creative", "focused"),
-                "creative", List.of("relaxed", "energetic", "focused"),
-                "relaxed", List.of("neutral", "creative"),
-                "tired", List.of("neutral"),
-                "stressed", List.of("relaxed"),
-                "neutral", List.of("focused", "relaxed", "creative")
-        );
-
-        return compatibilityMap.getOrDefault(requiredMood, List.of()).contains(currentMood);
+    // Ajustes relativos (ambiente, localização) não reescrevem a linha: cada delta vira um evento no ledger
+    private AdjustmentReport appendEvents(String pass, String cause, int rowsExamined, Map<Long, Double> deltas, long start){
+        ScoreLedger.Appended appended = scoreLedger.append(cause, deltas);
+        return report(pass, rowsExamined, appended.events(), appended.statements(), start);
     }
 
-    private double calculateCognitiveCompatibility(Integer cognitiveLoad, String currentMood) {
-        return switch (currentMood) {
-            case "focused" -> {
-                // Focado pode lidar com qualquer carga, mas prefere alta
-                yield cognitiveLoad >= 3 ? 0.3 : 0.1;
-            }
-            case "energetic" -> {
-                // Energético prefere carga média-alta
-                yield cognitiveLoad >= 3 ? 0.2 : cognitiveLoad == 2 ? 0.1 : -0.1;
-            }
-            case "creative" -> {
-                // Criativo prefere carga média
-                yield cognitiveLoad == 2 || cognitiveLoad == 3 ? 0.2 : 0.0;
-            }
-            case "relaxed" -> {
-                // Relaxado prefere carga baixa-média
-                yield cognitiveLoad <= 2 ? 0.2 : -0.2;
-            }
-            case "tired" -> {
-                // Cansado só para carga muito baixa
-                yield cognitiveLoad == 1 ? 0.1 : -0.3;
-            }
-            case "stressed" -> {
-                // Estressado prefere tarefas simples
-                yield cognitiveLoad <= 2 ? 0.1 : -0.4;
-            }
-            default -> 0.0;
-        };
-    }
-
-    private double getPriorityAdjustment(Todo.Priority priority, String currentMood){
-        if (priority == null) return 0.0;
+    private AdjustmentReport report(String pass, int rowsExamined, int rowsChanged, int statements, long start){
+        AdjustmentReport report = new AdjustmentReport(pass, rowsExamined, rowsChanged, statements,
+                (System.nanoTime() - start) / 1_000_000.0, LocalDateTime.now());
+        lastReports.put(pass, report);
 
-        return switch (priority){
-            case URGENT -> currentMood.equals("stressed") ? -0.1 : 0.2;
-            case HIGH -> currentMood.equals("focused") || currentMood.equals("energetic") ? 0.15 : 0.0;
-            case MEDIUM -> 0.05;
-            case LOW -> currentMood.equals("relaxed") || currentMood.equals("tired") ? 0.1 : -0.05;
-        };
+        meterRegistry.counter("smarttodo.adjustments.rows.examined", "pass", pass).increment(rowsExamined);
+        meterRegistry.counter("smarttodo.adjustments.rows.changed", "pass", pass).increment(rowsChanged);
+        meterRegistry.counter("smarttodo.adjustments.statements", "pass", pass).increment(statements);
+        return report;
     }
 
-    private double getTemporalAdjustment(LocalDateTime dueDate){
-        long hoursUntilDue = java.time.Duration.between(LocalDateTime.now(), dueDate).toHours();
-        if (hoursUntilDue < 0) return 0.5; // Tarefa atrasada - alta prioridade
-        if (hoursUntilDue <= 4) return 0.3; // Vence em até 4h
-        if (hoursUntilDue <= 24) return 0.1; // Vence hoje
-        if (hoursUntilDue <= 48) return 0.05; // Vence amanhã
-
-        return 0.0;
+    public Map<String, Object> getLastReports(){
+        Map<String, Object> reports = new HashMap<>();
+        lastReports.forEach((pass, report) -> reports.put(pass, report.toMap()));
+        return reports;
     }
 
-    private double getEnvironmentAdjustment(String optimalEnvironment, String currentMood){
-        return switch (optimalEnvironment){
-            case "quiet" -> currentMood.equals("focused") || currentMood.equals("creative") ? 0.1 : 0.0;
-            case "collaborative" -> currentMood.equals("energetic") ? 0.1 : currentMood.equals("tired") ? -0.2 : 0.0;
-            case "bright" -> currentMood.equals("energetic") ? 0.1 : 0.0;
-            default -> 0.0;
-        };
+    public List<Todo> getSmartSuggestions(String currentMood, int maxSuggestions){
+        return suggestionEngine.getSuggestions(currentMood, maxSuggestions);
     }
 
-    private void updateSuggestedOrder(List<Todo> recommendedTasks){
-        for (int i = 0; i < recommendedTasks.size(); i++){
-            recommendedTasks.get(i).setSuggestedOrder(i + 1);
-            todoRepository.save(recommendedTasks.get(i));
-        }
+    public List<Todo> getSmartSuggestions(String userId, String currentMood, int maxSuggestions){
+        return suggestionEngine.getSuggestions(userId, currentMood, maxSuggestions);
     }
 
-    public List<Todo> getSmartSuggestions(String currentMood, int maxSuggestions){
-        List<Todo> allTasks = todoRepository.findActiveTasks();
-
-
-        return allTasks.stream()
-                .peek(task -> {
-                    double score = calculateMoodCompatibility(task, currentMood);
-                    task.setMoodCompatibilityScore(score);
-                })
-                .sorted((t1, t2) -> Double.compare(
-                        t2.getMoodCompatibilityScore(),
-                        t1.getMoodCompatibilityScore()
-                ))
-                .limit(maxSuggestions)
-                .collect(Collectors.toList());
+    public int resetAutoAdjustment(){
+        return resetAutoAdjustment(UserContextRegistry.DEFAULT_USER);
     }
 
-    public void resetAutoAdjustment(){
-        List<Todo> autoAdjustedTasks = todoRepository.findAll()
-                .stream()
-                .filter(todo -> Boolean.TRUE.equals(todo.getAutoAdjusted()))
-                .collect(Collectors.toList());
+    // O decaimento já acontece na leitura; o reset persistido fica para quando é preciso zerar de fato
+    public int resetAutoAdjustment(String userId){
+        String owner = UserContextRegistry.normalize(userId);
+        // Eventos pendentes também são ajustes automáticos: entram no checkpoint antes do reset
+        scoreLedger.compact(owner);
 
-        autoAdjustedTasks.forEach(task -> {
-            task.setAutoAdjusted(false);
-            task.setMoodCompatibilityScore(0.0);
-            task.setSuggestedOrder(0);
+        int reset = taskStatistics.tracking(() -> {
+            List<TaskCountGroup> groups = todoRepository.countAutoAdjustedGroups(owner);
+            if (groups.isEmpty()){
+                return 0;
+            }
+            List<Long> ids = todoRepository.findAutoAdjustedIds(owner);
+            int updated = todoRepository.resetAutoAdjusted(owner);
+
+            // O UPDATE em massa não passa pelas entidades: índice, caches e estatísticas só das tarefas do usuário
+            for (TaskCountGroup group : groups){
+                TaskStatistics.Key previous = TaskStatistics.Key.of(group);
+                taskStatistics.changed(previous, previous.withAutoAdjusted(false), group.count());
+            }
+            for (Long id : ids){
+                taskScoringIndex.applyAdjustment(id, 0.0, false, 0);
+                scoreLedger.invalidate(id);
+            }
+            todoCache.evictEntities(ids);
+            return updated;
         });
+        logger.info("Reset realizado em {} tarefas de {}", reset, owner);
+        return reset;
+    }
 
-        todoRepository.saveAll(autoAdjustedTasks);
-        logger.info("Reset realizado em {} tarefas", autoAdjustedTasks.size());
+    public AdjustmentReport adjustForEnvironmentalCondition(String conditionType, Double value) {
+        return adjustForEnvironmentalCondition(UserContextRegistry.DEFAULT_USER, conditionType, value);
     }
 
-    public void adjustForEnvironmentalCondition(String conditionType, Double value) {
-        List<Todo> activeTasks = todoRepository.findActiveTasks();
+    public AdjustmentReport adjustForEnvironmentalCondition(String userId, String conditionType, Double value) {
+        long start = System.nanoTime();
+        ScoringRules rules = taskScoringIndex.getRules();
+        List<Todo> activeTasks = todoRepository.findActiveTasksForScoring(userId);
+        Map<Long, Double> deltas = new LinkedHashMap<>();
 
         for (Todo task : activeTasks) {
-            double adjustment = calculateEnvironmentalAdjustment(task, conditionType, value);
+            double adjustment = rules.conditionAdjustment(task, conditionType);
 
             if (Math.abs(adjustment) > 0.1) {
-                Double currentScore = task.getMoodCompatibilityScore() != null ? task.getMoodCompatibilityScore() : 0.5;
-                task.setMoodCompatibilityScore(Math.max(0.0, Math.min(1.0, currentScore + adjustment)));
-                task.setAutoAdjusted(true);
-                task.setLastMoodCheck(LocalDateTime.now());
-
-                todoRepository.save(task);
+                deltas.put(task.getId(), adjustment);
             }
         }
 
-        logger.info("Ajuste ambiental aplicado: {} (valor: {})", conditionType, value);
+        AdjustmentReport report = appendEvents("environment", "environment:" + conditionType, activeTasks.size(), deltas, start);
+        logger.info("Ajuste ambiental aplicado para {}: {} (valor: {}) - {} de {} tarefas alteradas em {} statements",
+                userId, conditionType, value, report.rowsChanged(), report.rowsExamined(), report.statementsIssued());
+        return report;
     }
 
-
-    private double calculateEnvironmentalAdjustment(Todo task, String conditionType, Double value) {
-        return switch (conditionType) {
-            case "high_temperature" -> {
-                // Tarefas que requerem menos energia cognitiva em temperatura alta
-                Integer cognitiveLoad = task.getCognitiveLoad();
-                yield (cognitiveLoad != null && cognitiveLoad <= 2) ? 0.2 : -0.3;
-            }
-            case "low_temperature" -> {
-                // Temperatura baixa pode reduzir desempenho geral
-                yield -0.1;
-            }
-            case "high_humidity" -> {
-                // Alta umidade reduz conforto, prefere tarefas simples
-                Integer cognitiveLoad = task.getCognitiveLoad();
-                yield (cognitiveLoad != null && cognitiveLoad <= 2) ? 0.1 : -0.2;
-            }
-            case "low_light" -> {
-                // Pouca luz dificulta tarefas visuais/leitura
-                String environment = task.getOptimalEnvironment();
-                yield ("bright".equals(environment)) ? -0.4 : -0.1;
-            }
-            case "high_light" -> {
-                // Muita luz pode ser boa para algumas tarefas
-                String environment = task.getOptimalEnvironment();
-                yield ("bright".equals(environment)) ? 0.3 : 0.0;
-            }
-            case "high_noise" -> {
-                // Ruído alto prejudica concentração
-                String environment = task.getOptimalEnvironment();
-                yield ("quiet".equals(environment)) ? -0.5 : ("collaborative".equals(environment)) ? 0.1 : -0.2;
-            }
-            case "low_noise" -> {
-                // Silêncio favorece concentração
-                String environment = task.getOptimalEnvironment();
-                yield ("quiet".equals(environment)) ? 0.4 : 0.1;
-            }
-            case "poor_air_quality" -> {
-                // Ar ruim reduz desempenho cognitivo
-                yield -0.3;
-            }
-            case "low_activity" -> {
-                // Pouco movimento sugere tarefas de pausa
-                Todo.Priority priority = task.getPriority();
-                yield (priority == Todo.Priority.LOW) ? 0.2 : -0.1;
-            }
-            case "work_mode" -> {
-                // Presença detectada - boost para tarefas de trabalho
-                Todo.Priority priority = task.getPriority();
-                yield (priority == Todo.Priority.HIGH || priority == Todo.Priority.URGENT) ? 0.2 : 0.1;
-            }
-            case "away_mode" -> {
-                // Ausência - reduz prioridade de tarefas específicas de localização
-                String locationContext = task.getLocationContext();
-                yield ("office".equals(locationContext) || "home".equals(locationContext)) ? -0.4 : 0.0;
-            }
-            default -> 0.0;
-        };
+    public AdjustmentReport adjustTasksByLocation(String newLocation) {
+        return adjustTasksByLocation(UserContextRegistry.DEFAULT_USER, newLocation);
     }
 
-    public void adjustTasksByLocation(String newLocation) {
-        List<Todo> activeTasks = todoRepository.findActiveTasks();
-        int adjustedCount = 0;
+    public AdjustmentReport adjustTasksByLocation(String userId, String newLocation) {
+        long start = System.nanoTime();
+        List<Todo> activeTasks = todoRepository.findActiveTasksForScoring(userId);
+        Map<Long, Double> deltas = new LinkedHashMap<>();
 
         for (Todo task : activeTasks) {
             String taskLocation = task.getLocationContext();
@@ -313,16 +299,43 @@ public class TaskAdjustmentService {
             }
 
             if (Math.abs(adjustment) > 0.05) {
-                Double currentScore = task.getMoodCompatibilityScore() != null ? task.getMoodCompatibilityScore() : 0.5;
-                task.setMoodCompatibilityScore(Math.max(0.0, Math.min(1.0, currentScore + adjustment)));
-                task.setAutoAdjusted(true);
-                task.setLastMoodCheck(LocalDateTime.now());
-
-                todoRepository.save(task);
-                adjustedCount++;
+                deltas.put(task.getId(), adjustment);
             }
         }
 
-        logger.info("Ajuste por localização: {} tarefas ajustadas para localização '{}'", adjustedCount, newLocation);
+        AdjustmentReport report = appendEvents("location", "location:" + newLocation, activeTasks.size(), deltas, start);
+        logger.info("Ajuste por localização de {}: {} tarefas ajustadas para localização '{}' ({} statements)",
+                userId, report.rowsChanged(), newLocation, report.statementsIssued());
+        return report;
+    }
+
+    private static final class ScoreChange {
+        private final long id;
+        private final double score;
+        private final boolean autoAdjusted;
+        private final LocalDateTime lastMoodCheck;
+        private Integer suggestedOrder;
+        private Todo task; // entidade carregada, quando houver, para devolver os novos valores ao chamador
+
+        private ScoreChange(long id, double score, boolean autoAdjusted, LocalDateTime lastMoodCheck){
+            this.id = id;
+            this.score = score;
+            this.autoAdjusted = autoAdjusted;
+            this.lastMoodCheck = lastMoodCheck;
+        }
+
+        private void applyToEntity(){
+            if (task == null){
+                return;
+            }
+            task.setMoodCompatibilityScore(score);
+            task.setAutoAdjusted(autoAdjusted);
+            if (lastMoodCheck != null){
+                task.setLastMoodCheck(lastMoodCheck);
+            }
+            if (suggestedOrder != null){
+                task.setSuggestedOrder(suggestedOrder);
+            }
+        }
     }
 }
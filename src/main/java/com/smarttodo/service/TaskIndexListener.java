@@ -0,0 +1,13 @@
+package com.smarttodo.service;
+
+public interface TaskIndexListener {
+
+    void taskChanged(String ownerId, long id);
+
+    void indexRebuilt();
+
+    // Só as regras de pontuação mudaram; quem guarda scores ou rankings trata como uma recarga do índice
+    default void rulesChanged(){
+        indexRebuilt();
+    }
+}
@@ -0,0 +1,101 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.ScoringProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Escolhe entre pontuação sequencial e paralela pelo tamanho do índice e mede a latência de cada modo
+@Component
+public class TaskScorer {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskScorer.class);
+
+    @Autowired
+    private TaskScoringIndex taskScoringIndex;
+
+    @Autowired
+    private ScoringProperties scoringProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Pool próprio: a pontuação não disputa o commonPool com parallel streams de outras partes da aplicação
+    private ForkJoinPool pool;
+
+    private Timer sequentialTimer;
+    private Timer parallelTimer;
+
+    @PostConstruct
+    public void start(){
+        int parallelism = scoringProperties.getParallelism() > 0
+                ? scoringProperties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+
+        AtomicInteger threadCount = new AtomicInteger();
+        pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("task-scoring-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        sequentialTimer = timer("sequential");
+        parallelTimer = timer("parallel");
+
+        logger.info("Pontuação paralela a partir de {} tarefas - {} threads, pedaços de {}",
+                scoringProperties.getParallelThreshold(), parallelism, scoringProperties.getChunkSize());
+    }
+
+    private Timer timer(String mode){
+        return Timer.builder("smarttodo.scoring.latency")
+                .description("Tempo para pontuar todas as tarefas ativas e selecionar as melhores")
+                .tag("mode", mode)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    TaskScoringIndex.Scores scoreTop(String mood, LocalDateTime now, int k, double minScore){
+        return scoreTop(UserContextRegistry.DEFAULT_USER, mood, now, k, minScore);
+    }
+
+    // Pontua as tarefas ativas do usuário para o humor e devolve as k melhores acima de minScore em Scores.top
+    TaskScoringIndex.Scores scoreTop(String owner, String mood, LocalDateTime now, int k, double minScore){
+        boolean parallel = taskScoringIndex.size(owner) >= scoringProperties.getParallelThreshold();
+
+        long start = System.nanoTime();
+        TaskScoringIndex.Scores scores = taskScoringIndex.scoreTop(owner, mood, now, k, minScore,
+                parallel ? pool : null, scoringProperties.getChunkSize());
+        (parallel ? parallelTimer : sequentialTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return scores;
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> status = new HashMap<>();
+        status.put("parallelThreshold", scoringProperties.getParallelThreshold());
+        status.put("parallelism", pool.getParallelism());
+        status.put("chunkSize", scoringProperties.getChunkSize());
+        status.put("activeTasks", taskScoringIndex.size());
+        status.put("sequential", TimerSnapshots.latency(sequentialTimer));
+        status.put("parallel", TimerSnapshots.latency(parallelTimer));
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown(){
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,458 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class TaskScoringIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskScoringIndex.class);
+
+    private static final long NO_DUE_DATE = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<TaskIndexListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Uma partição de colunas por usuário: pontuar as tarefas de um usuário não percorre as dos outros
+    private final Map<String, Partition> partitions = new HashMap<>();
+
+    // id -> partição do dono
+    private final Map<Long, Partition> taskPartitions = new HashMap<>();
+
+    // Trocado inteiro numa recarga das regras; cada pontuação lê a referência uma vez
+    private volatile ScoringRules rules = ScoringRules.defaults();
+
+    @PostConstruct
+    public void rebuild(){
+        List<Todo> activeTasks = todoRepository.findActiveTasksForScoring();
+
+        lock.writeLock().lock();
+        try{
+            partitions.clear();
+            taskPartitions.clear();
+            for (Todo task : activeTasks){
+                Partition partition = partition(UserContextRegistry.normalize(task.getOwnerId()));
+                partition.write(partition.slotFor(task.getId()), task);
+                taskPartitions.put(task.getId(), partition);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Índice de pontuação carregado com {} tarefas ativas de {} usuários", activeTasks.size(), partitions.size());
+        listeners.forEach(TaskIndexListener::indexRebuilt);
+    }
+
+    public void setRules(ScoringRules rules){
+        this.rules = rules;
+        // Os scores de todas as tarefas mudaram, as tarefas em si não
+        listeners.forEach(TaskIndexListener::rulesChanged);
+    }
+
+    public ScoringRules getRules(){
+        return rules;
+    }
+
+    public void addListener(TaskIndexListener listener){
+        listeners.add(listener);
+    }
+
+    public void upsert(Todo task){
+        if (task.getId() == null){
+            return;
+        }
+        if (task.getStatus() == Todo.TaskStatus.COMPLETED){
+            remove(task.getId());
+            return;
+        }
+
+        String owner = UserContextRegistry.normalize(task.getOwnerId());
+        String previousOwner = null;
+        lock.writeLock().lock();
+        try{
+            Partition current = taskPartitions.get(task.getId());
+            if (current != null && !current.ownerId.equals(owner)){
+                // Tarefa mudou de dono: sai da partição antiga
+                previousOwner = current.ownerId;
+                removeFrom(current, task.getId());
+            }
+
+            Partition partition = partition(owner);
+            partition.write(partition.slotFor(task.getId()), task);
+            taskPartitions.put(task.getId(), partition);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (previousOwner != null){
+            notifyChanged(previousOwner, task.getId());
+        }
+        notifyChanged(owner, task.getId());
+    }
+
+    public void remove(Long id){
+        String owner;
+        lock.writeLock().lock();
+        try{
+            Partition partition = taskPartitions.remove(id);
+            if (partition == null){
+                return;
+            }
+            owner = partition.ownerId;
+            removeFrom(partition, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        notifyChanged(owner, id);
+    }
+
+    private void removeFrom(Partition partition, long id){
+        partition.remove(id);
+        if (partition.size == 0){
+            partitions.remove(partition.ownerId);
+        }
+    }
+
+    private Partition partition(String owner){
+        return partitions.computeIfAbsent(owner, Partition::new);
+    }
+
+    // Avisado fora do lock: os listeners podem consultar o índice
+    private void notifyChanged(String owner, long id){
+        for (TaskIndexListener listener : listeners){
+            listener.taskChanged(owner, id);
+        }
+    }
+
+    // Reflete no índice o que uma passada de ajuste acabou de gravar no banco.
+    // Devolve a chave de estatísticas da tarefa antes do ajuste (null se ela não está no índice)
+    public TaskStatistics.Key applyAdjustment(long id, double score, boolean adjusted, Integer suggestedOrder){
+        lock.writeLock().lock();
+        try{
+            Partition partition = taskPartitions.get(id);
+            if (partition == null){
+                return null;
+            }
+            int slot = partition.slots.get(id);
+            TaskStatistics.Key previous = partition.key(slot);
+            partition.storedScores[slot] = score;
+            partition.autoAdjusted[slot] = adjusted;
+            if (suggestedOrder != null){
+                partition.suggestedOrders[slot] = suggestedOrder;
+            }
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Scores score(String currentMood, LocalDateTime now){
+        return score(UserContextRegistry.DEFAULT_USER, currentMood, now);
+    }
+
+    Scores score(String owner, String currentMood, LocalDateTime now){
+        ScoringRules rules = this.rules;
+        int mood = ScoringRules.moodCode(currentMood);
+        long nowNanos = toEpochNanos(now);
+
+        lock.readLock().lock();
+        try{
+            Partition partition = partitions.get(owner);
+            if (partition == null){
+                return Scores.EMPTY;
+            }
+
+            int n = partition.size;
+            double[] scores = new double[n];
+            for (int i = 0; i < n; i++){
+                scores[i] = partition.scoreSlot(rules, i, mood, nowNanos);
+            }
+
+            return partition.snapshot(scores, null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Scores scoreTop(String currentMood, LocalDateTime now, int k, double minScore, ForkJoinPool pool, int chunkSize){
+        return scoreTop(UserContextRegistry.DEFAULT_USER, currentMood, now, k, minScore, pool, chunkSize);
+    }
+
+    // Pontua as tarefas do usuário e já seleciona as k melhores acima de minScore. Com pool, as posições são
+    // divididas em pedaços de chunkSize pontuados em paralelo; cada pedaço devolve seu próprio top-k e os
+    // resultados são mesclados
+    Scores scoreTop(String owner, String currentMood, LocalDateTime now, int k, double minScore, ForkJoinPool pool, int chunkSize){
+        ScoringRules rules = this.rules;
+        int mood = ScoringRules.moodCode(currentMood);
+        long nowNanos = toEpochNanos(now);
+
+        lock.readLock().lock();
+        try{
+            Partition partition = partitions.get(owner);
+            if (partition == null){
+                return Scores.EMPTY;
+            }
+
+            int n = partition.size;
+            double[] scores = new double[n];
+            int[] top;
+            if (pool == null){
+                for (int i = 0; i < n; i++){
+                    scores[i] = partition.scoreSlot(rules, i, mood, nowNanos);
+                }
+                top = TopKSelector.select(scores, partition.ids, n, k, minScore);
+            } else {
+                // As threads do pool só leem as colunas; o lock de leitura desta thread segura os escritores até o join
+                top = pool.invoke(new ScoreChunk(partition, rules, mood, nowNanos, scores, 0, n, k, minScore, Math.max(1, chunkSize)));
+            }
+            return partition.snapshot(scores, top);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Score de uma única tarefa; NaN se ela não está (mais) no índice
+    double scoreOne(long id, String currentMood, LocalDateTime now){
+        lock.readLock().lock();
+        try{
+            Partition partition = taskPartitions.get(id);
+            return partition != null
+                    ? partition.scoreSlot(rules, partition.slots.get(id), ScoringRules.moodCode(currentMood), toEpochNanos(now))
+                    : Double.NaN;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size(){
+        lock.readLock().lock();
+        try{
+            return taskPartitions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size(String owner){
+        lock.readLock().lock();
+        try{
+            Partition partition = partitions.get(owner);
+            return partition != null ? partition.size : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> status = new HashMap<>();
+        lock.readLock().lock();
+        try{
+            status.put("activeTasks", taskPartitions.size());
+            status.put("owners", partitions.size());
+            status.put("capacity", partitions.values().stream().mapToInt(partition -> partition.ids.length).sum());
+        } finally {
+            lock.readLock().unlock();
+        }
+        status.put("conditionRules", rules.conditionCount());
+        return status;
+    }
+
+    private static long toEpochNanos(LocalDateTime timestamp){
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + timestamp.getNano();
+    }
+
+    // Colunas das tarefas ativas de um usuário; protegidas pelo lock do índice
+    private static final class Partition {
+        private final String ownerId;
+
+        // id -> posição nas colunas
+        private final Map<Long, Integer> slots = new HashMap<>();
+
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private byte[] statuses = new byte[INITIAL_CAPACITY];
+        private byte[] priorities = new byte[INITIAL_CAPACITY];
+        private byte[] cognitiveLoads = new byte[INITIAL_CAPACITY];
+        private byte[] requiredMoods = new byte[INITIAL_CAPACITY];
+        private byte[] environments = new byte[INITIAL_CAPACITY];
+        private long[] dueDates = new long[INITIAL_CAPACITY];
+        private double[] storedScores = new double[INITIAL_CAPACITY];
+        private boolean[] autoAdjusted = new boolean[INITIAL_CAPACITY];
+        private int[] suggestedOrders = new int[INITIAL_CAPACITY];
+        private int size;
+
+        private Partition(String ownerId){
+            this.ownerId = ownerId;
+        }
+
+        private int slotFor(Long id){
+            Integer slot = slots.get(id);
+            if (slot != null){
+                return slot;
+            }
+
+            if (size == ids.length){
+                grow(ids.length * 2);
+            }
+            slots.put(id, size);
+            return size++;
+        }
+
+        private void remove(long id){
+            Integer slot = slots.remove(id);
+            if (slot == null){
+                return;
+            }
+
+            // Move a última posição para o buraco, mantendo as colunas compactas
+            int last = --size;
+            if (slot != last){
+                ids[slot] = ids[last];
+                statuses[slot] = statuses[last];
+                priorities[slot] = priorities[last];
+                cognitiveLoads[slot] = cognitiveLoads[last];
+                requiredMoods[slot] = requiredMoods[last];
+                environments[slot] = environments[last];
+                dueDates[slot] = dueDates[last];
+                storedScores[slot] = storedScores[last];
+                autoAdjusted[slot] = autoAdjusted[last];
+                suggestedOrders[slot] = suggestedOrders[last];
+                slots.put(ids[slot], slot);
+            }
+        }
+
+        private void write(int slot, Todo task){
+            ids[slot] = task.getId();
+            statuses[slot] = task.getStatus() != null ? (byte) task.getStatus().ordinal() : ScoringRules.NONE;
+            priorities[slot] = ScoringRules.priorityCode(task.getPriority());
+            cognitiveLoads[slot] = ScoringRules.loadCode(task.getCognitiveLoad());
+            requiredMoods[slot] = ScoringRules.requiredMoodCode(task.getRequiredMood());
+            environments[slot] = ScoringRules.environmentCode(task.getOptimalEnvironment());
+            dueDates[slot] = task.getDueDate() != null ? toEpochNanos(task.getDueDate()) : NO_DUE_DATE;
+            storedScores[slot] = task.getMoodCompatibilityScore() != null ? task.getMoodCompatibilityScore() : 0.0;
+            autoAdjusted[slot] = Boolean.TRUE.equals(task.getAutoAdjusted());
+            suggestedOrders[slot] = task.getSuggestedOrder() != null ? task.getSuggestedOrder() : 0;
+        }
+
+        private void grow(int capacity){
+            ids = Arrays.copyOf(ids, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            cognitiveLoads = Arrays.copyOf(cognitiveLoads, capacity);
+            requiredMoods = Arrays.copyOf(requiredMoods, capacity);
+            environments = Arrays.copyOf(environments, capacity);
+            dueDates = Arrays.copyOf(dueDates, capacity);
+            storedScores = Arrays.copyOf(storedScores, capacity);
+            autoAdjusted = Arrays.copyOf(autoAdjusted, capacity);
+            suggestedOrders = Arrays.copyOf(suggestedOrders, capacity);
+        }
+
+        private TaskStatistics.Key key(int slot){
+            return new TaskStatistics.Key(ownerId,
+                    statuses[slot] != ScoringRules.NONE ? Todo.TaskStatus.values()[statuses[slot]] : null,
+                    priorities[slot] != ScoringRules.NONE ? Todo.Priority.values()[priorities[slot]] : null,
+                    autoAdjusted[slot]);
+        }
+
+        private double scoreSlot(ScoringRules rules, int i, int mood, long nowNanos){
+            long due = dueDates[i];
+            // Mesmo arredondamento de Duration.toHours, usado na pontuação por entidade
+            double dueAdjustment = due != NO_DUE_DATE ? rules.dueAdjustment(Math.floorDiv(due - nowNanos, 1_000_000_000L) / 3600) : 0.0;
+            return rules.score(mood, requiredMoods[i], cognitiveLoads[i], priorities[i], environments[i], dueAdjustment);
+        }
+
+        private Scores snapshot(double[] scores, int[] top){
+            int n = size;
+            return new Scores(n, Arrays.copyOf(ids, n), scores, Arrays.copyOf(storedScores, n),
+                    Arrays.copyOf(autoAdjusted, n), Arrays.copyOf(suggestedOrders, n), top);
+        }
+    }
+
+    // Divide [from, to) ao meio até chegar em chunkSize posições; cada folha pontua o seu trecho
+    private static final class ScoreChunk extends RecursiveTask<int[]> {
+        private final Partition partition;
+        private final ScoringRules rules;
+        private final int mood;
+        private final long nowNanos;
+        private final double[] scores;
+        private final int from;
+        private final int to;
+        private final int k;
+        private final double minScore;
+        private final int chunkSize;
+
+        private ScoreChunk(Partition partition, ScoringRules rules, int mood, long nowNanos, double[] scores,
+                           int from, int to, int k, double minScore, int chunkSize){
+            this.partition = partition;
+            this.rules = rules;
+            this.mood = mood;
+            this.nowNanos = nowNanos;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.minScore = minScore;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected int[] compute(){
+            if (to - from <= chunkSize){
+                for (int i = from; i < to; i++){
+                    scores[i] = partition.scoreSlot(rules, i, mood, nowNanos);
+                }
+                return TopKSelector.select(scores, partition.ids, from, to, k, minScore);
+            }
+
+            int middle = (from + to) >>> 1;
+            ScoreChunk left = new ScoreChunk(partition, rules, mood, nowNanos, scores, from, middle, k, minScore, chunkSize);
+            ScoreChunk right = new ScoreChunk(partition, rules, mood, nowNanos, scores, middle, to, k, minScore, chunkSize);
+            left.fork();
+            int[] rightTop = right.compute();
+            return TopKSelector.merge(left.join(), rightTop, scores, partition.ids, k);
+        }
+    }
+
+    // Resultado de uma pontuação: colunas copiadas sob o lock de leitura, na mesma ordem das posições.
+    // top = posições dos k melhores, do melhor para o pior (só em scoreTop)
+    static final class Scores {
+        static final Scores EMPTY = new Scores(0, new long[0], new double[0], new double[0], new boolean[0], new int[0], new int[0]);
+
+        final int size;
+        final long[] ids;
+        final double[] scores;
+        final double[] storedScores;
+        final boolean[] autoAdjusted;
+        final int[] suggestedOrders;
+        final int[] top;
+
+        private Scores(int size, long[] ids, double[] scores, double[] storedScores, boolean[] autoAdjusted,
+                       int[] suggestedOrders, int[] top){
+            this.size = size;
+            this.ids = ids;
+            this.scores = scores;
+            this.storedScores = storedScores;
+            this.autoAdjusted = autoAdjusted;
+            this.suggestedOrders = suggestedOrders;
+            this.top = top;
+        }
+    }
+}
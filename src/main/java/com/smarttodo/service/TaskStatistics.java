@@ -0,0 +1,268 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TaskCountGroup;
+import com.smarttodo.repository.TaskCounts;
+import com.smarttodo.repository.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Contagens de tarefas por status, prioridade e ajuste automático, por usuário e no total.
+// Carregadas de um GROUP BY na subida e numa recarga do índice; cada mutação (TodoService, lotes,
+// passadas de ajuste, compactação do ledger, reset) aplica a diferença nos contadores em memória,
+// então ler as estatísticas não consulta o banco.
+// Mutações seguram o lock de leitura (várias ao mesmo tempo) e a recarga o de escrita: uma recarga
+// nunca vê a gravação de uma mutação sem o incremento correspondente
+@Service
+public class TaskStatistics implements TaskIndexListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskStatistics.class);
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TaskScoringIndex taskScoringIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Counts> byOwner = new ConcurrentHashMap<>();
+    private final Counts all = new Counts();
+
+    // Recarga pedida de dentro de uma mutação: roda quando ela termina
+    private volatile boolean stale;
+    private volatile LocalDateTime lastReload;
+
+    private Counter mutationCounter;
+    private Counter reloadCounter;
+
+    @PostConstruct
+    public void initialize(){
+        mutationCounter = Counter.builder("smarttodo.tasks.stats.mutations").register(meterRegistry);
+        reloadCounter = Counter.builder("smarttodo.tasks.stats.reloads").register(meterRegistry);
+        for (Todo.TaskStatus status : Todo.TaskStatus.values()){
+            Gauge.builder("smarttodo.tasks", all, counts -> counts.byStatus[status.ordinal()].sum())
+                    .tag("status", status.name()).register(meterRegistry);
+        }
+        Gauge.builder("smarttodo.tasks.auto_adjusted", all, counts -> counts.autoAdjusted.sum()).register(meterRegistry);
+
+        reload();
+        taskScoringIndex.addListener(this);
+    }
+
+    // O que importa de uma tarefa para as contagens
+    public record Key(String ownerId, Todo.TaskStatus status, Todo.Priority priority, boolean autoAdjusted) {
+        public static Key of(Todo task){
+            return new Key(UserContextRegistry.normalize(task.getOwnerId()), task.getStatus(), task.getPriority(),
+                    Boolean.TRUE.equals(task.getAutoAdjusted()));
+        }
+
+        public static Key of(TaskCountGroup group){
+            return new Key(group.ownerId(), group.status(), group.priority(), Boolean.TRUE.equals(group.autoAdjusted()));
+        }
+
+        public Key withAutoAdjusted(boolean adjusted){
+            return new Key(ownerId, status, priority, adjusted);
+        }
+    }
+
+    // Envolve a gravação no banco e o changed() correspondente
+    public <T> T tracking(Supplier<T> mutation){
+        lock.readLock().lock();
+        try{
+            return mutation.get();
+        } finally {
+            lock.readLock().unlock();
+            if (stale && lock.getReadHoldCount() == 0){
+                reload();
+            }
+        }
+    }
+
+    // previous = estado antes da mutação (null para criação), current = depois (null para remoção)
+    public void changed(Key previous, Key current){
+        changed(previous, current, 1);
+    }
+
+    // count tarefas passaram de previous para current (mutações em massa)
+    public void changed(Key previous, Key current, long count){
+        if (count == 0 || Objects.equals(previous, current)){
+            return;
+        }
+        if (previous != null){
+            apply(previous, -count);
+        }
+        if (current != null){
+            apply(current, count);
+        }
+        mutationCounter.increment(count);
+    }
+
+    private void apply(Key key, long delta){
+        byOwner.computeIfAbsent(key.ownerId(), owner -> new Counts()).add(key, delta);
+        all.add(key, delta);
+    }
+
+    public void reload(){
+        if (lock.getReadHoldCount() > 0){
+            // Não dá para trocar o lock de leitura pelo de escrita
+            stale = true;
+            return;
+        }
+
+        lock.writeLock().lock();
+        try{
+            stale = false;
+            byOwner.clear();
+            all.clear();
+            int groups = 0;
+            for (TaskCountGroup group : todoRepository.countGroups()){
+                apply(Key.of(group), group.count());
+                groups++;
+            }
+            lastReload = LocalDateTime.now();
+            reloadCounter.increment();
+            logger.debug("Estatísticas de tarefas recarregadas: {} tarefas em {} grupos", all.total.sum(), groups);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void taskChanged(String ownerId, long id){
+        // Mutações do TodoService já chegam por changed()
+    }
+
+    @Override
+    public void indexRebuilt(){
+        reload();
+    }
+
+    @Override
+    public void rulesChanged(){
+        // Regras novas mudam scores, não status, prioridade ou ajuste: as contagens continuam valendo
+    }
+
+    // Contagens do dashboard; ownerId null = todos os usuários
+    public TaskCounts counts(String ownerId){
+        lock.readLock().lock();
+        try{
+            Counts counts = countsFor(ownerId);
+            if (counts == null){
+                return new TaskCounts(0, 0, 0);
+            }
+            long total = counts.total.sum();
+            return new TaskCounts(total, total - counts.completed(), counts.autoAdjusted.sum());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats(String ownerId){
+        Map<String, Object> stats;
+        lock.readLock().lock();
+        try{
+            Counts counts = countsFor(ownerId);
+            stats = (counts != null ? counts : new Counts()).toMap();
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("userId", ownerId != null ? UserContextRegistry.normalize(ownerId) : null);
+        stats.put("lastReload", lastReload);
+        return stats;
+    }
+
+    private Counts countsFor(String ownerId){
+        return ownerId == null ? all : byOwner.get(UserContextRegistry.normalize(ownerId));
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> status = new HashMap<>();
+        status.put("owners", byOwner.size());
+        status.put("mutations", (long) mutationCounter.count());
+        status.put("reloads", (long) reloadCounter.count());
+        status.put("lastReload", lastReload);
+        return status;
+    }
+
+    private static final class Counts {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder[] byStatus = adders(Todo.TaskStatus.values().length);
+        private final LongAdder[] byPriority = adders(Todo.Priority.values().length);
+        private final LongAdder autoAdjusted = new LongAdder();
+
+        private static LongAdder[] adders(int size){
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++){
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+
+        private void add(Key key, long delta){
+            total.add(delta);
+            if (key.status() != null){
+                byStatus[key.status().ordinal()].add(delta);
+            }
+            if (key.priority() != null){
+                byPriority[key.priority().ordinal()].add(delta);
+            }
+            if (key.autoAdjusted()){
+                autoAdjusted.add(delta);
+            }
+        }
+
+        private long completed(){
+            return byStatus[Todo.TaskStatus.COMPLETED.ordinal()].sum();
+        }
+
+        private void clear(){
+            total.reset();
+            autoAdjusted.reset();
+            for (LongAdder adder : byStatus){
+                adder.reset();
+            }
+            for (LongAdder adder : byPriority){
+                adder.reset();
+            }
+        }
+
+        private Map<String, Object> toMap(){
+            Map<String, Long> statuses = new HashMap<>();
+            for (Todo.TaskStatus status : Todo.TaskStatus.values()){
+                statuses.put(status.name(), byStatus[status.ordinal()].sum());
+            }
+            Map<String, Long> priorities = new HashMap<>();
+            for (Todo.Priority priority : Todo.Priority.values()){
+                priorities.put(priority.name(), byPriority[priority.ordinal()].sum());
+            }
+
+            long totalCount = total.sum();
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("total", totalCount);
+            stats.put("completed", completed());
+            stats.put("active", totalCount - completed());
+            stats.put("autoAdjusted", autoAdjusted.sum());
+            stats.put("byStatus", statuses);
+            stats.put("byPriority", priorities);
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.smarttodo.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Latência de um Timer no formato dos endpoints de status: contagem, média, máximo e os percentis publicados, em ms
+final class TimerSnapshots {
+
+    private TimerSnapshots(){}
+
+    static Map<String, Object> latency(Timer timer){
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> latency = new HashMap<>();
+        latency.put("count", snapshot.count());
+        latency.put("meanMillis", snapshot.mean(TimeUnit.MILLISECONDS));
+        latency.put("maxMillis", snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()){
+            latency.put("p" + Math.round(percentile.percentile() * 100) + "Millis", percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return latency;
+    }
+}
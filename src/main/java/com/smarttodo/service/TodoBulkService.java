@@ -0,0 +1,205 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Criação, edição, conclusão e remoção de muitas tarefas numa transação.
+// O persistence context é descarregado e limpo a cada lote JDBC: os INSERT/UPDATE saem agrupados
+// (ids da sequência pooled, hibernate.jdbc.batch_size) e a memória não cresce com o tamanho da importação.
+// Depois do commit cada tarefa passa pelas mesmas atualizações de uma mutação do TodoService
+// (estatísticas, cache, índice de pontuação)
+@Service
+public class TodoBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodoBulkService.class);
+
+    // Itens por requisição
+    public static final int MAX_ITEMS = 10000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TaskStatistics taskStatistics;
+
+    @Autowired
+    private TodoCache todoCache;
+
+    @Autowired
+    private TaskScoringIndex taskScoringIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    public BulkResult create(String ownerId, List<Todo> todos){
+        String owner = UserContextRegistry.normalize(ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        long start = System.nanoTime();
+
+        return taskStatistics.tracking(() -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < todos.size(); i++){
+                    Todo todo = todos.get(i);
+                    todo.setId(null);
+                    todo.setOwnerId(owner);
+                    if (todo.getCreatedAt() == null){
+                        todo.setCreatedAt(now);
+                    }
+                    entityManager.persist(todo);
+                    if ((i + 1) % batchSize == 0){
+                        flushBatch();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+
+            List<Long> ids = new ArrayList<>(todos.size());
+            for (Todo todo : todos){
+                taskStatistics.changed(null, TaskStatistics.Key.of(todo));
+                todoCache.evict(owner, todo.getId());
+                taskScoringIndex.upsert(todo);
+                ids.add(todo.getId());
+            }
+            return result("create", todos.size(), ids, List.of(), start);
+        });
+    }
+
+    // Aplica os mesmos campos do PUT individual (título, descrição, prioridade, status, prazo)
+    public BulkResult update(List<Todo> todos){
+        Map<Long, Todo> changes = new HashMap<>();
+        for (Todo todo : todos){
+            changes.put(todo.getId(), todo);
+        }
+        return modify("update", changes.keySet(), todo -> {
+            Todo change = changes.get(todo.getId());
+            todo.setTitle(change.getTitle());
+            todo.setDescription(change.getDescription());
+            todo.setPriority(change.getPriority());
+            todo.setStatus(change.getStatus());
+            todo.setDueDate(change.getDueDate());
+        });
+    }
+
+    public BulkResult complete(Collection<Long> ids){
+        LocalDateTime now = LocalDateTime.now();
+        return modify("complete", ids, todo -> {
+            if (todo.getStatus() != Todo.TaskStatus.COMPLETED){
+                todo.setStatus(Todo.TaskStatus.COMPLETED);
+                todo.setCompletedAt(now);
+            }
+        });
+    }
+
+    // Carrega por lote, aplica a alteração e deixa o dirty checking gerar os UPDATEs agrupados no flush
+    private BulkResult modify(String operation, Collection<Long> requested, Consumer<Todo> change){
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(requested));
+        long start = System.nanoTime();
+
+        return taskStatistics.tracking(() -> {
+            List<TaskStatistics.Key> previous = new ArrayList<>();
+            List<Todo> modified = new ArrayList<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < ids.size(); from += batchSize){
+                    for (Todo todo : todoRepository.findAllById(ids.subList(from, Math.min(ids.size(), from + batchSize)))){
+                        previous.add(TaskStatistics.Key.of(todo));
+                        change.accept(todo);
+                        modified.add(todo);
+                    }
+                    flushBatch();
+                }
+            });
+
+            List<Long> applied = new ArrayList<>(modified.size());
+            for (int i = 0; i < modified.size(); i++){
+                Todo todo = modified.get(i);
+                taskStatistics.changed(previous.get(i), TaskStatistics.Key.of(todo));
+                todoCache.evict(todo.getOwnerId(), todo.getId());
+                taskScoringIndex.upsert(todo);
+                applied.add(todo.getId());
+            }
+            return result(operation, requested.size(), applied, missing(ids, applied), start);
+        });
+    }
+
+    public BulkResult delete(Collection<Long> requested){
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(requested));
+        long start = System.nanoTime();
+
+        return taskStatistics.tracking(() -> {
+            List<TaskStatistics.Key> removed = new ArrayList<>();
+            List<Long> applied = new ArrayList<>();
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < ids.size(); from += batchSize){
+                    List<Todo> chunk = todoRepository.findAllById(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+                    if (chunk.isEmpty()){
+                        continue;
+                    }
+                    List<Long> chunkIds = new ArrayList<>(chunk.size());
+                    for (Todo todo : chunk){
+                        removed.add(TaskStatistics.Key.of(todo));
+                        chunkIds.add(todo.getId());
+                    }
+                    // Um DELETE ... WHERE id IN (...) por lote
+                    todoRepository.deleteAllByIdInBatch(chunkIds);
+                    entityManager.clear();
+                    applied.addAll(chunkIds);
+                }
+            });
+
+            for (int i = 0; i < applied.size(); i++){
+                taskStatistics.changed(removed.get(i), null);
+                todoCache.evict(removed.get(i).ownerId(), applied.get(i));
+                taskScoringIndex.remove(applied.get(i));
+            }
+            return result("delete", requested.size(), applied, missing(ids, applied), start);
+        });
+    }
+
+    private void flushBatch(){
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static List<Long> missing(List<Long> requested, List<Long> applied){
+        List<Long> missing = new ArrayList<>(requested);
+        missing.removeAll(new LinkedHashSet<>(applied));
+        return missing;
+    }
+
+    private BulkResult result(String operation, int requested, List<Long> ids, List<Long> notFound, long start){
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("smarttodo.todos.bulk", "operation", operation).record(elapsed, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("smarttodo.todos.bulk.items", "operation", operation).increment(ids.size());
+        logger.info("Lote {}: {} de {} tarefas em {} ms", operation, ids.size(), requested, elapsed / 1_000_000);
+        return new BulkResult(operation, requested, ids, notFound, elapsed / 1_000_000.0);
+    }
+}
@@ -0,0 +1,296 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.TodoCacheProperties;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Cache das leituras de tarefas na frente do TodoRepository: tarefa por id e lista de ativas por usuário.
+// As duas estruturas são LRU limitadas. A lista guarda só os ids na ordem da consulta; as entidades vêm
+// do cache por id, e só as que faltam são buscadas no banco.
+// Quem grava chama evict (TodoService, passadas de ajuste, compactação do ledger); a recarga do índice limpa tudo.
+// Entradas são cópias: quem lê pode alterar a entidade devolvida sem afetar o cache
+@Service
+public class TodoCache implements TaskIndexListener {
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TaskScoringIndex taskScoringIndex;
+
+    @Autowired
+    private TodoCacheProperties cacheProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Object lock = new Object();
+
+    // Ordem de acesso: o primeiro da iteração é o menos usado
+    private final LinkedHashMap<Long, Todo> entities = new LinkedHashMap<>(256, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Todo> eldest){
+            boolean evict = size() > cacheProperties.getMaxEntities();
+            if (evict){
+                entityEvictionCounter.increment();
+            }
+            return evict;
+        }
+    };
+
+    private final LinkedHashMap<String, long[]> activeLists = new LinkedHashMap<>(16, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest){
+            boolean evict = size() > cacheProperties.getMaxActiveLists();
+            if (evict){
+                listEvictionCounter.increment();
+            }
+            return evict;
+        }
+    };
+
+    // Muda a cada invalidação. Uma leitura do banco que começou antes de uma escrita não entra no cache
+    // (o resultado dela pode ser anterior à escrita)
+    private long generation;
+
+    private Counter entityHitCounter;
+    private Counter entityMissCounter;
+    private Counter entityEvictionCounter;
+    private Counter listHitCounter;
+    private Counter listMissCounter;
+    private Counter listEvictionCounter;
+    private Counter invalidationCounter;
+
+    @PostConstruct
+    public void initialize(){
+        entityHitCounter = meterRegistry.counter("smarttodo.cache.hits", "cache", "todo");
+        entityMissCounter = meterRegistry.counter("smarttodo.cache.misses", "cache", "todo");
+        entityEvictionCounter = meterRegistry.counter("smarttodo.cache.evictions", "cache", "todo");
+        listHitCounter = meterRegistry.counter("smarttodo.cache.hits", "cache", "active");
+        listMissCounter = meterRegistry.counter("smarttodo.cache.misses", "cache", "active");
+        listEvictionCounter = meterRegistry.counter("smarttodo.cache.evictions", "cache", "active");
+        invalidationCounter = Counter.builder("smarttodo.cache.invalidations").register(meterRegistry);
+
+        Gauge.builder("smarttodo.cache.size", this, cache -> cache.size(cache.entities))
+                .tag("cache", "todo").register(meterRegistry);
+        Gauge.builder("smarttodo.cache.size", this, cache -> cache.size(cache.activeLists))
+                .tag("cache", "active").register(meterRegistry);
+
+        taskScoringIndex.addListener(this);
+    }
+
+    public Optional<Todo> findById(Long id){
+        if (!cacheProperties.isEnabled()){
+            return todoRepository.findById(id).map(TodoCache::copy);
+        }
+
+        long loadGeneration;
+        synchronized (lock){
+            Todo cached = entities.get(id);
+            if (cached != null){
+                entityHitCounter.increment();
+                return Optional.of(copy(cached));
+            }
+            loadGeneration = generation;
+        }
+
+        entityMissCounter.increment();
+        Optional<Todo> loaded = todoRepository.findById(id);
+        loaded.ifPresent(todo -> store(List.of(todo), loadGeneration));
+        // Cópia também na falta: quem chama (overlay do ledger) altera a entidade devolvida, e uma gerenciada
+        // seria gravada no próximo flush da transação
+        return loaded.map(TodoCache::copy);
+    }
+
+    // Mesmo resultado de TodoRepository.findActiveTasks(ownerId), na mesma ordem
+    public List<Todo> findActiveTasks(String ownerId){
+        if (!cacheProperties.isEnabled()){
+            return copies(todoRepository.findActiveTasks(ownerId));
+        }
+
+        long loadGeneration;
+        long[] ids;
+        List<Long> missing = new ArrayList<>();
+        Map<Long, Todo> found = new HashMap<>();
+        synchronized (lock){
+            loadGeneration = generation;
+            ids = activeLists.get(ownerId);
+            if (ids != null){
+                for (long id : ids){
+                    Todo cached = entities.get(id);
+                    if (cached != null){
+                        found.put(id, copy(cached));
+                    } else {
+                        missing.add(id);
+                    }
+                }
+            }
+        }
+
+        if (ids == null){
+            listMissCounter.increment();
+            List<Todo> tasks = todoRepository.findActiveTasks(ownerId);
+            synchronized (lock){
+                if (loadGeneration == generation){
+                    activeLists.put(ownerId, tasks.stream().mapToLong(Todo::getId).toArray());
+                    tasks.forEach(task -> entities.put(task.getId(), copy(task)));
+                }
+            }
+            return copies(tasks);
+        }
+
+        listHitCounter.increment();
+        entityHitCounter.increment(found.size());
+        if (!missing.isEmpty()){
+            // A lista continua valendo; só as entidades que saíram do cache por id são relidas, numa consulta
+            entityMissCounter.increment(missing.size());
+            List<Todo> loaded = todoRepository.findAllById(missing);
+            loaded.forEach(task -> found.put(task.getId(), copy(task)));
+            store(loaded, loadGeneration);
+        }
+
+        List<Todo> tasks = new ArrayList<>(ids.length);
+        for (long id : ids){
+            Todo task = found.get(id);
+            if (task != null){
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    private void store(Collection<Todo> tasks, long loadGeneration){
+        synchronized (lock){
+            if (loadGeneration != generation){
+                return;
+            }
+            for (Todo task : tasks){
+                entities.put(task.getId(), copy(task));
+            }
+        }
+    }
+
+    // A tarefa mudou (criação, edição, conclusão, remoção): sai do cache junto com a lista de ativas do dono
+    public void evict(String ownerId, long id){
+        synchronized (lock){
+            Todo previous = entities.remove(id);
+            if (previous != null && !previous.getOwnerId().equals(ownerId)){
+                activeLists.remove(previous.getOwnerId());
+            }
+            if (ownerId != null){
+                activeLists.remove(ownerId);
+            }
+            generation++;
+        }
+        invalidationCounter.increment();
+    }
+
+    // Passadas de ajuste mudam score e ordem sugerida, não quem está na lista de ativas nem a ordem dela
+    public void evictEntities(Collection<Long> ids){
+        if (ids.isEmpty()){
+            return;
+        }
+        synchronized (lock){
+            for (Long id : ids){
+                entities.remove(id);
+            }
+            generation++;
+        }
+        invalidationCounter.increment();
+    }
+
+    public void clear(){
+        synchronized (lock){
+            entities.clear();
+            activeLists.clear();
+            generation++;
+        }
+        invalidationCounter.increment();
+    }
+
+    @Override
+    public void taskChanged(String ownerId, long id){
+        evict(ownerId, id);
+    }
+
+    @Override
+    public void indexRebuilt(){
+        // O índice foi relido do banco (reset em massa, escrita fora do serviço): nada no cache é confiável
+        clear();
+    }
+
+    private int size(Map<?, ?> map){
+        synchronized (lock){
+            return map.size();
+        }
+    }
+
+    private static List<Todo> copies(List<Todo> tasks){
+        List<Todo> copies = new ArrayList<>(tasks.size());
+        for (Todo task : tasks){
+            copies.add(copy(task));
+        }
+        return copies;
+    }
+
+    private static Todo copy(Todo source){
+        Todo copy = new Todo();
+        copy.setId(source.getId());
+        copy.setTitle(source.getTitle());
+        copy.setDescription(source.getDescription());
+        copy.setPriority(source.getPriority());
+        copy.setStatus(source.getStatus());
+        copy.setDueDate(source.getDueDate());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setCompletedAt(source.getCompletedAt());
+        copy.setRequiredMood(source.getRequiredMood());
+        copy.setLocationContext(source.getLocationContext());
+        copy.setEstimatedEnergy(source.getEstimatedEnergy());
+        copy.setAutoAdjusted(source.getAutoAdjusted());
+        copy.setLastMoodCheck(source.getLastMoodCheck());
+        copy.setMoodCompatibilityScore(source.getMoodCompatibilityScore());
+        copy.setOptimalEnvironment(source.getOptimalEnvironment());
+        copy.setCognitiveLoad(source.getCognitiveLoad());
+        copy.setSuggestedOrder(source.getSuggestedOrder());
+        copy.setOwnerId(source.getOwnerId());
+        return copy;
+    }
+
+    public Map<String, Object> getStatus(){
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", cacheProperties.isEnabled());
+        status.put("todo", stats(size(entities), cacheProperties.getMaxEntities(),
+                entityHitCounter, entityMissCounter, entityEvictionCounter));
+        status.put("active", stats(size(activeLists), cacheProperties.getMaxActiveLists(),
+                listHitCounter, listMissCounter, listEvictionCounter));
+        status.put("invalidations", (long) invalidationCounter.count());
+        return status;
+    }
+
+    private Map<String, Object> stats(int size, int maxSize, Counter hits, Counter misses, Counter evictions){
+        long hitCount = (long) hits.count();
+        long missCount = (long) misses.count();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", size);
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0.0);
+        stats.put("evictions", (long) evictions.count());
+        return stats;
+    }
+}
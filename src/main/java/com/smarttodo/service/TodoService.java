@@ -1,12 +1,15 @@
 package com.smarttodo.service;
 
 import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoListQuery;
 import com.smarttodo.repository.TodoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,53 +18,142 @@ public class TodoService {
     @Autowired
     private TodoRepository todoRepository;
 
+    @Autowired
+    private TaskScoringIndex taskScoringIndex;
+
+    @Autowired
+    private ScoreLedger scoreLedger;
+
+    @Autowired
+    private TodoCache todoCache;
+
+    @Autowired
+    private TaskStatistics taskStatistics;
+
+    // Leituras para a API mostram o score efetivo (checkpoint + eventos do ledger ainda não compactados)
     public List<Todo> findAll(){
-        return todoRepository.findAll();
+        return scoreLedger.overlay(todoRepository.findAll());
+    }
+
+    public List<Todo> findAll(String ownerId){
+        return scoreLedger.overlay(todoRepository.findByOwnerId(UserContextRegistry.normalize(ownerId)));
+    }
+
+    public List<Todo> list(TodoListQuery query){
+        return scoreLedger.overlay(todoRepository.list(query));
+    }
+
+    // Listagem com só alguns campos. Score e ajuste, quando pedidos, mostram o valor efetivo do ledger
+    // como nas entidades; para isso o score gravado é lido mesmo que só autoAdjusted tenha sido pedido
+    public List<Map<String, Object>> list(TodoListQuery query, List<String> fields){
+        boolean scoreRequested = fields.contains("moodCompatibilityScore");
+        boolean overlay = scoreRequested || fields.contains("autoAdjusted");
+        List<String> selected = fields;
+        if (overlay && !scoreRequested){
+            selected = new ArrayList<>(fields);
+            selected.add("moodCompatibilityScore");
+        }
+
+        List<Map<String, Object>> rows = todoRepository.list(query, selected);
+        if (!overlay){
+            return rows;
+        }
+
+        Map<Long, Double> scores = scoreLedger.effectiveScores(rows.stream().map(row -> (Long) row.get("id")).toList());
+        for (Map<String, Object> row : rows){
+            Double score = scores.get((Long) row.get("id"));
+            if (score != null && !score.equals(row.get("moodCompatibilityScore"))){
+                row.put("moodCompatibilityScore", score);
+                if (row.containsKey("autoAdjusted")){
+                    row.put("autoAdjusted", true);
+                }
+            }
+            if (!scoreRequested){
+                row.remove("moodCompatibilityScore");
+            }
+        }
+        return rows;
+    }
+
+    public long count(TodoListQuery query){
+        return todoRepository.count(query);
     }
 
     public Optional<Todo> findById(Long id){
-        return todoRepository.findById(id);
+        return todoCache.findById(id).map(todo -> {
+            scoreLedger.overlay(List.of(todo));
+            return todo;
+        });
     }
 
     public Todo save(Todo todo){
         if (todo.getCreatedAt() == null){
             todo.setCreatedAt(LocalDateTime.now());
         }
+        todo.setOwnerId(UserContextRegistry.normalize(todo.getOwnerId()));
 
-        return todoRepository.save(todo);
+        return taskStatistics.tracking(() -> {
+            TaskStatistics.Key previous = todo.getId() != null
+                    ? todoRepository.findById(todo.getId()).map(TaskStatistics.Key::of).orElse(null)
+                    : null;
+            Todo saved = todoRepository.save(todo);
+            taskStatistics.changed(previous, TaskStatistics.Key.of(saved));
+            todoCache.evict(saved.getOwnerId(), saved.getId());
+            taskScoringIndex.upsert(saved);
+            return saved;
+        });
     }
 
     public Optional<Todo> update(Long id, Todo updatedTodo){
-        return todoRepository.findById(id)
+        return taskStatistics.tracking(() -> todoRepository.findById(id)
                 .map(todo -> {
+                    TaskStatistics.Key previous = TaskStatistics.Key.of(todo);
                     todo.setTitle(updatedTodo.getTitle());
                     todo.setDescription(updatedTodo.getDescription());
                     todo.setPriority(updatedTodo.getPriority());
                     todo.setStatus(updatedTodo.getStatus());
                     todo.setDueDate(updatedTodo.getDueDate());
-                    return todoRepository.save(todo);
-                });
+                    Todo saved = todoRepository.save(todo);
+                    taskStatistics.changed(previous, TaskStatistics.Key.of(saved));
+                    todoCache.evict(saved.getOwnerId(), id);
+                    taskScoringIndex.upsert(saved);
+                    return saved;
+                }));
     }
 
     public boolean delete(Long id){
-        if (todoRepository.existsById(id)){
-            todoRepository.deleteById(id);
+        return taskStatistics.tracking(() -> {
+            Optional<Todo> existing = todoRepository.findById(id);
+            if (existing.isPresent()){
+                todoRepository.deleteById(id);
+                taskStatistics.changed(TaskStatistics.Key.of(existing.get()), null);
+                todoCache.evict(existing.get().getOwnerId(), id);
+                taskScoringIndex.remove(id);
+            }
             return true;
-        }
-        return true;
+        });
     }
 
     public Optional<Todo> markAsCompleted(Long id){
-        return todoRepository.findById(id)
+        return taskStatistics.tracking(() -> todoRepository.findById(id)
                 .map(todo -> {
+                    TaskStatistics.Key previous = TaskStatistics.Key.of(todo);
                     todo.setStatus(Todo.TaskStatus.COMPLETED);
                     todo.setCompletedAt(LocalDateTime.now());
-                    return todoRepository.save(todo);
-                });
+                    Todo saved = todoRepository.save(todo);
+                    taskStatistics.changed(previous, TaskStatistics.Key.of(saved));
+                    todoCache.evict(saved.getOwnerId(), id);
+                    taskScoringIndex.remove(id);
+                    return saved;
+                }));
     }
 
     public List<Todo> findActiveTasks(){
-        return todoRepository.findActiveTasks();
+        return scoreLedger.overlay(todoRepository.findActiveTasks());
+    }
+
+    public List<Todo> findActiveTasks(String ownerId){
+        return scoreLedger.overlay(todoCache.findActiveTasks(UserContextRegistry.normalize(ownerId)));
     }
 
     public long getCompletedCount(){
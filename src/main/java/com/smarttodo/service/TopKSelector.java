@@ -0,0 +1,107 @@
+package com.smarttodo.service;
+
+// Seleção dos k maiores scores com um heap mínimo limitado a k: O(n log k) em vez de ordenar as n tarefas.
+// Empates são decididos pelo menor id, para o ranking ser estável entre chamadas
+final class TopKSelector {
+
+    private TopKSelector(){}
+
+    // Posições (índices em scores/ids) dos k melhores acima de minScore, do melhor para o pior
+    static int[] select(double[] scores, long[] ids, int n, int k, double minScore){
+        return select(scores, ids, 0, n, k, minScore);
+    }
+
+    // Mesma seleção restrita às posições [from, to), usada por cada pedaço da pontuação paralela
+    static int[] select(double[] scores, long[] ids, int from, int to, int k, double minScore){
+        if (k <= 0){
+            return new int[0];
+        }
+
+        int[] heap = new int[Math.min(k, to - from)];
+        int size = 0;
+
+        for (int i = from; i < to; i++){
+            if (!(scores[i] > minScore)){
+                continue;
+            }
+
+            if (size < heap.length){
+                heap[size] = i;
+                siftUp(heap, size++, scores, ids);
+            } else if (size > 0 && better(i, heap[0], scores, ids)){
+                heap[0] = i;
+                siftDown(heap, size, scores, ids);
+            }
+        }
+
+        // Esvazia o heap do pior para o melhor, preenchendo o resultado de trás para frente
+        int[] result = new int[size];
+        for (int last = size - 1; last >= 0; last--){
+            result[last] = heap[0];
+            heap[0] = heap[last];
+            siftDown(heap, last, scores, ids);
+        }
+        return result;
+    }
+
+    // Junta dois resultados já ordenados (do melhor para o pior) nos k melhores
+    static int[] merge(int[] a, int[] b, double[] scores, long[] ids, int k){
+        int[] merged = new int[Math.min(k, a.length + b.length)];
+        int i = 0;
+        int j = 0;
+        for (int m = 0; m < merged.length; m++){
+            if (j >= b.length || (i < a.length && better(a[i], b[j], scores, ids))){
+                merged[m] = a[i++];
+            } else {
+                merged[m] = b[j++];
+            }
+        }
+        return merged;
+    }
+
+    static boolean better(double score, long id, double otherScore, long otherId){
+        return score > otherScore || (score == otherScore && id < otherId);
+    }
+
+    private static boolean better(int a, int b, double[] scores, long[] ids){
+        return better(scores[a], ids[a], scores[b], ids[b]);
+    }
+
+    // Raiz = pior elemento do heap
+    private static void siftUp(int[] heap, int index, double[] scores, long[] ids){
+        int item = heap[index];
+        while (index > 0){
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], item, scores, ids)){
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = item;
+    }
+
+    private static void siftDown(int[] heap, int size, double[] scores, long[] ids){
+        if (size == 0){
+            return;
+        }
+
+        int index = 0;
+        int item = heap[0];
+        while (true){
+            int child = 2 * index + 1;
+            if (child >= size){
+                break;
+            }
+            if (child + 1 < size && better(heap[child], heap[child + 1], scores, ids)){
+                child++;
+            }
+            if (!better(item, heap[child], scores, ids)){
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = item;
+    }
+}
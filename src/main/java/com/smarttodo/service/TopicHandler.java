@@ -0,0 +1,7 @@
+package com.smarttodo.service;
+
+@FunctionalInterface
+public interface TopicHandler {
+
+    void handle(TopicMatch match, String payload) throws Exception;
+}
@@ -0,0 +1,42 @@
+package com.smarttodo.service;
+
+public final class TopicMatch {
+
+    private final String topic;
+    private final String pattern;
+    private final int[] bounds;
+    private final int segmentCount;
+
+    TopicMatch(String topic, String pattern, int[] bounds, int segmentCount) {
+        this.topic = topic;
+        this.pattern = pattern;
+        this.bounds = bounds;
+        this.segmentCount = segmentCount;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    // Quantidade de trechos capturados pelos curingas (+ e #) do padrão
+    public int getSegmentCount() {
+        return segmentCount;
+    }
+
+    public String segment(int index) {
+        if (index < 0 || index >= segmentCount) {
+            throw new IndexOutOfBoundsException("Segmento " + index + " inexistente para o padrão " + pattern);
+        }
+        return topic.substring(bounds[index * 2], bounds[index * 2 + 1]);
+    }
+
+    public boolean segmentEquals(int index, String value) {
+        int start = bounds[index * 2];
+        int length = bounds[index * 2 + 1] - start;
+        return value.length() == length && topic.regionMatches(start, value, 0, length);
+    }
+}
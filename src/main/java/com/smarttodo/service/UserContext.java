@@ -0,0 +1,66 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.SensorData;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Estado ao vivo de um usuário: localização, humor e últimas leituras dos sensores dele
+public final class UserContext {
+
+    private final String userId;
+
+    private volatile String location = "home";
+    private volatile String mood = "neutral";
+
+    private final Map<String, SensorData> lastSensorReadings = new ConcurrentHashMap<>();
+    private final Map<String, Object> environmentalConditions = new ConcurrentHashMap<>();
+
+    // Histerese do humor; acessado só pelo MoodPropagator, sincronizado no próprio objeto
+    final MoodState moodState = new MoodState();
+
+    // Último get() no registro; contextos parados por mais que o timeout são descartados
+    volatile long lastAccess = System.currentTimeMillis();
+
+    UserContext(String userId){
+        this.userId = userId;
+    }
+
+    public String getUserId(){
+        return userId;
+    }
+
+    public String getLocation(){
+        return location;
+    }
+
+    public void setLocation(String location){
+        this.location = location;
+    }
+
+    public String getMood(){
+        return mood;
+    }
+
+    public void setMood(String mood){
+        this.mood = mood;
+    }
+
+    public Map<String, SensorData> getLastSensorReadings(){
+        return lastSensorReadings;
+    }
+
+    public Map<String, Object> getEnvironmentalConditions(){
+        return environmentalConditions;
+    }
+
+    static final class MoodState {
+        // Humor diferente do estável que está sendo observado, desde quando e quantas vezes seguidas
+        String candidate;
+        long candidateSince;
+        int candidateCount;
+
+        String pendingMood;    // confirmado durante o intervalo mínimo; vai na próxima janela livre
+        long lastRescoring = Long.MIN_VALUE;
+    }
+}
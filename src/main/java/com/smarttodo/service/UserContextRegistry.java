@@ -0,0 +1,179 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.IoTProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Contextos por usuário divididos em faixas (stripes), cada uma com o seu lock:
+// usuários de faixas diferentes nunca disputam o mesmo lock, e a busca de um usuário não percorre os outros.
+// Só get() (quem grava: leituras de sensor, localização, humor) cria contexto; leituras da API usam find()/peek().
+// Contextos sem get() por mais que context-idle-timeout são descartados; o usuário padrão fica sempre
+@Service
+public class UserContextRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserContextRegistry.class);
+
+    // Dono de tarefas e sensores que não informam usuário (instalação de uma pessoa só)
+    public static final String DEFAULT_USER = "default";
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    @Autowired
+    private IoTProperties ioTProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter evictionCounter;
+
+    public UserContextRegistry(){
+        for (int i = 0; i < STRIPES; i++){
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @PostConstruct
+    public void initialize(){
+        evictionCounter = Counter.builder("smarttodo.users.contexts.evicted").register(meterRegistry);
+        Gauge.builder("smarttodo.users.contexts", this, UserContextRegistry::size).register(meterRegistry);
+    }
+
+    public static String normalize(String userId){
+        return userId == null || userId.isBlank() ? DEFAULT_USER : userId;
+    }
+
+    // Contexto do usuário, criado no primeiro acesso
+    public UserContext get(String userId){
+        String id = normalize(userId);
+        Stripe stripe = stripeFor(id);
+
+        synchronized (stripe){
+            UserContext context = stripe.contexts.computeIfAbsent(id, UserContext::new);
+            context.lastAccess = System.currentTimeMillis();
+            return context;
+        }
+    }
+
+    public UserContext getDefault(){
+        return get(DEFAULT_USER);
+    }
+
+    public UserContext find(String userId){
+        String id = normalize(userId);
+        Stripe stripe = stripeFor(id);
+
+        synchronized (stripe){
+            return stripe.contexts.get(id);
+        }
+    }
+
+    // Para leitura: o contexto registrado ou um avulso com os valores iniciais, sem registrar nada
+    public UserContext peek(String userId){
+        UserContext context = find(userId);
+        return context != null ? context : new UserContext(normalize(userId));
+    }
+
+    @Scheduled(initialDelayString = "${smarttodo.iot.users.eviction-interval:600000}",
+            fixedDelayString = "${smarttodo.iot.users.eviction-interval:600000}")
+    public void scheduledEviction(){
+        evictIdle(System.currentTimeMillis());
+    }
+
+    // Contextos com troca de humor em andamento (candidato ou humor adiado) ficam até ela terminar
+    int evictIdle(long now){
+        long timeout = ioTProperties.getUsers().getContextIdleTimeout();
+        if (timeout <= 0){
+            return 0;
+        }
+
+        int evicted = 0;
+        for (Stripe stripe : stripes){
+            synchronized (stripe){
+                Iterator<UserContext> contexts = stripe.contexts.values().iterator();
+                while (contexts.hasNext()){
+                    UserContext context = contexts.next();
+                    if (!DEFAULT_USER.equals(context.getUserId()) && now - context.lastAccess >= timeout && isSettled(context)){
+                        contexts.remove();
+                        evicted++;
+                    }
+                }
+            }
+        }
+
+        if (evicted > 0){
+            evictionCounter.increment(evicted);
+            logger.debug("{} contextos de usuário parados descartados", evicted);
+        }
+        return evicted;
+    }
+
+    private static boolean isSettled(UserContext context){
+        synchronized (context.moodState){
+            return context.moodState.candidate == null && context.moodState.pendingMood == null;
+        }
+    }
+
+    public void forEach(Consumer<UserContext> action){
+        for (Stripe stripe : stripes){
+            UserContext[] contexts;
+            synchronized (stripe){
+                contexts = stripe.contexts.values().toArray(new UserContext[0]);
+            }
+            for (UserContext context : contexts){
+                action.accept(context);
+            }
+        }
+    }
+
+    public int size(){
+        int size = 0;
+        for (Stripe stripe : stripes){
+            synchronized (stripe){
+                size += stripe.contexts.size();
+            }
+        }
+        return size;
+    }
+
+    public Map<String, Object> getStatus(){
+        int users = 0;
+        int largestStripe = 0;
+        for (Stripe stripe : stripes){
+            synchronized (stripe){
+                users += stripe.contexts.size();
+                largestStripe = Math.max(largestStripe, stripe.contexts.size());
+            }
+        }
+
+        Map<String, Object> status = new HashMap<>();
+        status.put("users", users);
+        status.put("stripes", STRIPES);
+        status.put("largestStripe", largestStripe);
+        status.put("idleTimeoutMillis", ioTProperties.getUsers().getContextIdleTimeout());
+        status.put("evicted", (long) evictionCounter.count());
+        return status;
+    }
+
+    private Stripe stripeFor(String userId){
+        int hash = userId.hashCode();
+        return stripes[Math.floorMod(hash ^ (hash >>> 16), STRIPES)];
+    }
+
+    private static final class Stripe {
+        private final Map<String, UserContext> contexts = new HashMap<>();
+    }
+}
@@ -0,0 +1,6 @@
+-- Leituras por tipo numa janela de tempo (findBySensorTypeAndTimestampAfter/Between, findLatestBySensorType)
+-- e a lista de tipos distintos (findAllSensorTypes, varre só o índice)
+CREATE INDEX IF NOT EXISTS idx_sensor_data_type_timestamp ON sensor_data (sensor_type, timestamp);
+
+-- Janela recente de todos os tipos (findRecentData, aquecimento do hot store, histórico)
+CREATE INDEX IF NOT EXISTS idx_sensor_data_timestamp ON sensor_data (timestamp);
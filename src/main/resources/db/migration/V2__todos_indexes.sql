@@ -0,0 +1,5 @@
+-- Filtro por status com a ordem das listas de ativas (priority, created_at) e contagem de concluídas
+CREATE INDEX IF NOT EXISTS idx_todos_status_priority_created ON todos (status, priority, created_at);
+
+-- Reset em massa e contagem de tarefas ajustadas automaticamente
+CREATE INDEX IF NOT EXISTS idx_todos_auto_adjusted ON todos (auto_adjusted);
@@ -0,0 +1,2 @@
+-- Leituras e histórico dos sensores de um usuário (hot store fora da cobertura, /history, /history/stream)
+CREATE INDEX IF NOT EXISTS idx_sensor_data_owner_timestamp ON sensor_data (owner_id, timestamp);
@@ -0,0 +1,155 @@
+package com.smarttodo.benchmark;
+
+import com.smarttodo.entity.Todo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Regras de pontuação como eram antes do scoring-rules.json (switches fixos no código).
+// Referência para os testes de equivalência e linha de base do ScoringRulesBenchmark
+public final class LegacyScoringRules {
+
+    private LegacyScoringRules(){}
+
+    public static double score(Todo task, String currentMood, LocalDateTime now){
+        double baseScore = 0.5;
+
+        if (task.getRequiredMood() != null){
+            if(task.getRequiredMood().equals(currentMood)){
+                baseScore += 0.4;
+            } else if (areCompatibleMoods(task.getRequiredMood(), currentMood)){
+                baseScore += 0.2;
+            }else {
+                baseScore -= 0.3;
+            }
+        }
+
+        Integer cognitiveLoad = task.getCognitiveLoad();
+        if (cognitiveLoad != null) {
+            double cognitiveAdjustment = cognitiveAdjustment(cognitiveLoad, currentMood);
+            baseScore += cognitiveAdjustment;
+        }
+
+        baseScore += priorityAdjustment(task.getPriority(), currentMood);
+
+        if (task.getDueDate() != null){
+            baseScore += temporalAdjustment(task.getDueDate(), now);
+        }
+
+        if(task.getOptimalEnvironment() != null){
+            baseScore += environmentAdjustment(task.getOptimalEnvironment(), currentMood);
+        }
+
+        return Math.max(0.0, Math.min(1.0, baseScore));
+    }
+
+    static boolean areCompatibleMoods(String requiredMood, String currentMood){
+        Map<String, List<String>> compatibilityMap = Map.of(
+                "focused", List.of("neutral", "creative"),
+                "energetic", List.of("creative", "focused"),
+                "creative", List.of("relaxed", "energetic", "focused"),
+                "relaxed", List.of("neutral", "creative"),
+                "tired", List.of("neutral"),
+                "stressed", List.of("relaxed"),
+                "neutral", List.of("focused", "relaxed", "creative")
+        );
+
+        return compatibilityMap.getOrDefault(requiredMood, List.of()).contains(currentMood);
+    }
+
+    static double cognitiveAdjustment(int cognitiveLoad, String currentMood) {
+        return switch (currentMood) {
+            case "focused" -> {
+                // Focado pode lidar com qualquer carga, mas prefere alta
+                yield cognitiveLoad >= 3 ? 0.3 : 0.1;
+            }
+            case "energetic" -> {
+                // Energético prefere carga média-alta
+                yield cognitiveLoad >= 3 ? 0.2 : cognitiveLoad == 2 ? 0.1 : -0.1;
+            }
+            case "creative" -> {
+                // Criativo prefere carga média
+                yield cognitiveLoad == 2 || cognitiveLoad == 3 ? 0.2 : 0.0;
+            }
+            case "relaxed" -> {
+                // Relaxado prefere carga baixa-média
+                yield cognitiveLoad <= 2 ? 0.2 : -0.2;
+            }
+            case "tired" -> {
+                // Cansado só para carga muito baixa
+                yield cognitiveLoad == 1 ? 0.1 : -0.3;
+            }
+            case "stressed" -> {
+                // Estressado prefere tarefas simples
+                yield cognitiveLoad <= 2 ? 0.1 : -0.4;
+            }
+            default -> 0.0;
+        };
+    }
+
+    static double priorityAdjustment(Todo.Priority priority, String currentMood){
+        if (priority == null) return 0.0;
+
+        return switch (priority){
+            case URGENT -> currentMood.equals("stressed") ? -0.1 : 0.2;
+            case HIGH -> currentMood.equals("focused") || currentMood.equals("energetic") ? 0.15 : 0.0;
+            case MEDIUM -> 0.05;
+            case LOW -> currentMood.equals("relaxed") || currentMood.equals("tired") ? 0.1 : -0.05;
+        };
+    }
+
+    static double temporalAdjustment(LocalDateTime dueDate, LocalDateTime now){
+        return temporalAdjustment(java.time.Duration.between(now, dueDate).toHours());
+    }
+
+    static double temporalAdjustment(long hoursUntilDue){
+        if (hoursUntilDue < 0) return 0.5; // Tarefa atrasada - alta prioridade
+        if (hoursUntilDue <= 4) return 0.3; // Vence em até 4h
+        if (hoursUntilDue <= 24) return 0.1; // Vence hoje
+        if (hoursUntilDue <= 48) return 0.05; // Vence amanhã
+
+        return 0.0;
+    }
+
+    static double environmentAdjustment(String optimalEnvironment, String currentMood){
+        return switch (optimalEnvironment){
+            case "quiet" -> currentMood.equals("focused") || currentMood.equals("creative") ? 0.1 : 0.0;
+            case "collaborative" -> currentMood.equals("energetic") ? 0.1 : currentMood.equals("tired") ? -0.2 : 0.0;
+            case "bright" -> currentMood.equals("energetic") ? 0.1 : 0.0;
+            default -> 0.0;
+        };
+    }
+
+    public static double conditionAdjustment(Todo task, String conditionType) {
+        return switch (conditionType) {
+            case "high_temperature" -> {
+                Integer cognitiveLoad = task.getCognitiveLoad();
+                yield (cognitiveLoad != null && cognitiveLoad <= 2) ? 0.2 : -0.3;
+            }
+            case "low_temperature" -> -0.1;
+            case "high_humidity" -> {
+                Integer cognitiveLoad = task.getCognitiveLoad();
+                yield (cognitiveLoad != null && cognitiveLoad <= 2) ? 0.1 : -0.2;
+            }
+            case "low_light" -> "bright".equals(task.getOptimalEnvironment()) ? -0.4 : -0.1;
+            case "high_light" -> "bright".equals(task.getOptimalEnvironment()) ? 0.3 : 0.0;
+            case "high_noise" -> {
+                String environment = task.getOptimalEnvironment();
+                yield ("quiet".equals(environment)) ? -0.5 : ("collaborative".equals(environment)) ? 0.1 : -0.2;
+            }
+            case "low_noise" -> "quiet".equals(task.getOptimalEnvironment()) ? 0.4 : 0.1;
+            case "poor_air_quality" -> -0.3;
+            case "low_activity" -> task.getPriority() == Todo.Priority.LOW ? 0.2 : -0.1;
+            case "work_mode" -> {
+                Todo.Priority priority = task.getPriority();
+                yield (priority == Todo.Priority.HIGH || priority == Todo.Priority.URGENT) ? 0.2 : 0.1;
+            }
+            case "away_mode" -> {
+                String locationContext = task.getLocationContext();
+                yield ("office".equals(locationContext) || "home".equals(locationContext)) ? -0.4 : 0.0;
+            }
+            default -> 0.0;
+        };
+    }
+}
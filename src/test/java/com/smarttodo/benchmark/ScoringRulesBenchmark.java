@@ -0,0 +1,113 @@
+package com.smarttodo.benchmark;
+
+import com.smarttodo.entity.Todo;
+import com.smarttodo.service.ScoringRules;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por tarefa das regras de humor e de condição ambiental: switches fixos (LegacyScoringRules)
+ * contra as tabelas compiladas do ScoringRules.
+ *
+ * Execução: mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * e depois java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.smarttodo.benchmark.ScoringRulesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoringRulesBenchmark {
+
+	private static final int TASKS = 1024;
+	private static final String[] MOODS = {"focused", "energetic", "creative", "relaxed", "tired", "stressed", "neutral"};
+	private static final String[] CONDITIONS = {"high_temperature", "high_humidity", "low_light", "high_noise", "low_noise", "work_mode", "away_mode"};
+
+	private final Todo[] tasks = new Todo[TASKS];
+	private final ScoringRules rules = ScoringRules.defaults();
+	private final LocalDateTime now = LocalDateTime.now();
+
+	@Setup
+	public void setUp() {
+		String[] requiredMoods = {null, "focused", "energetic", "creative", "relaxed", "tired", "stressed", "neutral"};
+		String[] environments = {null, "quiet", "collaborative", "bright"};
+		String[] locations = {null, "office", "home", "anywhere"};
+
+		Random random = new Random(42);
+		for (int i = 0; i < TASKS; i++) {
+			Todo task = new Todo();
+			task.setRequiredMood(requiredMoods[random.nextInt(requiredMoods.length)]);
+			task.setOptimalEnvironment(environments[random.nextInt(environments.length)]);
+			task.setCognitiveLoad(random.nextInt(6));
+			task.setPriority(Todo.Priority.values()[random.nextInt(4)]);
+			task.setLocationContext(locations[random.nextInt(locations.length)]);
+			if (random.nextBoolean()) {
+				task.setDueDate(now.plusHours(random.nextInt(96) - 24));
+			}
+			tasks[i] = task;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TASKS)
+	public double moodHardCoded() {
+		double sum = 0;
+		for (int i = 0; i < TASKS; i++) {
+			sum += LegacyScoringRules.score(tasks[i], MOODS[i % MOODS.length], now);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TASKS)
+	public double moodCompiled() {
+		double sum = 0;
+		for (int i = 0; i < TASKS; i++) {
+			sum += rules.score(tasks[i], MOODS[i % MOODS.length], now);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TASKS)
+	public double conditionHardCoded() {
+		double sum = 0;
+		for (int i = 0; i < TASKS; i++) {
+			sum += LegacyScoringRules.conditionAdjustment(tasks[i], CONDITIONS[i % CONDITIONS.length]);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(TASKS)
+	public double conditionCompiled() {
+		double sum = 0;
+		for (int i = 0; i < TASKS; i++) {
+			sum += rules.conditionAdjustment(tasks[i], CONDITIONS[i % CONDITIONS.length]);
+		}
+		return sum;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(ScoringRulesBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,76 @@
+package com.smarttodo.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttodo.service.SensorPayloadDecoder;
+import com.smarttodo.service.SensorReading;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara o parse antigo (Map + casts + LocalDateTime.parse) com o SensorPayloadDecoder.
+ *
+ * Execução: mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * e depois java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.smarttodo.benchmark.SensorPayloadDecodingBenchmark
+ * (gc.alloc.rate.norm = bytes alocados por mensagem).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SensorPayloadDecodingBenchmark {
+
+	private static final String PAYLOAD = "{\"sensor_id\": \"temperature_001\", \"value\": 23.7, \"unit\": \"°C\", "
+			+ "\"timestamp\": \"2025-10-14T10:15:30.123456\", \"location\": \"office\", \"quality\": \"good\"}";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final SensorPayloadDecoder decoder = new SensorPayloadDecoder(objectMapper);
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public void mapBased(Blackhole blackhole) throws Exception {
+		Map<String, Object> rawData = objectMapper.readValue(PAYLOAD, Map.class);
+
+		blackhole.consume((String) rawData.get("sensor_id"));
+		blackhole.consume(toDouble(rawData.get("value")));
+		blackhole.consume((String) rawData.get("unit"));
+		blackhole.consume((String) rawData.getOrDefault("location", "home"));
+		blackhole.consume((String) rawData.getOrDefault("quality", "good"));
+		blackhole.consume(LocalDateTime.parse((String) rawData.get("timestamp")));
+	}
+
+	@Benchmark
+	public SensorReading streaming() throws Exception {
+		return decoder.decodeSensor(PAYLOAD);
+	}
+
+	private static Double toDouble(Object value) {
+		if (value == null) return null;
+		if (value instanceof Number) return ((Number) value).doubleValue();
+		return Double.parseDouble(value.toString());
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(SensorPayloadDecodingBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,109 @@
+package com.smarttodo.service;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AdjustmentWorkerTests {
+
+	@Autowired
+	private AdjustmentWorker adjustmentWorker;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void pendingRequestsOfTheSameKindAreSupersededByTheNewest() throws InterruptedException {
+		CountDownLatch busy = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(2);
+		List<String> ran = new CopyOnWriteArrayList<>();
+		long supersededBefore = adjustmentWorker.getSupersededCount();
+
+		// Segura o worker para os próximos pedidos ficarem pendentes
+		adjustmentWorker.submit("test-blocker", () -> {
+			busy.countDown();
+			await(release);
+		});
+		assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+		assertTrue(adjustmentWorker.submit("test-location", () -> ran.add("office")));
+		assertFalse(adjustmentWorker.submit("test-location", () -> ran.add("home")));
+		assertFalse(adjustmentWorker.submit("test-location", () -> {
+			ran.add("gym");
+			done.countDown();
+		}));
+		adjustmentWorker.submit("test-temperature", () -> {
+			ran.add("high_temperature");
+			done.countDown();
+		});
+		assertEquals(2, adjustmentWorker.getQueueDepth());
+
+		release.countDown();
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+
+		// Só o pedido mais recente de cada tipo roda; tipos diferentes não se substituem
+		assertEquals(List.of("gym", "high_temperature"), ran);
+		assertEquals(supersededBefore + 2, adjustmentWorker.getSupersededCount());
+	}
+
+	@Test
+	void requestsAreKeyedPerUserButCountedPerKind() throws InterruptedException {
+		CountDownLatch busy = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch done = new CountDownLatch(2);
+		List<String> ran = new CopyOnWriteArrayList<>();
+
+		adjustmentWorker.submit("test-blocker", () -> {
+			busy.countDown();
+			await(release);
+		});
+		assertTrue(busy.await(5, TimeUnit.SECONDS));
+
+		// Usuários diferentes não se substituem
+		assertTrue(adjustmentWorker.submit("alice", "test-kind", () -> ran.add("alice-office")));
+		assertTrue(adjustmentWorker.submit("bob", "test-kind", () -> {
+			ran.add("bob-home");
+			done.countDown();
+		}));
+		assertFalse(adjustmentWorker.submit("alice", "test-kind", () -> {
+			ran.add("alice-gym");
+			done.countDown();
+		}));
+
+		release.countDown();
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of("alice-gym", "bob-home"), ran);
+
+		// A série do superseded é por tipo; o usuário não vira tag nem chave
+		assertEquals(1.0, meterRegistry.get("smarttodo.adjustments.worker.superseded").tag("kind", "test-kind").counter().count());
+		for (Meter meter : meterRegistry.find("smarttodo.adjustments.worker.superseded").meters()){
+			assertFalse(meter.getId().getTag("kind").contains("alice"), meter.getId().toString());
+		}
+		@SuppressWarnings("unchecked")
+		Map<String, Long> byKind = (Map<String, Long>) adjustmentWorker.getStatus().get("supersededByKind");
+		assertEquals(1L, byKind.get("test-kind"));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
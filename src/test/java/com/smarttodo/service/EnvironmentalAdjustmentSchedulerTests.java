@@ -0,0 +1,101 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.IoTProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class EnvironmentalAdjustmentSchedulerTests {
+
+	// Usuário próprio: as passadas disparadas não encontram tarefas e não mexem nos outros testes
+	private static final String USER = "scheduler-test";
+
+	@Autowired
+	private EnvironmentalAdjustmentScheduler scheduler;
+
+	@Autowired
+	private IoTProperties ioTProperties;
+
+	private long coalesceWindow;
+
+	@BeforeEach
+	void clearTriggers() {
+		coalesceWindow = ioTProperties.getAdjustments().getCoalesceWindow();
+		ioTProperties.getAdjustments().setCoalesceWindow(60000);
+		scheduler.clear(USER, "temperature");
+		scheduler.clear(USER, "light");
+	}
+
+	@AfterEach
+	void restoreWindow() {
+		ioTProperties.getAdjustments().setCoalesceWindow(coalesceWindow);
+	}
+
+	@Test
+	void sameConditionInsideTheWindowIsAbsorbedAndCounted() {
+		long fired = count("firedByCondition", "high_temperature");
+		long absorbed = count("absorbedByCondition", "high_temperature");
+
+		assertTrue(scheduler.trigger(USER, "temperature", "high_temperature", 31.0));
+		assertFalse(scheduler.trigger(USER, "temperature", "high_temperature", 31.5));
+		assertFalse(scheduler.trigger(USER, "temperature", "high_temperature", 32.0));
+
+		assertEquals(fired + 1, count("firedByCondition", "high_temperature"));
+		assertEquals(absorbed + 2, count("absorbedByCondition", "high_temperature"));
+		assertEquals("high_temperature", activeCondition("temperature").get("condition"));
+	}
+
+	@Test
+	void conditionChangeFiresImmediately() {
+		assertTrue(scheduler.trigger(USER, "temperature", "high_temperature", 31.0));
+		assertTrue(scheduler.trigger(USER, "temperature", "low_temperature", 12.0));
+		assertEquals("low_temperature", activeCondition("temperature").get("condition"));
+
+		// Outro sensor do mesmo usuário tem a própria janela
+		assertTrue(scheduler.trigger(USER, "light", "low_light", 40.0));
+		assertFalse(scheduler.trigger(USER, "temperature", "low_temperature", 11.0));
+	}
+
+	@Test
+	void conditionFiresAgainOnceTheWindowExpires() throws InterruptedException {
+		ioTProperties.getAdjustments().setCoalesceWindow(50);
+
+		assertTrue(scheduler.trigger(USER, "light", "low_light", 40.0));
+		assertFalse(scheduler.trigger(USER, "light", "low_light", 40.0));
+		Thread.sleep(80);
+		assertTrue(scheduler.trigger(USER, "light", "low_light", 40.0));
+	}
+
+	@Test
+	void clearResetsTheKey() {
+		assertTrue(scheduler.trigger(USER, "temperature", "high_temperature", 31.0));
+		scheduler.clear(USER, "temperature");
+
+		assertNull(activeCondition("temperature"));
+		assertTrue(scheduler.trigger(USER, "temperature", "high_temperature", 31.0));
+	}
+
+	@SuppressWarnings("unchecked")
+	private long count(String section, String conditionType) {
+		Map<String, Long> counters = (Map<String, Long>) scheduler.getStatus().get(section);
+		return counters.getOrDefault(conditionType, 0L);
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> activeCondition(String sensorType) {
+		Map<String, Map<String, Map<String, Object>>> active =
+				(Map<String, Map<String, Map<String, Object>>>) scheduler.getStatus().get("activeConditions");
+		return active.getOrDefault(USER, Map.of()).get(sensorType);
+	}
+
+}
@@ -0,0 +1,133 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.IoTProperties;
+import com.smarttodo.entity.SensorData;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InfluxSensorSinkTests {
+
+	private HttpServer server;
+	private final List<String> batches = new CopyOnWriteArrayList<>();
+	private final AtomicInteger failuresBeforeSuccess = new AtomicInteger();
+
+	private InfluxSensorSink sink;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/api/v2/write", exchange -> {
+			String body = readBody(exchange.getRequestBody(), exchange.getRequestHeaders().getFirst("Content-Encoding"));
+			if (failuresBeforeSuccess.getAndDecrement() > 0) {
+				exchange.sendResponseHeaders(503, -1);
+			} else {
+				batches.add(body);
+				exchange.sendResponseHeaders(204, -1);
+			}
+			exchange.close();
+		});
+		server.start();
+
+		IoTProperties properties = new IoTProperties();
+		IoTProperties.InfluxDB influx = properties.getInfluxDB();
+		influx.setEnabled(true);
+		influx.setUrl("http://127.0.0.1:" + server.getAddress().getPort());
+		influx.setToken("test-token");
+		influx.setOrg("smarttodo");
+		influx.setBucket("sensors");
+		influx.setBatchSize(3);
+		influx.setFlushInterval(200);
+		influx.setRetryInterval(100);
+
+		sink = new InfluxSensorSink();
+		ReflectionTestUtils.setField(sink, "ioTProperties", properties);
+		ReflectionTestUtils.setField(sink, "meterRegistry", new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void stopServer() {
+		sink.shutdown();
+		server.stop(0);
+	}
+
+	@Test
+	void formatsLineProtocolWithEscapedTags() {
+		LocalDateTime timestamp = LocalDateTime.of(2025, 10, 14, 10, 15, 30, 123456789);
+		SensorData data = new SensorData("temp 1", "temperature", 23.5, "°C", "living room,north");
+		data.setQuality("good");
+		data.setTimestamp(timestamp);
+
+		long nanos = timestamp.atZone(ZoneId.systemDefault()).toEpochSecond() * 1_000_000_000L + 123456789;
+		assertEquals("sensor_data,sensor_type=temperature,sensor_id=temp\\ 1,location=living\\ room\\,north,"
+				+ "unit=°C,quality=good value=23.5 " + nanos, sink.toLineProtocol(data));
+	}
+
+	@Test
+	void writesBatchesToInflux() throws Exception {
+		sink.start();
+		assertTrue(sink.isEnabled());
+
+		for (int i = 0; i < 7; i++) {
+			sink.write(reading(i));
+		}
+		sink.shutdown();
+
+		long lines = batches.stream().mapToLong(batch -> batch.lines().count()).sum();
+		assertEquals(7, lines);
+		assertTrue(batches.get(0).startsWith("sensor_data,sensor_type=temperature,sensor_id=influx_1"));
+		assertEquals(7L, sink.getStatus().get("writtenPoints"));
+	}
+
+	@Test
+	void retriesBatchWhenServerIsUnavailable() throws Exception {
+		failuresBeforeSuccess.set(1);
+		sink.start();
+
+		sink.write(reading(1));
+
+		// close() não espera o reenvio agendado, então aguarda o lote chegar e o evento de sucesso ser contado
+		long deadline = System.currentTimeMillis() + 5000;
+		while ((batches.isEmpty() || !Long.valueOf(1L).equals(sink.getStatus().get("writtenPoints")))
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		sink.shutdown();
+
+		assertEquals(1, batches.size());
+		assertEquals(1L, sink.getStatus().get("retriedBatches"));
+		assertEquals(1L, sink.getStatus().get("writtenPoints"));
+	}
+
+	private SensorData reading(int index) {
+		SensorData data = new SensorData("influx_1", "temperature", 20.0 + index, "°C", "office");
+		data.setTimestamp(LocalDateTime.now().plusNanos(index));
+		return data;
+	}
+
+	private String readBody(InputStream in, String encoding) throws IOException {
+		InputStream body = "gzip".equalsIgnoreCase(encoding) ? new GZIPInputStream(in) : in;
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		body.transferTo(out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,104 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.IoTProperties;
+import com.smarttodo.config.ScoringProperties;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class IotServiceTests {
+
+	private static final String USER = "location-test";
+
+	@Autowired
+	private IotService iotService;
+
+	@Autowired
+	private IoTProperties ioTProperties;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private TaskScoringIndex taskScoringIndex;
+
+	@Autowired
+	private ScoreLedger scoreLedger;
+
+	@Autowired
+	private ScoringProperties scoringProperties;
+
+	private long decayHalfLife;
+
+	@BeforeEach
+	void clearTasks() {
+		// Valores exatos: sem decaimento na leitura
+		decayHalfLife = scoringProperties.getDecayHalfLife();
+		scoringProperties.setDecayHalfLife(0);
+		scoreLedger.compact();
+		todoRepository.deleteAll();
+		taskScoringIndex.rebuild();
+	}
+
+	@AfterEach
+	void restoreProperties() {
+		scoringProperties.setDecayHalfLife(decayHalfLife);
+		ioTProperties.getUsers().getLocationTopicUsers().clear();
+	}
+
+	@Test
+	void locationMessageAdjustsTheTasksOfThePayloadUser() throws InterruptedException {
+		Todo owned = task(USER, "office");
+		Todo other = task("001", "office");
+
+		// Mesmo formato do simulador: o tópico traz um id de dispositivo, o payload o usuário
+		iotService.handleMqttMessage("{\"user_id\": \"" + USER + "\", \"location\": \"office\", \"confidence\": 0.95}",
+				"location/user/001");
+
+		awaitScore(owned, 0.9);
+		assertEquals("office", iotService.getCurrentLocation(USER));
+		assertEquals(0.5, scoreLedger.effectiveScore(other.getId()), 1e-9);
+	}
+
+	@Test
+	void locationMessageWithoutUserIdUsesTheTopicMapping() throws InterruptedException {
+		ioTProperties.getUsers().getLocationTopicUsers().put("phone-7", USER);
+		Todo owned = task(USER, "gym");
+
+		iotService.handleMqttMessage("{\"location\": \"gym\", \"confidence\": 0.95}", "location/user/phone-7");
+
+		awaitScore(owned, 0.9);
+		assertEquals("gym", iotService.getCurrentLocation(USER));
+	}
+
+	// A passada de localização roda no worker de ajustes
+	private void awaitScore(Todo task, double expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (Math.abs(scoreLedger.effectiveScore(task.getId()) - expected) > 1e-9 && System.currentTimeMillis() < deadline){
+			Thread.sleep(20);
+		}
+		assertEquals(expected, scoreLedger.effectiveScore(task.getId()), 1e-9);
+	}
+
+	private Todo task(String owner, String location) {
+		Todo todo = new Todo();
+		todo.setTitle("location test");
+		todo.setOwnerId(owner);
+		todo.setLocationContext(location);
+		todo.setMoodCompatibilityScore(0.5);
+		return todoService.save(todo);
+	}
+
+}
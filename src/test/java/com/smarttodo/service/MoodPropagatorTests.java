@@ -0,0 +1,147 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.ComputerVisionProperties;
+import com.smarttodo.config.IoTProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class MoodPropagatorTests {
+
+	// Relógio próprio, sempre crescente entre os testes (o propagador é um singleton do contexto)
+	private static long clock = System.currentTimeMillis();
+
+	@Autowired
+	private MoodPropagator moodPropagator;
+
+	@Autowired
+	private ComputerVisionProperties cvProperties;
+
+	@Autowired
+	private AdjustmentWorker adjustmentWorker;
+
+	@Autowired
+	private UserContextRegistry userContextRegistry;
+
+	@Autowired
+	private IoTProperties ioTProperties;
+
+	private int confirmAnalyses;
+	private long confirmWindow;
+	private long rescoreInterval;
+
+	@BeforeEach
+	void saveProperties() {
+		confirmAnalyses = cvProperties.getMoodConfirmAnalyses();
+		confirmWindow = cvProperties.getMoodConfirmWindow();
+		rescoreInterval = cvProperties.getMoodRescoreInterval();
+		cvProperties.setMoodConfirmAnalyses(3);
+		cvProperties.setMoodConfirmWindow(15000);
+		cvProperties.setMoodRescoreInterval(60000);
+		clock += TimeUnit.HOURS.toMillis(1);
+	}
+
+	@AfterEach
+	void restoreProperties() throws InterruptedException {
+		cvProperties.setMoodConfirmAnalyses(confirmAnalyses);
+		cvProperties.setMoodConfirmWindow(confirmWindow);
+		cvProperties.setMoodRescoreInterval(rescoreInterval);
+		drainWorker();
+	}
+
+	@Test
+	void flickeringMoodNeverConfirms() {
+		String stable = moodPropagator.getStableMood();
+		String other = other(stable);
+
+		for (int i = 0; i < 10; i++) {
+			assertFalse(moodPropagator.observe(i % 2 == 0 ? other : stable, tick(5000)));
+		}
+		assertEquals(stable, moodPropagator.getStableMood());
+	}
+
+	@Test
+	void moodConfirmsAfterConsecutiveAnalysesOrWindow() {
+		String first = other(moodPropagator.getStableMood());
+		assertFalse(moodPropagator.observe(first, tick(1000)));
+		assertFalse(moodPropagator.observe(first, tick(1000)));
+		assertTrue(moodPropagator.observe(first, tick(1000)));
+		assertEquals(first, moodPropagator.getStableMood());
+
+		// Análises espaçadas: vale o tempo com o novo humor, mesmo antes das 3 análises
+		String second = other(first);
+		assertFalse(moodPropagator.observe(second, tick(1000)));
+		assertTrue(moodPropagator.observe(second, tick(15000)));
+		assertEquals(second, moodPropagator.getStableMood());
+	}
+
+	@Test
+	void rescoringRespectsMinimumInterval() {
+		cvProperties.setMoodConfirmAnalyses(1);
+		long submitted = (long) moodPropagator.getStatus().get("rescoringSubmitted");
+		long deferred = (long) moodPropagator.getStatus().get("rescoringDeferred");
+
+		String first = other(moodPropagator.getStableMood());
+		assertTrue(moodPropagator.observe(first, tick(1000)));
+		String second = other(first);
+		assertTrue(moodPropagator.observe(second, tick(1000)));
+
+		assertEquals(submitted + 1, moodPropagator.getStatus().get("rescoringSubmitted"));
+		assertEquals(deferred + 1, moodPropagator.getStatus().get("rescoringDeferred"));
+		assertEquals(second, moodPropagator.getStatus().get("pendingMood"));
+
+		// O humor adiado sai quando o intervalo termina
+		moodPropagator.flushPending(tick(60000));
+		assertEquals(submitted + 2, moodPropagator.getStatus().get("rescoringSubmitted"));
+		assertNull(moodPropagator.getStatus().get("pendingMood"));
+	}
+
+	@Test
+	void readsDoNotCreateContextsAndIdleOnesAreEvicted() {
+		moodPropagator.getStatus("context-reader");
+		assertEquals("neutral", moodPropagator.getStableMood("context-reader"));
+		assertNull(userContextRegistry.find("context-reader"));
+
+		String stable = moodPropagator.getStableMood("context-idle");
+		moodPropagator.observe("context-idle", stable, tick(0));
+		moodPropagator.observe("context-changing", other(stable), tick(0));
+		assertNotNull(userContextRegistry.find("context-idle"));
+
+		long idleTimeout = ioTProperties.getUsers().getContextIdleTimeout();
+		userContextRegistry.evictIdle(System.currentTimeMillis() + idleTimeout);
+
+		// Troca de humor em andamento e o usuário padrão ficam
+		assertNull(userContextRegistry.find("context-idle"));
+		assertNotNull(userContextRegistry.find("context-changing"));
+		assertNotNull(userContextRegistry.find(UserContextRegistry.DEFAULT_USER));
+	}
+
+	private static long tick(long millis) {
+		clock += millis;
+		return clock;
+	}
+
+	private static String other(String mood) {
+		return "focused".equals(mood) ? "relaxed" : "focused";
+	}
+
+	// As passadas de humor rodam no worker: espera terminarem antes do próximo teste
+	private void drainWorker() throws InterruptedException {
+		CountDownLatch drained = new CountDownLatch(1);
+		adjustmentWorker.submit("test-drain", drained::countDown);
+		assertTrue(drained.await(10, TimeUnit.SECONDS));
+	}
+
+}
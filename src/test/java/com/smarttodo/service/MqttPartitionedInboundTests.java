@@ -0,0 +1,65 @@
+package com.smarttodo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.integration.mqtt.support.MqttHeaders;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class MqttPartitionedInboundTests {
+
+	@Autowired
+	@Qualifier("mqttInputChannel")
+	private MessageChannel mqttInputChannel;
+
+	@Autowired
+	private MqttPartitionMonitor mqttPartitionMonitor;
+
+	@Autowired
+	private IotService iotService;
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void keepsPerSensorOrderAcrossPartitions() throws InterruptedException {
+		int sensors = 8;
+		int readings = 200;
+
+		for (int i = 0; i < readings; i++) {
+			for (int s = 0; s < sensors; s++) {
+				String payload = "{\"sensor_id\": \"ordering_" + s + "\", \"value\": " + i + ", \"unit\": \"u\"}";
+				mqttInputChannel.send(MessageBuilder.withPayload(payload)
+						.setHeader(MqttHeaders.RECEIVED_TOPIC, "sensors/ordering_" + s + "/data")
+						.build());
+			}
+		}
+
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (processed() < (long) sensors * readings && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+
+		for (int s = 0; s < sensors; s++) {
+			assertEquals((double) readings - 1, iotService.getLatestSensorData("ordering_" + s).getValue());
+		}
+
+		List<Map<String, Object>> partitions = (List<Map<String, Object>>) mqttPartitionMonitor.getStatus().get("partitions");
+		assertEquals(4, partitions.size());
+		assertEquals(0, partitions.stream().mapToInt(p -> (int) p.get("pending")).sum());
+		assertEquals((long) sensors * readings, processed());
+	}
+
+	@SuppressWarnings("unchecked")
+	private long processed() {
+		List<Map<String, Object>> partitions = (List<Map<String, Object>>) mqttPartitionMonitor.getStatus().get("partitions");
+		return partitions.stream().mapToLong(p -> (long) p.get("processed")).sum();
+	}
+
+}
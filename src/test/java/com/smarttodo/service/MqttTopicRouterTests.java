@@ -0,0 +1,54 @@
+package com.smarttodo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MqttTopicRouterTests {
+
+	private final MqttTopicRouter router = new MqttTopicRouter();
+	private final List<String> calls = new ArrayList<>();
+
+	@Test
+	void routesWildcardPatternsAndExtractsSegments() throws Exception {
+		router.register("sensors/+/data", (match, payload) -> calls.add("sensor:" + match.segment(0)));
+		router.register("location/user/+", (match, payload) -> calls.add("location:" + match.segment(0)));
+		router.register("devices/#", (match, payload) -> calls.add("device:" + match.segment(0)));
+
+		assertTrue(router.route("sensors/temperature/data", "{}"));
+		assertTrue(router.route("location/user/001", "{}"));
+		assertTrue(router.route("devices/lamp/1/state", "{}"));
+		assertTrue(router.route("devices", "{}"));
+		assertFalse(router.route("sensors/temperature/raw", "{}"));
+		assertFalse(router.route("sensors/temperature", "{}"));
+
+		assertEquals(List.of("sensor:temperature", "location:001", "device:lamp/1/state", "device:"), calls);
+	}
+
+	@Test
+	void prefersLiteralLevelsAndBacktracksToWildcards() throws Exception {
+		router.register("sensors/kitchen/status", (match, payload) -> calls.add("status"));
+		router.register("sensors/+/data", (match, payload) -> calls.add("data:" + match.segment(0)));
+
+		assertTrue(router.route("sensors/kitchen/status", "{}"));
+		assertTrue(router.route("sensors/kitchen/data", "{}"));
+		assertTrue(router.route("sensors/kitchen/data", "{}"));
+
+		assertEquals(List.of("status", "data:kitchen", "data:kitchen"), calls);
+	}
+
+	@Test
+	void rejectsInvalidPatterns() {
+		assertThrows(IllegalArgumentException.class, () -> router.register("sensors/#/data", (match, payload) -> {}));
+		assertThrows(IllegalArgumentException.class, () -> router.register("sensors/temp+/data", (match, payload) -> {}));
+		router.register("sensors/+/data", (match, payload) -> {});
+		assertThrows(IllegalStateException.class, () -> router.register("sensors/+/data", (match, payload) -> {}));
+	}
+
+}
@@ -0,0 +1,161 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.SensorData;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.SensorDataRepository;
+import com.smarttodo.repository.SensorDataView;
+import com.smarttodo.repository.TaskCounts;
+import com.smarttodo.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SchemaMigrationTests {
+
+	@Autowired
+	private SchemaMigrationService schemaMigrationService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SensorDataRepository sensorDataRepository;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TaskScoringIndex taskScoringIndex;
+
+	@Autowired
+	private TaskStatistics taskStatistics;
+
+	@BeforeEach
+	void clearData() {
+		sensorDataRepository.deleteAll();
+		todoRepository.deleteAll();
+		taskScoringIndex.rebuild();
+	}
+
+	@Test
+	void migrationsAreAppliedOnceInVersionOrder() {
+		assertEquals(3, schemaMigrationService.getCurrentVersion());
+		assertEquals(List.of(1, 2, 3), jdbcTemplate.queryForList(
+				"SELECT version FROM schema_migrations ORDER BY version", Integer.class));
+
+		assertEquals(0, schemaMigrationService.migrate());
+		assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_migrations", Integer.class));
+	}
+
+	@Test
+	void hotQueriesUseTheMigratedIndexes() {
+		assertUsesIndex("idx_sensor_data_type_timestamp",
+				"SELECT * FROM sensor_data WHERE sensor_type = 'temperature' AND timestamp >= TIMESTAMP '2024-01-01 00:00:00' " +
+				"ORDER BY timestamp DESC");
+		assertUsesIndex("idx_sensor_data_timestamp",
+				"SELECT * FROM sensor_data WHERE timestamp >= TIMESTAMP '2024-01-01 00:00:00' ORDER BY timestamp DESC");
+		assertUsesIndex("idx_todos_auto_adjusted",
+				"SELECT * FROM todos WHERE auto_adjusted = TRUE");
+	}
+
+	@Test
+	void activeTaskQueriesUseTheTodoIndexes() {
+		// O SQL que o Hibernate gera para os métodos do repositório, não uma versão escrita à mão
+		String global = generatedSql(() -> todoRepository.findActiveTasks());
+		assertUsesIndex("idx_todos_status_priority_created", global);
+		assertEquals(global, generatedSql(() -> todoRepository.findActiveTasksForScoring()));
+		assertUsesIndex("idx_todos_status_priority_created", generatedSql(() -> todoRepository.countCompletedTasks()));
+
+		String owned = generatedSql(() -> todoRepository.findActiveTasks("default"));
+		assertUsesIndex("idx_todos_owner_status", owned, "default");
+		assertEquals(owned, generatedSql(() -> todoRepository.findActiveTasksForScoring("default")));
+	}
+
+	@Test
+	void ownerHistoryQueryUsesTheOwnerIndex() {
+		LocalDateTime since = LocalDateTime.now().minusHours(1);
+		String history = generatedSql("sensor_data", () -> sensorDataRepository.findRecentDataView("default", since));
+		assertUsesIndex("idx_sensor_data_owner_timestamp", history, "default", Timestamp.valueOf(since));
+	}
+
+	@Test
+	void historyProjectionCarriesOnlyTheReturnedColumns() {
+		SensorData reading = new SensorData("temp_01", "temperature", 22.5, "°C", "office");
+		reading.setQuality("good");
+		sensorDataRepository.save(reading);
+		SensorData old = new SensorData("temp_01", "temperature", 19.0, "°C", "office");
+		old.setTimestamp(LocalDateTime.now().minusDays(3));
+		sensorDataRepository.save(old);
+		SensorData otherOwner = new SensorData("temp_01", "temperature", 30.0, "°C", "office");
+		otherOwner.setOwnerId("alice");
+		sensorDataRepository.save(otherOwner);
+
+		List<SensorDataView> recent = sensorDataRepository.findRecentDataView("default", LocalDateTime.now().minusHours(1));
+
+		assertEquals(1, recent.size());
+		assertEquals("temperature", recent.get(0).sensorType());
+		assertEquals(22.5, recent.get(0).value());
+		assertEquals("good", recent.get(0).quality());
+	}
+
+	@Test
+	void dashboardCountsAreAggregatedPerOwner() {
+		todoService.save(task("default", false, Todo.TaskStatus.PENDING));
+		todoService.save(task("alice", true, Todo.TaskStatus.PENDING));
+		todoService.save(task("alice", false, Todo.TaskStatus.IN_PROGRESS));
+		todoService.save(task("alice", true, Todo.TaskStatus.COMPLETED));
+
+		assertEquals(new TaskCounts(3, 2, 2), taskStatistics.counts("alice"));
+		assertEquals(new TaskCounts(1, 1, 0), taskStatistics.counts("default"));
+		assertEquals(new TaskCounts(4, 3, 2), taskStatistics.counts(null));
+		assertEquals(new TaskCounts(0, 0, 0), taskStatistics.counts("nobody"));
+	}
+
+	private void assertUsesIndex(String index, String sql, Object... args) {
+		String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, args);
+		assertTrue(plan.toUpperCase().contains(index.toUpperCase()), "Plano sem " + index + ": " + plan);
+	}
+
+	private String generatedSql(Runnable query) {
+		return generatedSql("todos", query);
+	}
+
+	// SELECT na tabela registrado pelo H2 durante a chamada
+	private String generatedSql(String table, Runnable query) {
+		jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+		jdbcTemplate.execute("SET QUERY_STATISTICS TRUE");
+		try {
+			query.run();
+			List<String> statements = jdbcTemplate.queryForList(
+					"SELECT DISTINCT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS " +
+					"WHERE LOWER(SQL_STATEMENT) LIKE ?", String.class, "select%from " + table + "%");
+			assertEquals(1, statements.size(), statements.toString());
+			return statements.get(0);
+		} finally {
+			jdbcTemplate.execute("SET QUERY_STATISTICS FALSE");
+		}
+	}
+
+	private Todo task(String owner, boolean autoAdjusted, Todo.TaskStatus status) {
+		Todo todo = new Todo();
+		todo.setTitle("schema test");
+		todo.setOwnerId(owner);
+		todo.setAutoAdjusted(autoAdjusted);
+		todo.setStatus(status);
+		return todo;
+	}
+
+}
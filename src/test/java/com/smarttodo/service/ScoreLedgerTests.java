@@ -0,0 +1,212 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.ScoringProperties;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ScoreLedgerTests {
+
+	@Autowired
+	private ScoreLedger scoreLedger;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TaskAdjustmentService taskAdjustmentService;
+
+	@Autowired
+	private TaskScoringIndex taskScoringIndex;
+
+	@Autowired
+	private ScoringProperties scoringProperties;
+
+	private long decayHalfLife;
+
+	private int ledgerCacheSize;
+
+	@BeforeEach
+	void clearTasks() {
+		// Valores exatos: o decaimento fica desligado, exceto nos testes dele
+		decayHalfLife = scoringProperties.getDecayHalfLife();
+		scoringProperties.setDecayHalfLife(0);
+		ledgerCacheSize = scoringProperties.getLedgerCacheSize();
+		scoreLedger.compact();
+		todoRepository.deleteAll();
+		taskScoringIndex.rebuild();
+	}
+
+	@AfterEach
+	void restoreDecay() {
+		scoringProperties.setDecayHalfLife(decayHalfLife);
+		scoringProperties.setLedgerCacheSize(ledgerCacheSize);
+	}
+
+	@Test
+	void foldClampsEachEventInOrder() {
+		Todo todo = todoService.save(task(0.8));
+
+		scoreLedger.append("test:up", Map.of(todo.getId(), 0.3));
+		ScoreLedger.Appended saturated = scoreLedger.append("test:up", Map.of(todo.getId(), 0.3));
+		scoreLedger.append("test:down", Map.of(todo.getId(), -0.4));
+
+		// 0.8 + 0.3 satura em 1.0; o segundo +0.3 não muda nada e não vira evento
+		assertEquals(0, saturated.events());
+		assertEquals(2, scoreLedger.getPendingEvents());
+
+		// Sem cache o resultado vem da dobra checkpoint + eventos e tem que ser o mesmo
+		scoreLedger.invalidateAll();
+		assertEquals(0.6, scoreLedger.effectiveScore(todo.getId()), 1e-9);
+	}
+
+	@Test
+	void readsShowEffectiveScoreBeforeCompaction() {
+		Todo todo = todoService.save(task(0.5));
+		scoreLedger.append("test:up", Map.of(todo.getId(), 0.2));
+
+		Todo stored = todoRepository.findById(todo.getId()).orElseThrow();
+		assertEquals(0.5, stored.getMoodCompatibilityScore(), 1e-9);
+
+		Todo read = todoService.findById(todo.getId()).orElseThrow();
+		assertEquals(0.7, read.getMoodCompatibilityScore(), 1e-9);
+		assertTrue(read.getAutoAdjusted());
+	}
+
+	@Test
+	void compactionWritesCheckpointAndDropsEvents() {
+		Todo first = todoService.save(task(0.5));
+		Todo second = todoService.save(task(0.2));
+		scoreLedger.append("test:up", Map.of(first.getId(), 0.2, second.getId(), 0.1));
+		scoreLedger.append("test:down", Map.of(first.getId(), -0.1));
+
+		assertEquals(3, scoreLedger.compact());
+		assertEquals(0, scoreLedger.getPendingEvents());
+
+		Todo storedFirst = todoRepository.findById(first.getId()).orElseThrow();
+		assertEquals(0.6, storedFirst.getMoodCompatibilityScore(), 1e-9);
+		assertTrue(storedFirst.getAutoAdjusted());
+		assertNotNull(storedFirst.getLastMoodCheck());
+
+		assertEquals(0.3, todoRepository.findById(second.getId()).orElseThrow().getMoodCompatibilityScore(), 1e-9);
+		assertEquals(0.6, scoreLedger.effectiveScore(first.getId()), 1e-9);
+	}
+
+	@Test
+	void effectiveScoreCacheKeepsOnlyTheMostRecentlyReadTasks() {
+		Todo first = todoService.save(task(0.5));
+		Todo second = todoService.save(task(0.5));
+		Todo third = todoService.save(task(0.5));
+		scoreLedger.append("test:up", Map.of(first.getId(), 0.2, second.getId(), 0.2, third.getId(), 0.2));
+		scoreLedger.invalidateAll();
+		scoringProperties.setLedgerCacheSize(2);
+		long evictions = (Long) scoreLedger.getStatus().get("cacheEvictions");
+
+		scoreLedger.effectiveScore(first.getId());
+		scoreLedger.effectiveScore(second.getId());
+		scoreLedger.effectiveScore(first.getId());
+		scoreLedger.effectiveScore(third.getId());
+
+		// second era o menos usado; relido, volta do banco com o mesmo valor
+		Map<String, Object> status = scoreLedger.getStatus();
+		assertEquals(2, status.get("cachedScores"));
+		assertEquals(evictions + 1, status.get("cacheEvictions"));
+		long misses = (Long) status.get("cacheMisses");
+		assertEquals(0.7, scoreLedger.effectiveScore(first.getId()), 1e-9);
+		assertEquals(misses, scoreLedger.getStatus().get("cacheMisses"));
+		assertEquals(0.7, scoreLedger.effectiveScore(second.getId()), 1e-9);
+		assertEquals(misses + 1, scoreLedger.getStatus().get("cacheMisses"));
+	}
+
+	@Test
+	void autoAdjustmentDecaysTowardBaseScoreOnRead() {
+		Todo todo = task(0.9);
+		todo.setAutoAdjusted(true);
+		todo.setLastMoodCheck(LocalDateTime.now().minusHours(2));
+		todo = todoService.save(todo);
+
+		scoringProperties.setDecayHalfLife(Duration.ofHours(2).toMillis());
+
+		// Uma meia-vida: metade da distância até o score base (0.5)
+		assertEquals(0.7, scoreLedger.effectiveScore(todo.getId()), 1e-3);
+		assertEquals(0.7, todoService.findById(todo.getId()).orElseThrow().getMoodCompatibilityScore(), 1e-3);
+
+		// Nada foi reescrito: o decaimento é só na leitura
+		assertEquals(0.9, todoRepository.findById(todo.getId()).orElseThrow().getMoodCompatibilityScore(), 1e-9);
+	}
+
+	@Test
+	void scoresWithoutAutoAdjustmentDoNotDecay() {
+		Todo todo = task(0.9);
+		todo.setLastMoodCheck(LocalDateTime.now().minusHours(2));
+		todo = todoService.save(todo);
+
+		scoringProperties.setDecayHalfLife(Duration.ofHours(2).toMillis());
+		assertEquals(0.9, scoreLedger.effectiveScore(todo.getId()), 1e-9);
+	}
+
+	@Test
+	void resetClearsAutoAdjustedRowsInOneUpdate() {
+		Todo adjusted = todoService.save(task(0.5));
+		Todo untouched = todoService.save(task(0.4));
+		scoreLedger.append("test:up", Map.of(adjusted.getId(), 0.3));
+
+		assertEquals(1, taskAdjustmentService.resetAutoAdjustment());
+
+		Todo stored = todoRepository.findById(adjusted.getId()).orElseThrow();
+		assertEquals(0.0, stored.getMoodCompatibilityScore(), 1e-9);
+		assertFalse(stored.getAutoAdjusted());
+		assertEquals(0.0, scoreLedger.effectiveScore(adjusted.getId()), 1e-9);
+		assertEquals(0.4, todoRepository.findById(untouched.getId()).orElseThrow().getMoodCompatibilityScore(), 1e-9);
+	}
+
+	@Test
+	void compactionAndResetOfOneOwnerLeaveOtherOwnersAlone() {
+		Todo alice = task(0.5);
+		alice.setOwnerId("ledger-alice");
+		alice = todoService.save(alice);
+		Todo bob = task(0.5);
+		bob.setOwnerId("ledger-bob");
+		bob = todoService.save(bob);
+		scoreLedger.append("test:up", Map.of(alice.getId(), 0.2, bob.getId(), 0.1));
+
+		assertEquals(1, scoreLedger.compact("ledger-alice"));
+		assertEquals(1, scoreLedger.getPendingEvents());
+		assertTrue(todoRepository.findById(alice.getId()).orElseThrow().getAutoAdjusted());
+		Todo storedBob = todoRepository.findById(bob.getId()).orElseThrow();
+		assertEquals(0.5, storedBob.getMoodCompatibilityScore(), 1e-9);
+		assertFalse(storedBob.getAutoAdjusted());
+
+		assertEquals(1, taskAdjustmentService.resetAutoAdjustment("ledger-alice"));
+		assertEquals(0.0, scoreLedger.effectiveScore(alice.getId()), 1e-9);
+		// O evento de bob continua pendente e o score efetivo dele não mudou
+		assertEquals(1, scoreLedger.getPendingEvents());
+		assertEquals(0.6, scoreLedger.effectiveScore(bob.getId()), 1e-9);
+		assertFalse(todoRepository.findById(bob.getId()).orElseThrow().getAutoAdjusted());
+	}
+
+	private Todo task(Double score) {
+		Todo todo = new Todo();
+		todo.setTitle("ledger test");
+		todo.setMoodCompatibilityScore(score);
+		return todo;
+	}
+
+}
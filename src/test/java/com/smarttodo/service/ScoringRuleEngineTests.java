@@ -0,0 +1,83 @@
+package com.smarttodo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttodo.config.ScoringProperties;
+import com.smarttodo.config.ScoringRuleSet;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ScoringRuleEngineTests {
+
+	@Autowired
+	private ScoringRuleEngine scoringRuleEngine;
+
+	@Autowired
+	private ScoringProperties scoringProperties;
+
+	@Autowired
+	private TaskScoringIndex taskScoringIndex;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@TempDir
+	Path tempDir;
+
+	@BeforeEach
+	void clearTasks() {
+		todoRepository.deleteAll();
+		taskScoringIndex.rebuild();
+	}
+
+	@AfterEach
+	void restoreDefaults() {
+		scoringProperties.setRulesFile("");
+		scoringRuleEngine.reload();
+	}
+
+	@Test
+	void reloadsRulesFromFileWithoutRestart() throws Exception {
+		Todo task = new Todo();
+		task.setTitle("urgent");
+		task.setPriority(Todo.Priority.URGENT);
+		Long id = todoService.save(task).getId();
+		assertEquals(0.7, taskScoringIndex.scoreOne(id, "neutral", LocalDateTime.now()), 1e-9);
+
+		ScoringRuleSet tuned = ScoringRules.loadDefaultRuleSet(objectMapper);
+		tuned.getPriority().put("neutral", Map.of("URGENT", 0.45));
+		Path file = tempDir.resolve("scoring-rules.json");
+		objectMapper.writeValue(file.toFile(), tuned);
+
+		scoringProperties.setRulesFile(file.toString());
+		scoringRuleEngine.checkForChanges();
+		assertEquals(0.95, taskScoringIndex.scoreOne(id, "neutral", LocalDateTime.now()), 1e-9);
+		assertEquals(file.toString(), scoringRuleEngine.getStatus().get("source"));
+
+		// Arquivo inválido: a recarga falha e as regras compiladas antes continuam valendo
+		Files.writeString(file, "{\"cognitiveLoad\": {\"sleepy\": [0.1]}}");
+		assertThrows(IllegalArgumentException.class, () -> scoringRuleEngine.reload());
+		assertEquals(0.95, taskScoringIndex.scoreOne(id, "neutral", LocalDateTime.now()), 1e-9);
+	}
+
+}
@@ -0,0 +1,93 @@
+package com.smarttodo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarttodo.benchmark.LegacyScoringRules;
+import com.smarttodo.config.ScoringRuleSet;
+import com.smarttodo.entity.Todo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ScoringRulesTests {
+
+	private static final String[] CONDITIONS = {"high_temperature", "low_temperature", "high_humidity", "low_light", "high_light",
+			"high_noise", "low_noise", "poor_air_quality", "low_activity", "work_mode", "away_mode", "unknown_condition"};
+	private static final String[] LOCATIONS = {null, "office", "home", "anywhere", "gym"};
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void defaultRulesMatchHardCodedRules() {
+		ScoringRules rules = ScoringRules.compile(ScoringRules.loadDefaultRuleSet(objectMapper));
+		LocalDateTime now = LocalDateTime.of(2025, 10, 14, 12, 0, 0, 500_000_000);
+		List<String> moods = new ArrayList<>(List.of(ScoringRules.MOODS));
+		moods.add("happy");
+
+		Random random = new Random(11);
+		for (int i = 0; i < 2000; i++) {
+			Todo task = randomTask(random, now);
+			for (String mood : moods) {
+				assertEquals(LegacyScoringRules.score(task, mood, now), rules.score(task, mood, now), 0.0, mood);
+			}
+			for (String condition : CONDITIONS) {
+				assertEquals(LegacyScoringRules.conditionAdjustment(task, condition), rules.conditionAdjustment(task, condition), 0.0, condition);
+			}
+		}
+	}
+
+	@Test
+	void compilesTunedRules() {
+		ScoringRuleSet ruleSet = ScoringRules.loadDefaultRuleSet(objectMapper);
+		ruleSet.getPriority().put("neutral", Map.of("URGENT", 0.45));
+		ruleSet.getConditions().get("high_noise").getValues().put("quiet", -0.1);
+
+		Todo task = new Todo();
+		task.setPriority(Todo.Priority.URGENT);
+		task.setOptimalEnvironment("quiet");
+
+		ScoringRules rules = ScoringRules.compile(ruleSet);
+		assertEquals(0.95, rules.score(task, "neutral", LocalDateTime.now()), 1e-9);
+		assertEquals(0.8, rules.score(task, "focused", LocalDateTime.now()), 1e-9);
+		assertEquals(-0.1, rules.conditionAdjustment(task, "high_noise"), 0.0);
+	}
+
+	@Test
+	void rejectsInvalidRules() {
+		ScoringRuleSet unknownMood = ScoringRules.loadDefaultRuleSet(objectMapper);
+		unknownMood.getCognitiveLoad().put("sleepy", List.of(0.1));
+		assertThrows(IllegalArgumentException.class, () -> ScoringRules.compile(unknownMood));
+
+		ScoringRuleSet unknownPriority = ScoringRules.loadDefaultRuleSet(objectMapper);
+		unknownPriority.getConditions().get("work_mode").getValues().put("CRITICAL", 0.3);
+		assertThrows(IllegalArgumentException.class, () -> ScoringRules.compile(unknownPriority));
+
+		ScoringRuleSet unorderedWindows = ScoringRules.loadDefaultRuleSet(objectMapper);
+		unorderedWindows.getDueDate().get(1).setMaxHours(-5);
+		assertThrows(IllegalArgumentException.class, () -> ScoringRules.compile(unorderedWindows));
+	}
+
+	private static Todo randomTask(Random random, LocalDateTime now) {
+		String[] requiredMoods = {null, "focused", "energetic", "creative", "relaxed", "tired", "stressed", "neutral", "curious"};
+		String[] environments = {null, "quiet", "collaborative", "bright", "any"};
+		Integer[] loads = {null, -1, 0, 1, 2, 3, 4, 5, 9};
+
+		Todo task = new Todo();
+		task.setRequiredMood(requiredMoods[random.nextInt(requiredMoods.length)]);
+		task.setOptimalEnvironment(environments[random.nextInt(environments.length)]);
+		task.setCognitiveLoad(loads[random.nextInt(loads.length)]);
+		task.setPriority(random.nextInt(5) == 0 ? null : Todo.Priority.values()[random.nextInt(4)]);
+		task.setLocationContext(LOCATIONS[random.nextInt(LOCATIONS.length)]);
+		if (random.nextBoolean()) {
+			task.setDueDate(now.plusSeconds(random.nextInt(4 * 24 * 3600) - 24 * 3600));
+		}
+		return task;
+	}
+
+}
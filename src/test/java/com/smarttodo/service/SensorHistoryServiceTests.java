@@ -0,0 +1,96 @@
+package com.smarttodo.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SensorHistoryServiceTests {
+
+	@Autowired
+	private SensorHistoryService sensorHistoryService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void pagesThroughHistoryWithKeysetCursor() throws Exception {
+		LocalDateTime base = LocalDateTime.now().minusHours(1).withNano(0);
+		insert(1.0, base);
+		insert(2.0, base.plusMinutes(1));
+		insert(3.0, base.plusMinutes(1));
+		insert(4.0, base.plusMinutes(2));
+		insert(5.0, base.plusMinutes(3));
+
+		List<Double> values = new ArrayList<>();
+		HistoryCursor cursor = null;
+		for (int call = 0; call < 3; call++) {
+			List<JsonNode> lines = stream(cursor, 2);
+			JsonNode last = lines.get(lines.size() - 1);
+			for (JsonNode line : lines) {
+				if (line.has("value")) {
+					values.add(line.get("value").asDouble());
+				}
+			}
+			cursor = last.has("nextCursor") ? HistoryCursor.parse(last.get("nextCursor").asText()) : null;
+			if (cursor == null) {
+				break;
+			}
+		}
+
+		// Leituras com o mesmo timestamp são desempatadas pelo id, sem repetir nem pular nada entre páginas
+		assertEquals(List.of(5.0, 4.0, 3.0, 2.0, 1.0), values);
+	}
+
+	@Test
+	void streamsWholeRangeWithoutCursorWhenUnlimited() throws Exception {
+		LocalDateTime base = LocalDateTime.now().minusMinutes(30).withNano(0);
+		for (int i = 0; i < SensorHistoryService.PAGE_SIZE + 5; i++) {
+			jdbcTemplate.update("INSERT INTO sensor_data (sensor_id, sensor_type, sensor_value, timestamp) VALUES (?, ?, ?, ?)",
+					"bulk_1", "history_bulk", (double) i, Timestamp.valueOf(base.plusNanos(i * 1000L)));
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long written = sensorHistoryService.streamHistory(null, "history_bulk", base, null, null, out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(SensorHistoryService.PAGE_SIZE + 5, written);
+		assertEquals(written, lines.length);
+		assertFalse(lines[lines.length - 1].contains("nextCursor"));
+		assertTrue(objectMapper.readTree(lines[0]).get("value").asDouble() > objectMapper.readTree(lines[1]).get("value").asDouble());
+	}
+
+	private List<JsonNode> stream(HistoryCursor cursor, int limit) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		sensorHistoryService.streamHistory(null, "history_test", LocalDateTime.now().minusHours(2), cursor, limit, out);
+
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			lines.add(objectMapper.readTree(line));
+		}
+		return lines;
+	}
+
+	private void insert(double value, LocalDateTime timestamp) {
+		jdbcTemplate.update("INSERT INTO sensor_data (sensor_id, sensor_type, sensor_value, unit, location, timestamp, quality) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?)", "history_1", "history_test", value, "u", "lab", Timestamp.valueOf(timestamp), "good");
+	}
+
+}
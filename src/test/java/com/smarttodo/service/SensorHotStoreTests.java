@@ -0,0 +1,100 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.SensorData;
+import com.smarttodo.repository.SensorDataRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SensorHotStoreTests {
+
+	@Autowired
+	private SensorHotStore sensorHotStore;
+
+	@Autowired
+	private SensorDataRepository sensorDataRepository;
+
+	@Test
+	void answersRecentWindowFromMemoryAndOlderRangesFromRepository() {
+		LocalDateTime now = LocalDateTime.now();
+
+		SensorData archived = reading("hot_a", 1.0, now.minusHours(30));
+		sensorDataRepository.save(archived);
+
+		sensorHotStore.record(reading("hot_a", 2.0, now.minusMinutes(30)));
+		sensorHotStore.record(reading("hot_b", 3.0, now.minusMinutes(20)));
+		sensorHotStore.record(reading("hot_a", 4.0, now.minusMinutes(10)));
+
+		List<SensorData> lastHour = sensorHotStore.findRecent(null, "hot_test", now.minusHours(1));
+		assertEquals(List.of(4.0, 3.0, 2.0), lastHour.stream().map(SensorData::getValue).toList());
+		assertNull(lastHour.get(0).getId());
+
+		List<SensorData> lastTwoDays = sensorHotStore.findRecent(null, "hot_test", now.minusHours(48));
+		assertEquals(List.of(4.0, 3.0, 2.0, 1.0), lastTwoDays.stream().map(SensorData::getValue).toList());
+		assertEquals(archived.getId(), lastTwoDays.get(3).getId());
+	}
+
+	@Test
+	void readsAreScopedToTheSensorOwner() {
+		LocalDateTime now = LocalDateTime.now();
+		SensorData alice = reading("hot_shared", 1.0, now.minusMinutes(5));
+		alice.setSensorType("hot_owner_test");
+		alice.setOwnerId("alice");
+		SensorData bob = reading("hot_shared", 2.0, now.minusMinutes(4));
+		bob.setSensorType("hot_owner_test");
+		bob.setOwnerId("bob");
+		sensorHotStore.record(alice);
+		sensorHotStore.record(bob);
+
+		// Mesmo sensorId em casas diferentes: cada usuário só vê o seu
+		List<SensorData> aliceReadings = sensorHotStore.findRecent("alice", "hot_owner_test", now.minusHours(1));
+		assertEquals(List.of(1.0), aliceReadings.stream().map(SensorData::getValue).toList());
+		assertEquals("alice", aliceReadings.get(0).getOwnerId());
+		assertEquals(List.of(2.0), sensorHotStore.findRecent("bob", "hot_owner_test", now.minusHours(1))
+				.stream().map(SensorData::getValue).toList());
+		assertEquals(2, sensorHotStore.findRecent(null, "hot_owner_test", now.minusHours(1)).size());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void sensorsWithoutReadingsInTheRetentionWindowAreEvicted() {
+		LocalDateTime now = LocalDateTime.now();
+		SensorData stale = reading("hot_stale", 1.0, now.minusHours(30));
+		stale.setSensorType("hot_evict_test");
+		SensorData fresh = reading("hot_fresh", 2.0, now.minusMinutes(5));
+		fresh.setSensorType("hot_evict_test");
+		sensorHotStore.record(stale);
+		sensorHotStore.record(fresh);
+
+		assertTrue(sensorHotStore.evictIdle(now) >= 1);
+
+		Map<String, Object> bySensor = (Map<String, Object>) ((Map<String, Object>) sensorHotStore.getStatus()
+				.get("readingsBySensor")).get("hot_evict_test");
+		assertEquals(Set.of("hot_fresh"), bySensor.keySet());
+		assertTrue((long) sensorHotStore.getStatus().get("sensorsEvicted") >= 1);
+
+		// O sensor volta a ter buffer na próxima leitura
+		SensorData again = reading("hot_stale", 3.0, now.minusMinutes(1));
+		again.setSensorType("hot_evict_test");
+		sensorHotStore.record(again);
+		assertEquals(List.of(3.0, 2.0), sensorHotStore.findRecent(null, "hot_evict_test", now.minusHours(1))
+				.stream().map(SensorData::getValue).toList());
+	}
+
+	private SensorData reading(String sensorId, double value, LocalDateTime timestamp) {
+		SensorData data = new SensorData(sensorId, "hot_test", value, "u", "lab");
+		data.setTimestamp(timestamp);
+		return data;
+	}
+
+}
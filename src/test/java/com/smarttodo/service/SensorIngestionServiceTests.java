@@ -0,0 +1,54 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.SensorData;
+import com.smarttodo.repository.SensorDataRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SensorIngestionServiceTests {
+
+	@Autowired
+	private SensorIngestionService sensorIngestionService;
+
+	@Autowired
+	private SensorDataRepository sensorDataRepository;
+
+	@Test
+	void flushesQueuedReadingsInBatches() throws InterruptedException {
+		long before = sensorDataRepository.findBySensorType("ingestion_test").size();
+
+		for (int i = 0; i < 1200; i++) {
+			SensorData data = new SensorData("ingestion_test_" + (i % 10), "ingestion_test", (double) i, "u", "lab");
+			assertTrue(sensorIngestionService.submit(data));
+		}
+
+		long deadline = System.currentTimeMillis() + 10_000;
+		long stored = before;
+		while (stored < before + 1200 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+			stored = sensorDataRepository.findBySensorType("ingestion_test").size();
+		}
+
+		assertEquals(before + 1200, stored);
+		assertEquals(0, sensorIngestionService.getQueueDepth());
+
+		Map<String, Object> status = sensorIngestionService.getStatus();
+		assertTrue((long) status.get("flushCount") >= 3);
+		assertEquals(0L, status.get("failedReadings"));
+	}
+
+	@Test
+	void rejectsReadingsWithoutValue() {
+		SensorData data = new SensorData("s1", "ingestion_test", null, "u", "lab");
+		assertThrows(IllegalArgumentException.class, () -> sensorIngestionService.submit(data));
+	}
+
+}
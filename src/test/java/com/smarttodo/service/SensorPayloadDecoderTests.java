@@ -0,0 +1,46 @@
+package com.smarttodo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SensorPayloadDecoderTests {
+
+	private final SensorPayloadDecoder decoder = new SensorPayloadDecoder(new ObjectMapper());
+
+	@Test
+	void decodesSensorPayload() throws Exception {
+		SensorReading reading = decoder.decodeSensor("{\"sensor_id\": \"temperature_001\", \"value\": 23.7, "
+				+ "\"unit\": \"°C\", \"timestamp\": \"2025-10-14T10:15:30.123456\", \"extra\": {\"a\": [1, 2]}, "
+				+ "\"location\": \"office\"}");
+
+		assertEquals("temperature_001", reading.sensorId());
+		assertEquals(23.7, reading.value());
+		assertEquals("°C", reading.unit());
+		assertEquals("office", reading.location());
+		assertNull(reading.quality());
+		assertEquals(LocalDateTime.parse("2025-10-14T10:15:30.123456"), reading.timestamp());
+	}
+
+	@Test
+	void fallsBackToLocalDateTimeParseForOtherFormats() throws Exception {
+		SensorReading reading = decoder.decodeSensor("{\"sensor_id\": \"s\", \"value\": \"1\", \"timestamp\": \"2025-10-14T10:15\"}");
+
+		assertEquals(1.0, reading.value());
+		assertEquals(LocalDateTime.of(2025, 10, 14, 10, 15), reading.timestamp());
+	}
+
+	@Test
+	void decodesLocationPayload() throws Exception {
+		LocationUpdate update = decoder.decodeLocation("{\"user_id\": \"user_001\", \"location\": \"office\", \"confidence\": 0.91}");
+
+		assertEquals("office", update.location());
+		assertEquals(0.91, update.confidence());
+		assertEquals("user_001", update.userId());
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.IoTProperties;
+import com.smarttodo.entity.SensorData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SensorRetentionServiceTests {
+
+	@Autowired
+	private SensorRetentionService sensorRetentionService;
+
+	@Autowired
+	private IoTProperties ioTProperties;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@TempDir
+	Path archiveDirectory;
+
+	private String originalDirectory;
+	private int originalChunkSize;
+
+	@BeforeEach
+	void useTemporaryArchive() {
+		IoTProperties.Retention retention = ioTProperties.getRetention();
+		originalDirectory = retention.getArchiveDirectory();
+		originalChunkSize = retention.getChunkSize();
+		retention.setArchiveDirectory(archiveDirectory.toString());
+		retention.setChunkSize(2);
+	}
+
+	@AfterEach
+	void restoreArchive() {
+		ioTProperties.getRetention().setArchiveDirectory(originalDirectory);
+		ioTProperties.getRetention().setChunkSize(originalChunkSize);
+	}
+
+	@Test
+	void archivesExpiredReadingsInChunksAndReadsThemBack() throws IOException {
+		LocalDateTime cutoff = LocalDate.now().minusDays(30).atStartOfDay();
+		LocalDateTime oldDay = cutoff.minusDays(2).plusHours(10);
+
+		insert("retention_test", 10.0, oldDay);
+		insert("retention_test", 11.0, oldDay.plusMinutes(1));
+		insert("retention_test", 12.0, oldDay.plusMinutes(2));
+		insert("retention_other", 50.0, oldDay.plusDays(1));
+		insert("retention_test", 99.0, cutoff.plusHours(1));
+
+		assertEquals(4, sensorRetentionService.purgeBefore(cutoff));
+
+		assertEquals(1, count("retention_test"));
+		assertEquals(0, count("retention_other"));
+		try (Stream<Path> files = Files.walk(archiveDirectory)) {
+			assertEquals(3, files.filter(path -> path.toString().endsWith(".ndjson.gz")).count());
+		}
+
+		List<SensorData> archived =
+				sensorRetentionService.findArchived(null, "retention_test", oldDay.minusHours(1), cutoff);
+		assertEquals(3, archived.size());
+		assertEquals(12.0, archived.get(0).getValue());
+		assertEquals(oldDay, archived.get(2).getTimestamp());
+
+		assertEquals(1, sensorRetentionService.findArchived(null, null, oldDay.plusHours(12), cutoff).size());
+
+		// Uma segunda execução não encontra nada expirado
+		assertEquals(0, sensorRetentionService.purgeBefore(cutoff));
+	}
+
+	private void insert(String type, double value, LocalDateTime timestamp) {
+		jdbcTemplate.update("INSERT INTO sensor_data (sensor_id, sensor_type, sensor_value, unit, location, timestamp, quality) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?)", type + "_1", type, value, "u", "lab", Timestamp.valueOf(timestamp), "good");
+	}
+
+	private int count(String type) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sensor_data WHERE sensor_type = ?", Integer.class, type);
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.SensorData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class SensorRollupServiceTests {
+
+	@Autowired
+	private SensorRollupService sensorRollupService;
+
+	@Test
+	void mergesPersistedAndPendingBuckets() {
+		LocalDateTime hour = LocalDateTime.now().minusHours(2).withMinute(0).withSecond(0).withNano(0);
+
+		sensorRollupService.record(reading(20.0, hour.plusMinutes(5)));
+		sensorRollupService.record(reading(26.0, hour.plusMinutes(50)));
+		sensorRollupService.flush();
+		sensorRollupService.record(reading(23.0, hour.plusMinutes(30)));
+		sensorRollupService.flush();
+		sensorRollupService.record(reading(18.0, hour.plusMinutes(70)));
+
+		List<Map<String, Object>> hourly = sensorRollupService.getRollup("rollup_test", RollupResolution.HOUR, hour, null);
+		assertEquals(2, hourly.size());
+
+		Map<String, Object> first = hourly.get(0);
+		assertEquals(hour, first.get("bucketStart"));
+		assertEquals(3L, first.get("count"));
+		assertEquals(20.0, first.get("min"));
+		assertEquals(26.0, first.get("max"));
+		assertEquals(23.0, first.get("avg"));
+		assertEquals(26.0, first.get("last"));
+
+		assertEquals(18.0, hourly.get(1).get("last"));
+		assertEquals(4, sensorRollupService.getRollup("rollup_test", RollupResolution.MINUTE, hour, "lab").size());
+	}
+
+	private SensorData reading(double value, LocalDateTime timestamp) {
+		SensorData data = new SensorData("rollup_1", "rollup_test", value, "u", "lab");
+		data.setTimestamp(timestamp);
+		return data;
+	}
+
+}
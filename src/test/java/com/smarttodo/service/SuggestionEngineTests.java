@@ -0,0 +1,135 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.ScoringProperties;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SuggestionEngineTests {
+
+	@Autowired
+	private SuggestionEngine suggestionEngine;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private TaskScoringIndex taskScoringIndex;
+
+	@Autowired
+	private ScoringProperties scoringProperties;
+
+	@BeforeEach
+	void clearTasks() {
+		todoRepository.deleteAll();
+		taskScoringIndex.rebuild();
+	}
+
+	@Test
+	void changedTasksUpdateRankingWithoutRecompute() {
+		for (int i = 0; i < 30; i++) {
+			todoService.save(task("low " + i, 1, Todo.Priority.LOW));
+		}
+		Todo good = todoService.save(task("good", 3, Todo.Priority.HIGH));
+
+		List<Todo> first = suggestionEngine.getSuggestions("focused", 3);
+		assertEquals(good.getId(), first.get(0).getId());
+		long recomputes = recomputes();
+
+		// Nova tarefa melhor que todas: entra no topo pelo listener do índice
+		Todo best = todoService.save(task("best", 4, Todo.Priority.URGENT));
+		assertEquals(best.getId(), suggestionEngine.getSuggestions("focused", 3).get(0).getId());
+
+		// Concluída: sai do ranking e a próxima sobe
+		todoService.markAsCompleted(best.getId());
+		List<Todo> afterCompletion = suggestionEngine.getSuggestions("focused", 3);
+		assertEquals(good.getId(), afterCompletion.get(0).getId());
+		assertEquals(3, afterCompletion.size());
+
+		assertEquals(recomputes, recomputes());
+	}
+
+	@Test
+	void rankingMatchesDirectSelection() {
+		for (int i = 0; i < 40; i++) {
+			todoService.save(task("task " + i, i % 6, Todo.Priority.values()[i % 4]));
+		}
+
+		for (String mood : ScoringRules.MOODS) {
+			List<Long> cached = suggestionEngine.getSuggestions(mood, 10).stream().map(Todo::getId).toList();
+			List<Long> direct = suggestionEngine.hydrate(suggestionEngine.selectTop(mood, 10, Double.NEGATIVE_INFINITY))
+					.stream().map(Todo::getId).toList();
+			assertEquals(direct, cached, mood);
+		}
+	}
+
+	@Test
+	void rankingsArePartitionedByOwner() {
+		Todo alice = task("alice", 3, Todo.Priority.LOW);
+		alice.setOwnerId("alice");
+		alice = todoService.save(alice);
+		Todo bob = task("bob", 3, Todo.Priority.URGENT);
+		bob.setOwnerId("bob");
+		bob = todoService.save(bob);
+
+		assertEquals(List.of(alice.getId()), ids(suggestionEngine.getSuggestions("alice", "focused", 5)));
+		assertEquals(List.of(bob.getId()), ids(suggestionEngine.getSuggestions("bob", "focused", 5)));
+		assertEquals(List.of(), ids(suggestionEngine.getSuggestions("focused", 5)));
+
+		// Tarefa nova de outro usuário não entra no ranking da alice
+		Todo another = task("bob 2", 3, Todo.Priority.URGENT);
+		another.setOwnerId("bob");
+		todoService.save(another);
+		assertEquals(List.of(alice.getId()), ids(suggestionEngine.getSuggestions("alice", "focused", 5)));
+		assertEquals(2, suggestionEngine.getSuggestions("bob", "focused", 5).size());
+	}
+
+	@Test
+	void rankingsAreKeptForAtMostRankingUsers() {
+		int rankingUsers = scoringProperties.getRankingUsers();
+		scoringProperties.setRankingUsers(2);
+		try {
+			long evictions = (Long) suggestionEngine.getStatus().get("evictions");
+			suggestionEngine.getSuggestions("ranking-1", "focused", 5);
+			suggestionEngine.getSuggestions("ranking-2", "focused", 5);
+			suggestionEngine.getSuggestions("ranking-3", "focused", 5);
+
+			Map<String, Object> status = suggestionEngine.getStatus();
+			assertTrue((Integer) status.get("users") <= 2);
+			assertTrue((Long) status.get("evictions") > evictions);
+		} finally {
+			scoringProperties.setRankingUsers(rankingUsers);
+		}
+	}
+
+	private static List<Long> ids(List<Todo> tasks) {
+		return tasks.stream().map(Todo::getId).toList();
+	}
+
+	private long recomputes() {
+		Map<String, Object> status = suggestionEngine.getStatus();
+		return (Long) status.get("recomputes");
+	}
+
+	private Todo task(String title, int cognitiveLoad, Todo.Priority priority) {
+		Todo task = new Todo();
+		task.setTitle(title);
+		task.setCognitiveLoad(cognitiveLoad);
+		task.setPriority(priority);
+		return task;
+	}
+
+}
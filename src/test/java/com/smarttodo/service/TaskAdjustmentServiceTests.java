@@ -0,0 +1,140 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.ScoringProperties;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TaskAdjustmentServiceTests {
+
+	@Autowired
+	private TaskAdjustmentService taskAdjustmentService;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TaskScoringIndex taskScoringIndex;
+
+	@Autowired
+	private ScoringProperties scoringProperties;
+
+	private long decayHalfLife;
+
+	@Autowired
+	private ScoreLedger scoreLedger;
+
+	@BeforeEach
+	void clearTasks() {
+		// Valores exatos: o decaimento fica desligado, exceto nos testes dele
+		decayHalfLife = scoringProperties.getDecayHalfLife();
+		scoringProperties.setDecayHalfLife(0);
+		todoRepository.deleteAll();
+		taskScoringIndex.rebuild();
+	}
+
+	@AfterEach
+	void restoreDecay() {
+		scoringProperties.setDecayHalfLife(decayHalfLife);
+	}
+
+	@Test
+	void locationPassWritesOnlyChangedRowsInOneBatch() {
+		Todo office = todoService.save(task("office", 0.5));
+		Todo home = todoService.save(task("home", 0.5));
+		Todo anywhere = todoService.save(task(null, 0.5));
+
+		AdjustmentReport first = taskAdjustmentService.adjustTasksByLocation("office");
+		assertEquals(3, first.rowsExamined());
+		assertEquals(2, first.rowsChanged());
+		assertEquals(1, first.statementsIssued());
+
+		assertEquals(0.9, score(office), 1e-9);
+		assertEquals(0.2, score(home), 1e-9);
+		assertEquals(0.5, score(anywhere), 1e-9);
+
+		taskAdjustmentService.adjustTasksByLocation("office");
+
+		// Os dois scores já estão no limite (1.0 e 0.0): nada muda, nada é gravado
+		AdjustmentReport saturated = taskAdjustmentService.adjustTasksByLocation("office");
+		assertEquals(0, saturated.rowsChanged());
+		assertEquals(0, saturated.statementsIssued());
+		assertEquals(1.0, score(office), 1e-9);
+		assertEquals(0.0, score(home), 1e-9);
+
+		scoreLedger.compact();
+		Todo stored = todoRepository.findById(office.getId()).orElseThrow();
+		assertEquals(1.0, stored.getMoodCompatibilityScore(), 1e-9);
+		assertTrue(stored.getAutoAdjusted());
+	}
+
+	@Test
+	void passesTouchOnlyTheOwnersTasks() {
+		Todo alice = task("office", 0.5);
+		alice.setOwnerId("alice");
+		alice = todoService.save(alice);
+		Todo bob = task("office", 0.5);
+		bob.setOwnerId("bob");
+		bob = todoService.save(bob);
+
+		AdjustmentReport report = taskAdjustmentService.adjustTasksByLocation("alice", "office");
+		assertEquals(1, report.rowsExamined());
+		assertEquals(1, report.rowsChanged());
+		assertEquals(0.9, score(alice), 1e-9);
+		assertEquals(0.5, score(bob), 1e-9);
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> mood = (Map<String, Object>) taskAdjustmentService.adjustTasksByMood("bob", "focused").get("report");
+		assertEquals(1, mood.get("rowsExamined"));
+	}
+
+	@Test
+	void moodPassSkipsUnchangedRowsAndStoresSuggestedOrder() {
+		Todo focused = task(null, 0.0);
+		focused.setRequiredMood("focused");
+		focused.setCognitiveLoad(4);
+		focused.setPriority(Todo.Priority.HIGH);
+		focused = todoService.save(focused);
+
+		Map<String, Object> first = taskAdjustmentService.adjustTasksByMood("focused");
+		@SuppressWarnings("unchecked")
+		Map<String, Object> report = (Map<String, Object>) first.get("report");
+		assertEquals(1, report.get("rowsChanged"));
+
+		Todo stored = todoRepository.findById(focused.getId()).orElseThrow();
+		assertEquals(1.0, stored.getMoodCompatibilityScore(), 1e-9);
+		assertEquals(1, stored.getSuggestedOrder());
+		assertTrue(stored.getAutoAdjusted());
+
+		@SuppressWarnings("unchecked")
+		Map<String, Object> second = (Map<String, Object>) taskAdjustmentService.adjustTasksByMood("focused").get("report");
+		assertEquals(0, second.get("rowsChanged"));
+		assertEquals(0, second.get("statementsIssued"));
+	}
+
+	private Todo task(String location, double score) {
+		Todo todo = new Todo();
+		todo.setTitle("adjustment test");
+		todo.setLocationContext(location);
+		todo.setMoodCompatibilityScore(score);
+		return todo;
+	}
+
+	private double score(Todo todo) {
+		return scoreLedger.effectiveScore(todo.getId());
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.smarttodo.service;
+
+import com.smarttodo.benchmark.LegacyScoringRules;
+import com.smarttodo.entity.Todo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TaskScoringIndexTests {
+
+	private static final String[] REQUIRED_MOODS = {null, "focused", "energetic", "creative", "relaxed", "tired", "stressed", "neutral", "curious"};
+	private static final String[] ENVIRONMENTS = {null, "quiet", "collaborative", "bright", "any"};
+	private static final Integer[] LOADS = {null, 0, 1, 2, 3, 4, 5, 9};
+
+	@Test
+	void matchesEntityScoringForEveryMood() {
+		TaskScoringIndex index = new TaskScoringIndex();
+		LocalDateTime now = LocalDateTime.of(2025, 10, 14, 12, 0, 0, 500_000_000);
+		Map<Long, Todo> tasks = new HashMap<>();
+
+		Random random = new Random(42);
+		for (long id = 1; id <= 2000; id++) {
+			Todo task = new Todo();
+			task.setId(id);
+			task.setTitle("task " + id);
+			task.setRequiredMood(REQUIRED_MOODS[random.nextInt(REQUIRED_MOODS.length)]);
+			task.setOptimalEnvironment(ENVIRONMENTS[random.nextInt(ENVIRONMENTS.length)]);
+			task.setCognitiveLoad(LOADS[random.nextInt(LOADS.length)]);
+			task.setPriority(random.nextInt(5) == 0 ? null : Todo.Priority.values()[random.nextInt(4)]);
+			if (random.nextBoolean()) {
+				task.setDueDate(now.plusSeconds(random.nextInt(4 * 24 * 3600) - 24 * 3600));
+			}
+			index.upsert(task);
+			tasks.put(id, task);
+		}
+
+		List<String> moods = new ArrayList<>(List.of(ScoringRules.MOODS));
+		moods.add("happy");
+
+		for (String mood : moods) {
+			TaskScoringIndex.Scores scores = index.score(mood, now);
+			assertEquals(tasks.size(), scores.size);
+			for (int i = 0; i < scores.size; i++) {
+				Todo task = tasks.get(scores.ids[i]);
+				assertEquals(LegacyScoringRules.score(task, mood, now), scores.scores[i], 0.0, "tarefa " + task.getId() + " / " + mood);
+			}
+		}
+	}
+
+	@Test
+	void tracksRemovalsAndCompletion() {
+		TaskScoringIndex index = new TaskScoringIndex();
+		for (long id = 1; id <= 3; id++) {
+			Todo task = new Todo();
+			task.setId(id);
+			task.setTitle("task " + id);
+			index.upsert(task);
+		}
+
+		index.remove(1L);
+		Todo completed = new Todo();
+		completed.setId(3L);
+		completed.setStatus(Todo.TaskStatus.COMPLETED);
+		index.upsert(completed);
+
+		TaskScoringIndex.Scores scores = index.score("neutral", LocalDateTime.now());
+		assertEquals(1, scores.size);
+		assertEquals(2L, scores.ids[0]);
+	}
+
+	@Test
+	void parallelScoringMatchesSequential() {
+		TaskScoringIndex index = new TaskScoringIndex();
+		LocalDateTime now = LocalDateTime.of(2025, 10, 14, 12, 0);
+		Random random = new Random(3);
+		for (long id = 1; id <= 10_000; id++) {
+			Todo task = new Todo();
+			task.setId(id);
+			task.setTitle("task " + id);
+			task.setRequiredMood(REQUIRED_MOODS[random.nextInt(REQUIRED_MOODS.length)]);
+			task.setOptimalEnvironment(ENVIRONMENTS[random.nextInt(ENVIRONMENTS.length)]);
+			task.setCognitiveLoad(LOADS[random.nextInt(LOADS.length)]);
+			task.setPriority(Todo.Priority.values()[random.nextInt(4)]);
+			index.upsert(task);
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (String mood : ScoringRules.MOODS) {
+				for (double minScore : new double[]{Double.NEGATIVE_INFINITY, 0.7}) {
+					TaskScoringIndex.Scores sequential = index.scoreTop(mood, now, 25, minScore, null, 0);
+					TaskScoringIndex.Scores parallel = index.scoreTop(mood, now, 25, minScore, pool, 257);
+
+					assertArrayEquals(sequential.scores, parallel.scores, 0.0, mood);
+					assertArrayEquals(sequential.top, parallel.top, mood + " / " + minScore);
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.smarttodo.service;
+
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TaskCounts;
+import com.smarttodo.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class TaskStatisticsTests {
+
+	@Autowired
+	private TaskStatistics taskStatistics;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private TaskScoringIndex taskScoringIndex;
+
+	@Autowired
+	private TaskAdjustmentService taskAdjustmentService;
+
+	@Autowired
+	private ScoreLedger scoreLedger;
+
+	@BeforeEach
+	void clearTasks() {
+		todoRepository.deleteAll();
+		taskScoringIndex.rebuild();
+	}
+
+	@Test
+	void countersFollowServiceMutationsWithoutReloading() {
+		long reloads = reloads();
+
+		Todo first = todoService.save(task("alice", Todo.Priority.HIGH));
+		Todo second = todoService.save(task("alice", Todo.Priority.LOW));
+		todoService.save(task("bob", Todo.Priority.HIGH));
+
+		Todo edit = task("alice", Todo.Priority.URGENT);
+		edit.setTitle("edited");
+		edit.setStatus(Todo.TaskStatus.IN_PROGRESS);
+		todoService.update(first.getId(), edit);
+		todoService.markAsCompleted(second.getId());
+		todoService.markAsCompleted(second.getId());
+
+		Map<String, Object> alice = taskStatistics.getStats("alice");
+		assertEquals(2L, alice.get("total"));
+		assertEquals(1L, alice.get("completed"));
+		assertEquals(1L, alice.get("active"));
+		assertEquals(1L, byStatus(alice).get("IN_PROGRESS"));
+		assertEquals(0L, byStatus(alice).get("PENDING"));
+		assertEquals(1L, byPriority(alice).get("URGENT"));
+		assertEquals(0L, byPriority(alice).get("HIGH"));
+
+		todoService.delete(second.getId());
+		assertEquals(new TaskCounts(1, 1, 0), taskStatistics.counts("alice"));
+		assertEquals(new TaskCounts(2, 2, 0), taskStatistics.counts(null));
+		assertEquals(new TaskCounts(0, 0, 0), taskStatistics.counts("nobody"));
+		assertEquals(reloads, reloads());
+		assertCountersMatchTheDatabase();
+	}
+
+	@Test
+	void writesOutsideTheServiceApplyDeltasWithoutReloading() {
+		Todo focused = task("default", Todo.Priority.HIGH);
+		focused.setRequiredMood("focused");
+		focused.setCognitiveLoad(4);
+		todoService.save(focused);
+		Todo done = task("default", Todo.Priority.LOW);
+		done.setStatus(Todo.TaskStatus.COMPLETED);
+		done = todoService.save(done);
+		assertEquals(new TaskCounts(2, 1, 0), taskStatistics.counts("default"));
+		long reloads = reloads();
+
+		taskAdjustmentService.adjustTasksByMood("focused");
+		assertEquals(new TaskCounts(2, 1, 1), taskStatistics.counts("default"));
+
+		// A compactação também marca tarefas fora do índice (concluídas)
+		scoreLedger.append("test:up", Map.of(done.getId(), 0.1));
+		scoreLedger.compact();
+		assertEquals(new TaskCounts(2, 1, 2), taskStatistics.counts("default"));
+
+		// Trocar as regras muda scores, não contagens
+		taskScoringIndex.setRules(taskScoringIndex.getRules());
+
+		taskAdjustmentService.resetAutoAdjustment();
+		assertEquals(new TaskCounts(2, 1, 0), taskStatistics.counts("default"));
+		assertEquals(reloads, reloads());
+		assertCountersMatchTheDatabase();
+	}
+
+	// Os contadores incrementais batem com o GROUP BY do banco
+	private void assertCountersMatchTheDatabase() {
+		Map<String, Object> incremental = taskStatistics.getStats(null);
+		taskStatistics.reload();
+		Map<String, Object> reloaded = taskStatistics.getStats(null);
+		for (String key : new String[]{"total", "completed", "active", "autoAdjusted", "byStatus", "byPriority"}){
+			assertEquals(reloaded.get(key), incremental.get(key), key);
+		}
+	}
+
+	private long reloads() {
+		return (Long) taskStatistics.getStatus().get("reloads");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Long> byStatus(Map<String, Object> stats) {
+		return (Map<String, Long>) stats.get("byStatus");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Long> byPriority(Map<String, Object> stats) {
+		return (Map<String, Long>) stats.get("byPriority");
+	}
+
+	private Todo task(String owner, Todo.Priority priority) {
+		Todo todo = new Todo();
+		todo.setTitle("stats test");
+		todo.setOwnerId(owner);
+		todo.setPriority(priority);
+		return todo;
+	}
+
+}
@@ -0,0 +1,152 @@
+package com.smarttodo.service;
+
+import com.smarttodo.controller.TodoController;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TaskCounts;
+import com.smarttodo.repository.TodoRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TodoBulkTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(TodoBulkTests.class);
+
+	@Autowired
+	private TodoBulkService todoBulkService;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TodoController todoController;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private TaskScoringIndex taskScoringIndex;
+
+	@Autowired
+	private TaskStatistics taskStatistics;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void clearTasks() {
+		todoRepository.deleteAll();
+		taskScoringIndex.rebuild();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@AfterEach
+	void disableStatistics() {
+		statistics.setStatisticsEnabled(false);
+	}
+
+	@Test
+	void importOfTenThousandTasksTakesFewStatements() {
+		int singles = 500;
+		statistics.clear();
+		long start = System.nanoTime();
+		for (int i = 0; i < singles; i++){
+			todoService.save(task("single " + i));
+		}
+		double singleRate = singles / ((System.nanoTime() - start) / 1e9);
+		long singleStatements = statistics.getPrepareStatementCount();
+
+		List<Todo> todos = new ArrayList<>();
+		for (int i = 0; i < TodoBulkService.MAX_ITEMS; i++){
+			todos.add(task("bulk " + i));
+		}
+		statistics.clear();
+		start = System.nanoTime();
+		BulkResult result = todoBulkService.create("alice", todos);
+		double bulkRate = todos.size() / ((System.nanoTime() - start) / 1e9);
+		long bulkStatements = statistics.getPrepareStatementCount();
+
+		logger.info("Importação: {} tarefas/s em lote ({} statements para {}), {} tarefas/s uma a uma ({} statements para {})",
+				Math.round(bulkRate), bulkStatements, todos.size(), Math.round(singleRate), singleStatements, singles);
+
+		assertEquals(TodoBulkService.MAX_ITEMS, result.ids().size());
+		// INSERTs em lotes de batch_size e um nextval a cada allocationSize ids
+		assertTrue(bulkStatements <= 2L * TodoBulkService.MAX_ITEMS / Todo.ALLOCATION_SIZE + 10,
+				"Statements demais: " + bulkStatements);
+		assertEquals(new TaskCounts(TodoBulkService.MAX_ITEMS, TodoBulkService.MAX_ITEMS, 0), taskStatistics.counts("alice"));
+		assertEquals(TodoBulkService.MAX_ITEMS, todoService.findActiveTasks("alice").size());
+	}
+
+	@Test
+	void updateCompleteAndDeleteKeepCountersAndReportMissingIds() {
+		List<Long> ids = todoBulkService.create("bob", List.of(task("a"), task("b"), task("c"))).ids();
+		// Carrega a lista ativa no cache antes das mudanças
+		assertEquals(3, todoService.findActiveTasks("bob").size());
+
+		Todo edit = task("edited");
+		edit.setId(ids.get(0));
+		edit.setPriority(Todo.Priority.URGENT);
+		Todo missing = task("missing");
+		missing.setId(-1L);
+		BulkResult updated = todoBulkService.update(List.of(edit, missing));
+		assertEquals(List.of(ids.get(0)), updated.ids());
+		assertEquals(List.of(-1L), updated.notFound());
+		assertEquals("edited", todoService.findById(ids.get(0)).orElseThrow().getTitle());
+
+		BulkResult completed = todoBulkService.complete(List.of(ids.get(1), ids.get(1)));
+		assertEquals(List.of(ids.get(1)), completed.ids());
+		assertEquals(new TaskCounts(3, 2, 0), taskStatistics.counts("bob"));
+		assertEquals(List.of(ids.get(0), ids.get(2)),
+				todoService.findActiveTasks("bob").stream().map(Todo::getId).sorted().toList());
+
+		BulkResult deleted = todoBulkService.delete(List.of(ids.get(1), ids.get(2), -1L));
+		assertEquals(List.of(ids.get(1), ids.get(2)), deleted.ids());
+		assertEquals(List.of(-1L), deleted.notFound());
+		assertEquals(new TaskCounts(1, 1, 0), taskStatistics.counts("bob"));
+		assertEquals(List.of(ids.get(0)), todoService.findActiveTasks("bob").stream().map(Todo::getId).toList());
+
+		// Os contadores incrementais batem com o banco
+		TaskCounts incremental = taskStatistics.counts(null);
+		taskStatistics.reload();
+		assertEquals(taskStatistics.counts(null), incremental);
+	}
+
+	@Test
+	void invalidBatchesAreRejectedBeforeWriting() {
+		Todo untitled = task(" ");
+		assertEquals(HttpStatus.BAD_REQUEST,
+				todoController.createTodos(List.of(task("ok"), untitled), "default").getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, todoController.updateTodos(List.of(task("no id"))).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, todoController.completeTodos(List.of()).getStatusCode());
+		assertEquals(0, todoRepository.count());
+
+		assertEquals(HttpStatus.CREATED, todoController.createTodos(List.of(task("ok")), "default").getStatusCode());
+		assertEquals(1, todoRepository.count());
+	}
+
+	private Todo task(String title) {
+		Todo todo = new Todo();
+		todo.setTitle(title);
+		todo.setPriority(Todo.Priority.MEDIUM);
+		return todo;
+	}
+
+}
@@ -0,0 +1,175 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.TodoCacheProperties;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class TodoCacheTests {
+
+	@Autowired
+	private TodoCache todoCache;
+
+	@Autowired
+	private TodoCacheProperties cacheProperties;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private TaskScoringIndex taskScoringIndex;
+
+	@Autowired
+	private TaskAdjustmentService taskAdjustmentService;
+
+	@Autowired
+	private ScoreLedger scoreLedger;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private int maxEntities;
+
+	@BeforeEach
+	void clearTasks() {
+		maxEntities = cacheProperties.getMaxEntities();
+		todoRepository.deleteAll();
+		taskScoringIndex.rebuild();
+	}
+
+	@AfterEach
+	void restoreSize() {
+		cacheProperties.setMaxEntities(maxEntities);
+	}
+
+	@Test
+	void repeatedReadsAreServedFromCacheAsCopies() {
+		Todo saved = todoService.save(task("cached", Todo.Priority.MEDIUM));
+
+		long hits = stat("todo", "hits");
+		Todo first = todoService.findById(saved.getId()).orElseThrow();
+		Todo second = todoService.findById(saved.getId()).orElseThrow();
+
+		assertTrue(stat("todo", "hits") > hits);
+		assertNotSame(first, second);
+
+		// Alterar a entidade devolvida não muda o que está no cache
+		second.setTitle("changed locally");
+		assertEquals("cached", todoService.findById(saved.getId()).orElseThrow().getTitle());
+	}
+
+	@Test
+	void missesAlsoReturnDetachedCopies() {
+		Todo todo = task("ledger", Todo.Priority.MEDIUM);
+		todo.setMoodCompatibilityScore(0.5);
+		Todo saved = todoService.save(todo);
+		scoreLedger.append("test:up", Map.of(saved.getId(), 0.2));
+
+		// Dentro de uma transação (como com open-in-view) o overlay do score efetivo não pode virar checkpoint
+		transactionTemplate.executeWithoutResult(status -> {
+			assertTrue(todoService.findById(saved.getId()).orElseThrow().getAutoAdjusted());
+			assertEquals(1, todoService.findActiveTasks("default").size());
+		});
+
+		Todo stored = todoRepository.findById(saved.getId()).orElseThrow();
+		assertEquals(0.5, stored.getMoodCompatibilityScore(), 1e-9);
+		assertFalse(stored.getAutoAdjusted());
+	}
+
+	@Test
+	void mutationsThroughTheServiceInvalidateReads() {
+		Todo first = todoService.save(task("first", Todo.Priority.MEDIUM, 1));
+		Todo second = todoService.save(task("second", Todo.Priority.MEDIUM, 2));
+		assertEquals(List.of("first", "second"), titles(todoService.findActiveTasks("default")));
+
+		long listHits = stat("active", "hits");
+		todoService.findActiveTasks("default");
+		assertEquals(listHits + 1, stat("active", "hits"));
+
+		Todo third = todoService.save(task("third", Todo.Priority.MEDIUM, 3));
+		assertEquals(List.of("first", "second", "third"), titles(todoService.findActiveTasks("default")));
+
+		todoService.update(first.getId(), task("first edited", Todo.Priority.MEDIUM, 1));
+		assertEquals("first edited", todoService.findById(first.getId()).orElseThrow().getTitle());
+		assertEquals(List.of("first edited", "second", "third"), titles(todoService.findActiveTasks("default")));
+
+		todoService.markAsCompleted(second.getId());
+		assertEquals(List.of("first edited", "third"), titles(todoService.findActiveTasks("default")));
+		assertEquals(Todo.TaskStatus.COMPLETED, todoService.findById(second.getId()).orElseThrow().getStatus());
+
+		todoService.delete(third.getId());
+		assertEquals(List.of("first edited"), titles(todoService.findActiveTasks("default")));
+		assertTrue(todoService.findById(third.getId()).isEmpty());
+	}
+
+	@Test
+	void adjustmentWritesInvalidateCachedEntities() {
+		Todo focused = task("focused", Todo.Priority.HIGH);
+		focused.setRequiredMood("focused");
+		focused.setCognitiveLoad(4);
+		focused = todoService.save(focused);
+		assertEquals(0, todoService.findById(focused.getId()).orElseThrow().getSuggestedOrder());
+
+		taskAdjustmentService.adjustTasksByMood("focused");
+
+		assertEquals(1, todoService.findById(focused.getId()).orElseThrow().getSuggestedOrder());
+		assertEquals(1, todoService.findActiveTasks("default").get(0).getSuggestedOrder());
+	}
+
+	@Test
+	void entityCacheIsBoundedByLeastRecentUse() {
+		cacheProperties.setMaxEntities(3);
+		todoCache.clear();
+
+		long evictions = stat("todo", "evictions");
+		for (int i = 0; i < 5; i++){
+			Todo saved = todoService.save(task("bounded " + i, Todo.Priority.MEDIUM));
+			todoService.findById(saved.getId());
+		}
+
+		assertEquals(3, stat("todo", "size"));
+		assertEquals(evictions + 2, stat("todo", "evictions"));
+	}
+
+	private long stat(String cache, String name) {
+		@SuppressWarnings("unchecked")
+		Map<String, Object> stats = (Map<String, Object>) todoCache.getStatus().get(cache);
+		return ((Number) stats.get(name)).longValue();
+	}
+
+	private static List<String> titles(List<Todo> tasks) {
+		return tasks.stream().map(Todo::getTitle).toList();
+	}
+
+	private Todo task(String title, Todo.Priority priority) {
+		Todo todo = new Todo();
+		todo.setTitle(title);
+		todo.setPriority(priority);
+		return todo;
+	}
+
+	private Todo task(String title, Todo.Priority priority, int position) {
+		Todo todo = task(title, priority);
+		todo.setCreatedAt(LocalDateTime.now().minusMinutes(10 - position));
+		return todo;
+	}
+
+}
@@ -0,0 +1,182 @@
+package com.smarttodo.service;
+
+import com.smarttodo.config.ScoringProperties;
+import com.smarttodo.controller.TodoController;
+import com.smarttodo.entity.Todo;
+import com.smarttodo.repository.TodoListQuery;
+import com.smarttodo.repository.TodoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class TodoListingTests {
+
+	@Autowired
+	private TodoController todoController;
+
+	@Autowired
+	private TodoService todoService;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@Autowired
+	private TaskScoringIndex taskScoringIndex;
+
+	@Autowired
+	private TaskAdjustmentService taskAdjustmentService;
+
+	@Autowired
+	private ScoringProperties scoringProperties;
+
+	private long decayHalfLife;
+
+	@BeforeEach
+	void clearTasks() {
+		decayHalfLife = scoringProperties.getDecayHalfLife();
+		scoringProperties.setDecayHalfLife(0);
+		todoRepository.deleteAll();
+		taskScoringIndex.rebuild();
+	}
+
+	@AfterEach
+	void restoreDecay() {
+		scoringProperties.setDecayHalfLife(decayHalfLife);
+	}
+
+	@Test
+	void filtersCombineOnTheServer() {
+		LocalDateTime now = LocalDateTime.now();
+		Todo office = todoService.save(task("default", "office", Todo.Priority.HIGH, now.plusDays(1)));
+		todoService.save(task("default", "home", Todo.Priority.HIGH, now.plusDays(1)));
+		todoService.save(task("default", "office", Todo.Priority.LOW, now.plusDays(1)));
+		todoService.save(task("default", "office", Todo.Priority.HIGH, now.plusDays(10)));
+		todoService.save(task("alice", "office", Todo.Priority.HIGH, now.plusDays(1)));
+		Todo done = todoService.save(task("default", "office", Todo.Priority.HIGH, now.plusDays(1)));
+		todoService.markAsCompleted(done.getId());
+
+		List<Todo> found = todoService.list(new TodoListQuery("default", List.of(Todo.TaskStatus.PENDING), false,
+				List.of(Todo.Priority.HIGH, Todo.Priority.URGENT), "office", now, now.plusDays(2), null, 0, 10, false));
+		assertEquals(List.of(office.getId()), found.stream().map(Todo::getId).toList());
+
+		ResponseEntity<?> response = todoController.getAllTodos("default", List.of("completed"), null, null,
+				null, null, null, null, null, null);
+		assertEquals(List.of(done.getId()), ids(response));
+
+		ResponseEntity<?> invalid = todoController.getAllTodos("default", List.of("archived"), null, null,
+				null, null, null, null, null, null);
+		assertEquals(HttpStatus.BAD_REQUEST, invalid.getStatusCode());
+	}
+
+	@Test
+	void keysetPagesFollowTheNextCursorUntilTheEnd() {
+		List<Long> created = new ArrayList<>();
+		for (int i = 0; i < 7; i++){
+			created.add(todoService.save(task("default", null, Todo.Priority.MEDIUM, null)).getId());
+		}
+
+		List<Long> seen = new ArrayList<>();
+		Long after = null;
+		int pages = 0;
+		do {
+			ResponseEntity<?> response = todoController.getAllTodos("default", null, null, null,
+					null, null, null, 3, after, null);
+			seen.addAll(ids(response));
+			String next = response.getHeaders().getFirst("X-Next-Cursor");
+			after = next != null ? Long.valueOf(next) : null;
+			pages++;
+		} while (after != null);
+
+		assertEquals(created, seen);
+		assertEquals(3, pages);
+
+		ResponseEntity<?> second = todoController.getAllTodos("default", null, null, null,
+				null, null, 1, 3, null, null);
+		assertEquals(created.subList(3, 6), ids(second));
+		assertEquals("7", second.getHeaders().getFirst("X-Total-Count"));
+
+		ResponseEntity<?> both = todoController.getAllTodos("default", null, null, null,
+				null, null, 1, 3, created.get(0), null);
+		assertEquals(HttpStatus.BAD_REQUEST, both.getStatusCode());
+	}
+
+	@Test
+	void fieldsSelectOnlyTheRequestedColumnsWithEffectiveScores() {
+		Todo office = todoService.save(task("default", "office", Todo.Priority.HIGH, null));
+		taskAdjustmentService.adjustTasksByLocation("office");
+
+		ResponseEntity<?> response = todoController.getAllTodos("default", null, null, null,
+				null, null, null, null, null, List.of("title", "moodCompatibilityScore"));
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> rows = (List<Map<String, Object>>) response.getBody();
+		assertEquals(1, rows.size());
+		assertEquals(List.of("id", "title", "moodCompatibilityScore"), new ArrayList<>(rows.get(0).keySet()));
+		assertEquals(office.getId(), rows.get(0).get("id"));
+		assertEquals(0.9, (Double) rows.get(0).get("moodCompatibilityScore"), 1e-9);
+
+		List<Map<String, Object>> flags = todoService.list(new TodoListQuery("default", List.of(), false, List.of(),
+				null, null, null, null, 0, 10, false), List.of("id", "autoAdjusted"));
+		assertEquals(Map.of("id", office.getId(), "autoAdjusted", true), flags.get(0));
+
+		ResponseEntity<?> unknown = todoController.getAllTodos("default", null, null, null,
+				null, null, null, null, null, List.of("title", "password"));
+		assertEquals(HttpStatus.BAD_REQUEST, unknown.getStatusCode());
+	}
+
+	@Test
+	void activeListIsPagedInPriorityOrder() {
+		Todo low = todoService.save(task("default", null, Todo.Priority.MEDIUM, null));
+		Todo urgent = todoService.save(task("default", null, Todo.Priority.URGENT, null));
+		Todo done = todoService.save(task("default", null, Todo.Priority.URGENT, null));
+		todoService.markAsCompleted(done.getId());
+
+		ResponseEntity<?> first = todoController.getActiveTasks("default", null, null, null, null, null, 0, 1, null);
+		assertEquals(List.of(urgent.getId()), ids(first));
+		assertEquals("2", first.getHeaders().getFirst("X-Total-Count"));
+		assertNull(first.getHeaders().getFirst("X-Next-Cursor"));
+
+		ResponseEntity<?> filtered = todoController.getActiveTasks("default", null, List.of("medium"), null, null, null,
+				null, null, List.of("priority"));
+		assertEquals(List.of(low.getId()), ids(filtered));
+
+		// offset perto de Integer.MAX_VALUE: página vazia, não erro
+		ResponseEntity<?> beyond = todoController.getActiveTasks("default", null, null, null, null, null, 2147483, 1000, null);
+		assertEquals(HttpStatus.OK, beyond.getStatusCode());
+		assertEquals(List.of(), ids(beyond));
+		assertEquals("2", beyond.getHeaders().getFirst("X-Total-Count"));
+	}
+
+	private static List<Long> ids(ResponseEntity<?> response) {
+		List<Long> ids = new ArrayList<>();
+		for (Object row : (List<?>) response.getBody()){
+			ids.add(row instanceof Todo todo ? todo.getId() : (Long) ((Map<?, ?>) row).get("id"));
+		}
+		return ids;
+	}
+
+	private Todo task(String owner, String location, Todo.Priority priority, LocalDateTime dueDate) {
+		Todo todo = new Todo();
+		todo.setTitle("listing test");
+		todo.setOwnerId(owner);
+		todo.setLocationContext(location);
+		todo.setPriority(priority);
+		todo.setDueDate(dueDate);
+		todo.setMoodCompatibilityScore(0.5);
+		return todo;
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.smarttodo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class TopKSelectorTests {
+
+	@Test
+	void matchesFullSortWithTiesAndThreshold() {
+		Random random = new Random(7);
+		int n = 5000;
+		double[] scores = new double[n];
+		long[] ids = new long[n];
+		for (int i = 0; i < n; i++) {
+			// Poucos valores distintos para forçar empates
+			scores[i] = random.nextInt(50) / 50.0;
+			ids[i] = random.nextInt(1_000_000);
+		}
+
+		for (int k : new int[]{0, 1, 5, 20, 4999, 6000}) {
+			for (double minScore : new double[]{Double.NEGATIVE_INFINITY, 0.7}) {
+				int[] expected = IntStream.range(0, n)
+						.filter(i -> scores[i] > minScore)
+						.boxed()
+						.sorted(Comparator.<Integer>comparingDouble(i -> scores[i]).reversed().thenComparingLong(i -> ids[i]))
+						.limit(k)
+						.mapToInt(Integer::intValue)
+						.toArray();
+
+				int[] selected = TopKSelector.select(scores, ids, n, k, minScore);
+				assertArrayEquals(ids(expected, ids), ids(selected, ids), "k=" + k + " min=" + minScore);
+			}
+		}
+	}
+
+	private static long[] ids(int[] slots, long[] ids) {
+		return IntStream.of(slots).mapToLong(slot -> ids[slot]).toArray();
+	}
+
+}